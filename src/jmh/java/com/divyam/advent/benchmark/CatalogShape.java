@@ -0,0 +1,11 @@
+package com.divyam.advent.benchmark;
+
+/**
+ * Shape of a synthetic catalog. Public because JMH generated code reads it as a parameter.
+ */
+public enum CatalogShape {
+    /** Seeded challenges spread over every category, energy level and culture. */
+    SEEDED,
+    /** Only a PDF cycle, which forces the cycle fallback path. */
+    CYCLE_ONLY
+}
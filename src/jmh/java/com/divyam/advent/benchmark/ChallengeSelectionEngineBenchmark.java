@@ -0,0 +1,99 @@
+package com.divyam.advent.benchmark;
+
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.enums.Mood;
+import com.divyam.advent.model.Challenge;
+import com.divyam.advent.model.UserChallengeSummary;
+import com.divyam.advent.repository.ChallengeRepository;
+import com.divyam.advent.service.ChallengeCatalog;
+import com.divyam.advent.service.DailyChallengeSelector;
+import com.divyam.advent.service.DailyPreviewTokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency percentiles of the daily challenge selection engine.
+ *
+ * select drives {@link DailyChallengeSelector} alone: candidate lookup, cycle fallback and ranking.
+ * preview adds what the preview endpoint does around the selection once the user and summary are loaded:
+ * the history digest and token signing.
+ * pastAssignments is the number of assignments recorded in the user's summary. The summary keeps one usage
+ * entry per distinct challenge, so beyond catalogSize it raises the use counts, not the number of entries.
+ * The CYCLE_ONLY catalog has no seeded challenges, so every selection takes the cycle fallback.
+ *
+ * SampleTime reports p50 to p99.99; add the gc profiler for allocation rate:
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="ChallengeSelectionEngineBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChallengeSelectionEngineBenchmark {
+
+    private static final Long USER_ID = 1L;
+
+    @Param({"SEEDED", "CYCLE_ONLY"})
+    public CatalogShape catalogShape;
+
+    @Param({"100", "1000"})
+    public int catalogSize;
+
+    @Param({"10", "1000", "10000"})
+    public int pastAssignments;
+
+    private DailyChallengeSelector selector;
+    private DailyPreviewTokenService tokenService;
+    private String catalogVersion;
+    private UserChallengeSummary summary;
+    private LocalDate today;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        today = LocalDate.now();
+        List<Challenge> catalog = SyntheticData.catalog(catalogShape, catalogSize);
+        summary = SyntheticData.history(USER_ID, catalog, pastAssignments, today);
+
+        ChallengeCatalog challengeCatalog = new ChallengeCatalog(InMemoryRepositories.stub(
+                ChallengeRepository.class,
+                Map.of("findByActiveTrue", args -> catalog)
+        ));
+        selector = new DailyChallengeSelector(challengeCatalog);
+        catalogVersion = challengeCatalog.snapshot().getVersion();
+        tokenService = new DailyPreviewTokenService("benchmark-secret");
+    }
+
+    @Benchmark
+    public Challenge select() {
+        return selector.select(Culture.INDIA, Mood.NEUTRAL, summary, today);
+    }
+
+    @Benchmark
+    public String preview() {
+        Challenge selected = selector.select(Culture.INDIA, Mood.HIGH, summary, today);
+        return tokenService.issue(new DailyPreviewTokenService.PreviewClaims(
+                USER_ID,
+                today,
+                Mood.HIGH,
+                selected.getId(),
+                catalogVersion,
+                tokenService.historyDigest(summary)
+        ));
+    }
+}
@@ -0,0 +1,131 @@
+package com.divyam.advent.benchmark;
+
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.enums.EnergyLevel;
+import com.divyam.advent.enums.Mood;
+import com.divyam.advent.model.Challenge;
+import com.divyam.advent.model.UserChallengeSummary;
+import com.divyam.advent.repository.ChallengeRepository;
+import com.divyam.advent.service.ChallengeCatalog;
+import com.divyam.advent.service.DailyChallengeSelector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of one daily selection for users with short and long histories.
+ *
+ * Run with the gc profiler to see allocations per selection (gc.alloc.rate.norm):
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="DailySelectionBenchmark -prof gc"
+ *
+ * filterChainBaseline is the ranking as it was before the single-pass scorer, kept for comparison.
+ * singlePassScorer reuses one warmed-up summary, so it measures the ranking alone and allocates nothing.
+ * singlePassScorerColdSummary gets a fresh copy for every call, like the request path, which loads the summary
+ * per request: it includes building the summary's usage views. The copy is made outside the measured call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DailySelectionBenchmark {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 12, 24);
+
+    @Param({"10", "1000", "10000"})
+    public int pastAssignments;
+
+    private DailyChallengeSelector selector;
+    private List<Challenge> neutralCandidates;
+    private UserChallengeSummary summary;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Challenge> catalog = SyntheticData.catalog(CatalogShape.SEEDED, 144);
+        ChallengeCatalog challengeCatalog = new ChallengeCatalog(InMemoryRepositories.stub(
+                ChallengeRepository.class,
+                Map.of("findByActiveTrue", args -> catalog)
+        ));
+        selector = new DailyChallengeSelector(challengeCatalog);
+        neutralCandidates = challengeCatalog.snapshot().seeded(EnergyLevel.MEDIUM, Culture.INDIA);
+        summary = SyntheticData.history(1L, catalog, pastAssignments, TODAY);
+
+        // Warm the summary's primitive views, as any loaded summary is after its first selection.
+        selector.select(Culture.INDIA, Mood.NEUTRAL, summary, TODAY);
+    }
+
+    /**
+     * A summary whose usage views are not built yet, as loaded by a request.
+     */
+    @State(Scope.Thread)
+    public static class ColdSummary {
+
+        private UserChallengeSummary summary;
+
+        @Setup(Level.Invocation)
+        public void load(DailySelectionBenchmark benchmark) {
+            summary = benchmark.summary.copy();
+        }
+    }
+
+    @Benchmark
+    public Challenge singlePassScorer() {
+        return selector.select(Culture.INDIA, Mood.NEUTRAL, summary, TODAY);
+    }
+
+    @Benchmark
+    public Challenge singlePassScorerColdSummary(ColdSummary cold) {
+        return selector.select(Culture.INDIA, Mood.NEUTRAL, cold.summary, TODAY);
+    }
+
+    @Benchmark
+    public Challenge filterChainBaseline() {
+        Set<Long> todaysChallengeIds = summary.getChallengeIdsOn(TODAY);
+        Map<Long, Long> challengeUsageCounts = summary.getChallengeUsageCounts();
+        Map<ChallengeCategory, Long> categoryUsageCounts = summary.getCategoryUsageCounts();
+        Set<Long> seenChallengeIds = challengeUsageCounts.keySet();
+        Long latestChallengeId = summary.getLastChallengeId();
+        ChallengeCategory latestCategory = summary.getLastCategory();
+
+        List<Challenge> filtered = filterIfPossible(neutralCandidates, c -> !todaysChallengeIds.contains(c.getId()));
+        filtered = filterIfPossible(filtered, c -> !seenChallengeIds.contains(c.getId()));
+        filtered = filterIfPossible(filtered, c -> latestCategory == null || c.getCategory() != latestCategory);
+        filtered = filterIfPossible(filtered, c -> latestChallengeId == null || !c.getId().equals(latestChallengeId));
+
+        return filtered.stream()
+                .min(Comparator
+                        .comparingLong((Challenge c) -> challengeUsageCounts.getOrDefault(c.getId(), 0L))
+                        .thenComparingLong(c -> categoryUsageCounts.getOrDefault(c.getCategory(), 0L))
+                        .thenComparing(c -> c.getCategory().name())
+                        .thenComparingInt(c -> c.getCycleDay() != null ? c.getCycleDay() : Integer.MAX_VALUE)
+                        .thenComparingLong(c -> c.getId() != null ? c.getId() : Long.MAX_VALUE))
+                .orElseThrow();
+    }
+
+    private static List<Challenge> filterIfPossible(List<Challenge> candidates, Predicate<Challenge> predicate) {
+        List<Challenge> filtered = candidates.stream()
+                .filter(predicate)
+                .collect(Collectors.toList());
+        return filtered.isEmpty() ? candidates : filtered;
+    }
+}
@@ -0,0 +1,69 @@
+package com.divyam.advent.benchmark;
+
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.enums.EnergyLevel;
+import com.divyam.advent.model.Challenge;
+import com.divyam.advent.model.UserChallengeSummary;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic catalogs and histories for the benchmarks.
+ */
+final class SyntheticData {
+
+    private static final long FIRST_ID = 200;
+
+    private SyntheticData() {
+    }
+
+    static List<Challenge> catalog(CatalogShape shape, int size) {
+        ChallengeCategory[] categories = ChallengeCategory.values();
+        EnergyLevel[] energyLevels = EnergyLevel.values();
+        Culture[] cultures = Culture.values();
+
+        List<Challenge> challenges = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ChallengeCategory category = categories[i % categories.length];
+            EnergyLevel energyLevel = energyLevels[(i / categories.length) % energyLevels.length];
+            Challenge challenge = new Challenge(
+                    "Synthetic challenge " + i,
+                    "Benchmark challenge",
+                    category,
+                    energyLevel,
+                    true
+            );
+            challenge.setId(FIRST_ID + i);
+            if (shape == CatalogShape.SEEDED) {
+                challenge.setCulture(cultures[(i / (categories.length * energyLevels.length)) % cultures.length]);
+            } else {
+                challenge.setCulture(Culture.GLOBAL);
+                challenge.setSourceVersion("pdf:benchmark");
+                challenge.setCycleDay(i + 1);
+            }
+            challenges.add(challenge);
+        }
+        return challenges;
+    }
+
+    /**
+     * A summary of pastAssignments random assignments, one per day ending the day before {@code today}.
+     */
+    static UserChallengeSummary history(Long userId, List<Challenge> catalog, int pastAssignments, LocalDate today) {
+        Random random = new Random(42);
+        UserChallengeSummary summary = new UserChallengeSummary(userId);
+        for (int row = 0; row < pastAssignments; row++) {
+            Challenge assigned = catalog.get(random.nextInt(catalog.size()));
+            summary.recordAssignment(
+                    assigned.getId(),
+                    assigned.getCategory(),
+                    today.minusDays(pastAssignments - row).atTime(9, 0)
+            );
+        }
+        return summary;
+    }
+}
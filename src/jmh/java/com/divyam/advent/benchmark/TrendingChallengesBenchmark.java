@@ -0,0 +1,67 @@
+package com.divyam.advent.benchmark;
+
+import com.divyam.advent.util.DecayingTopK;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording a completion in the trending summary and of reading the top 10,
+ * for a skewed stream over a catalog much larger than the summary.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrendingChallengesBenchmark {
+
+    private static final long HALF_LIFE_MILLIS = 60 * 60 * 1000L;
+
+    @Param({"200", "1000"})
+    public int capacity;
+
+    private DecayingTopK summary;
+    private long[] stream;
+    private int next;
+    private long now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        stream = new long[1 << 16];
+        for (int i = 0; i < stream.length; i++) {
+            // Squaring a uniform draw skews the stream toward low ids over a catalog of 5000.
+            double draw = random.nextDouble();
+            stream[i] = (long) (draw * draw * 5000);
+        }
+        summary = new DecayingTopK(capacity, HALF_LIFE_MILLIS, 0);
+        for (long id : stream) {
+            summary.add(id, now++);
+        }
+    }
+
+    @Benchmark
+    public void recordCompletion() {
+        summary.add(stream[next++ & (stream.length - 1)], now++);
+    }
+
+    @Benchmark
+    public List<DecayingTopK.Entry> readTop10() {
+        return summary.top(10, now);
+    }
+}
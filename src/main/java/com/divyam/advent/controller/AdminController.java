@@ -0,0 +1,133 @@
+package com.divyam.advent.controller;
+
+import com.divyam.advent.dto.ActiveUsersWindowDto;
+import com.divyam.advent.dto.ActivityCubeQueryRequest;
+import com.divyam.advent.dto.ActivityCubeSliceDto;
+import com.divyam.advent.dto.BadgeUpsertRequest;
+import com.divyam.advent.dto.CohortSimulationRequest;
+import com.divyam.advent.dto.CohortSimulationResultDto;
+import com.divyam.advent.model.Badge;
+import com.divyam.advent.security.AdminGuard;
+import com.divyam.advent.service.ActiveUserSketchService;
+import com.divyam.advent.service.ActivityCubeService;
+import com.divyam.advent.service.BadgeService;
+import com.divyam.advent.service.CohortSimulationService;
+import com.divyam.advent.service.DailyPreviewCache;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * REST Controller for operational endpoints.
+ * Every endpoint here is restricted to the configured admin user.
+ */
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    private final AdminGuard adminGuard;
+    private final DailyPreviewCache dailyPreviewCache;
+    private final CohortSimulationService cohortSimulationService;
+    private final ActiveUserSketchService activeUserSketchService;
+    private final ActivityCubeService activityCubeService;
+    private final BadgeService badgeService;
+
+    public AdminController(
+            AdminGuard adminGuard,
+            DailyPreviewCache dailyPreviewCache,
+            CohortSimulationService cohortSimulationService,
+            ActiveUserSketchService activeUserSketchService,
+            ActivityCubeService activityCubeService,
+            BadgeService badgeService
+    ) {
+        this.adminGuard = adminGuard;
+        this.dailyPreviewCache = dailyPreviewCache;
+        this.cohortSimulationService = cohortSimulationService;
+        this.activeUserSketchService = activeUserSketchService;
+        this.activityCubeService = activityCubeService;
+        this.badgeService = badgeService;
+    }
+
+    /**
+     * Size, hit/miss and eviction counters of the daily preview cache.
+     * GET /admin/cache/daily-preview
+     */
+    @GetMapping("/cache/daily-preview")
+    public ResponseEntity<DailyPreviewCache.Stats> getDailyPreviewCacheStats(@AuthenticationPrincipal Jwt jwt) {
+        adminGuard.requireAdmin(getClerkUserId(jwt));
+        return ResponseEntity.ok(dailyPreviewCache.stats());
+    }
+
+    /**
+     * Simulate daily selection for every user over the coming days, against the active catalog
+     * or a candidate catalog from the request body. Nothing is written.
+     * POST /admin/simulations/daily-selection
+     */
+    @PostMapping("/simulations/daily-selection")
+    public ResponseEntity<CohortSimulationResultDto> simulateDailySelection(
+            @AuthenticationPrincipal Jwt jwt,
+            @Valid @RequestBody CohortSimulationRequest request) {
+        adminGuard.requireAdmin(getClerkUserId(jwt));
+        return ResponseEntity.ok(cohortSimulationService.simulate(request));
+    }
+
+    /**
+     * Estimated distinct active users over any window of up to 366 days, merged from per-day sketches.
+     * GET /admin/active-users?from=2026-01-01&to=2026-01-31
+     */
+    @GetMapping("/active-users")
+    public ResponseEntity<ActiveUsersWindowDto> getActiveUsers(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        adminGuard.requireAdmin(getClerkUserId(jwt));
+        return ResponseEntity.ok(new ActiveUsersWindowDto(from, to, activeUserSketchService.estimate(from, to)));
+    }
+
+    /**
+     * Slice and dice the nightly activity cube: filter by day range, culture, mood, energy level,
+     * category and status, and group by any of those dimensions. Never reads user_challenges.
+     * POST /admin/analytics/cube
+     */
+    @PostMapping("/analytics/cube")
+    public ResponseEntity<ActivityCubeSliceDto> queryActivityCube(
+            @AuthenticationPrincipal Jwt jwt,
+            @Valid @RequestBody ActivityCubeQueryRequest request) {
+        adminGuard.requireAdmin(getClerkUserId(jwt));
+        return ResponseEntity.ok(activityCubeService.query(request));
+    }
+
+    /**
+     * Create or replace a badge. Criteria are checked before saving, and the compiled badge
+     * rules are rebuilt once the change commits.
+     * PUT /admin/badges/{id}
+     */
+    @PutMapping("/badges/{id}")
+    public ResponseEntity<Badge> upsertBadge(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable String id,
+            @Valid @RequestBody BadgeUpsertRequest request) {
+        adminGuard.requireAdmin(getClerkUserId(jwt));
+        return ResponseEntity.ok(badgeService.upsertBadge(id, request));
+    }
+
+    private String getClerkUserId(Jwt jwt) {
+        if (jwt == null || jwt.getSubject() == null || jwt.getSubject().trim().isEmpty()) {
+            throw new AccessDeniedException("Invalid authentication token");
+        }
+        return jwt.getSubject().trim();
+    }
+}
@@ -2,12 +2,14 @@
 package com.divyam.advent.controller;
 
 import com.divyam.advent.dto.ChallengeCycleDayDto;
+import com.divyam.advent.dto.TrendingChallengeDto;
 import com.divyam.advent.enums.ChallengeCategory;
 import com.divyam.advent.enums.Mood;
 import com.divyam.advent.model.Challenge;
 import com.divyam.advent.model.UserChallenge;
 import com.divyam.advent.service.AuthService;
 import com.divyam.advent.service.ChallengeService;
+import com.divyam.advent.service.TrendingChallengeTracker;
 import com.divyam.advent.service.UserChallengeService;
 import com.divyam.advent.security.AdminGuard;
 import org.springframework.http.HttpStatus;
@@ -26,17 +28,20 @@ public class ChallengeController {
     private final UserChallengeService userChallengeService;
     private final AuthService authService;
     private final AdminGuard adminGuard;
+    private final TrendingChallengeTracker trendingChallengeTracker;
 
     public ChallengeController(
             ChallengeService challengeService,
             UserChallengeService userChallengeService,
             AuthService authService,
-            AdminGuard adminGuard
+            AdminGuard adminGuard,
+            TrendingChallengeTracker trendingChallengeTracker
     ) {
         this.challengeService = challengeService;
         this.userChallengeService = userChallengeService;
         this.authService = authService;
         this.adminGuard = adminGuard;
+        this.trendingChallengeTracker = trendingChallengeTracker;
     }
 
     @PostMapping
@@ -66,6 +71,16 @@ public class ChallengeController {
         return ResponseEntity.ok(challengeService.getCurrentCyclePlan());
     }
 
+    /**
+     * Challenges being completed most right now, served from memory.
+     * GET /challenges/trending?limit=10
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingChallengeDto>> getTrendingChallenges(
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(trendingChallengeTracker.top(limit));
+    }
+
     /**
      * Get today's challenge for a user based on their mood.
      *
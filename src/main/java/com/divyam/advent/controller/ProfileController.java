@@ -1,11 +1,13 @@
 package com.divyam.advent.controller;
 
+import com.divyam.advent.dto.CompletionHeatmapDto;
 import com.divyam.advent.dto.ProfileBadgesResponseDto;
 import com.divyam.advent.dto.ProfileResponseDto;
 import com.divyam.advent.dto.ProfileUpdateRequestDto;
 import com.divyam.advent.dto.ThemePreferenceUpdateRequestDto;
 import com.divyam.advent.service.ProfileService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -13,8 +15,11 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/api/profile")
 public class ProfileController {
@@ -50,4 +55,18 @@ public class ProfileController {
     public ResponseEntity<ProfileBadgesResponseDto> getProfileBadges(@AuthenticationPrincipal Jwt jwt) {
         return ResponseEntity.ok(profileService.getProfileBadges(jwt));
     }
+
+    /**
+     * Days with a completed challenge, for an activity heatmap. Covers the last 365 days by default
+     * and at most 366 days per request.
+     * GET /api/profile/heatmap?from=2026-01-01&to=2026-12-31
+     */
+    @GetMapping("/heatmap")
+    public ResponseEntity<CompletionHeatmapDto> getHeatmap(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(profileService.getHeatmap(jwt, from, to));
+    }
 }
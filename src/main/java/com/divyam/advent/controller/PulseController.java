@@ -1,12 +1,28 @@
 package com.divyam.advent.controller;
 
+import com.divyam.advent.dto.ActiveUsersDto;
+import com.divyam.advent.dto.PulseBreakdownDto;
+import com.divyam.advent.dto.PulseHistoryPointDto;
+import com.divyam.advent.dto.PulseHourlyActivityDto;
 import com.divyam.advent.dto.PulseResponseDto;
+import com.divyam.advent.enums.PulseGranularity;
+import com.divyam.advent.service.PulseBreakdownCache;
+import com.divyam.advent.service.PulseCache;
 import com.divyam.advent.service.PulseService;
+import com.divyam.advent.service.PulseStream;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.List;
 
 /**
  * REST Controller for Global Student Pulse analytics.
@@ -16,16 +32,29 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/pulse")
 public class PulseController {
 
+    private final PulseCache pulseCache;
+    private final PulseBreakdownCache pulseBreakdownCache;
     private final PulseService pulseService;
+    private final PulseStream pulseStream;
 
     @Autowired
-    public PulseController(PulseService pulseService) {
+    public PulseController(
+            PulseCache pulseCache,
+            PulseBreakdownCache pulseBreakdownCache,
+            PulseService pulseService,
+            PulseStream pulseStream
+    ) {
+        this.pulseCache = pulseCache;
+        this.pulseBreakdownCache = pulseBreakdownCache;
         this.pulseService = pulseService;
+        this.pulseStream = pulseStream;
     }
 
     /**
      * Get today's pulse statistics.
      * Returns anonymized aggregated data about completion rates and mood distribution.
+     * Served from a shared cache that is refreshed in the background once it is older than
+     * challenge.pulse.cache.fresh-ms. Send If-None-Match with the last ETag to get 304 Not Modified.
      *
      * Example response:
      * GET /pulse/today
@@ -46,7 +75,112 @@ public class PulseController {
      */
     @GetMapping("/today")
     public ResponseEntity<PulseResponseDto> getTodayPulse() {
-        PulseResponseDto pulse = pulseService.getTodayPulse();
-        return ResponseEntity.ok(pulse);
+        PulseCache.Snapshot pulse = pulseCache.get();
+        // Every user gets the same pulse, so shared caches may keep it. A matching If-None-Match turns this into 304.
+        return ResponseEntity.ok()
+                .eTag(pulse.etag())
+                .cacheControl(CacheControl.maxAge(pulseCache.getFreshFor())
+                        .cachePublic()
+                        .staleWhileRevalidate(pulseCache.getFreshFor()))
+                .body(pulse.pulse());
+    }
+
+    /**
+     * Stream today's pulse as Server-Sent Events instead of polling /pulse/today.
+     * The stream starts with the current pulse and then gets a "pulse" event, with the same body and
+     * the ETag as its id, whenever the figures change, at most once per challenge.pulse.stream.interval-ms.
+     * Clients that fall behind are disconnected and should reconnect.
+     * A node already holding challenge.pulse.stream.max-subscribers streams answers 503 with Retry-After.
+     *
+     * Example event:
+     * GET /pulse/stream
+     *
+     * event:pulse
+     * id:"2026-01-18.150.87.30.75.45"
+     * data:{"date":"2026-01-18","totalUsers":150,"completedCount":87,...}
+     *
+     * @return an open event stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPulse() {
+        return pulseStream.subscribe();
+    }
+
+    /**
+     * Get estimated daily, weekly and monthly active users, ending today.
+     * Shares the cache and refresh of /pulse/today.
+     *
+     * Example response:
+     * GET /pulse/active-users
+     *
+     * {
+     *   "date": "2026-01-18",
+     *   "dailyActiveUsers": 150,
+     *   "weeklyActiveUsers": 420,
+     *   "monthlyActiveUsers": 910
+     * }
+     *
+     * @return today's active user estimates
+     */
+    @GetMapping("/active-users")
+    public ResponseEntity<ActiveUsersDto> getActiveUsers() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(pulseCache.getFreshFor()).cachePrivate())
+                .body(pulseCache.get().activeUsers());
+    }
+
+    /**
+     * Get a day's pulse broken down by user culture and by challenge energy level.
+     * Each entry has the same shape as /pulse/today. Breakdowns are cached per day and shared by all readers.
+     *
+     * Example request:
+     * GET /pulse/breakdown?date=2026-01-18
+     *
+     * @param date the day to break down, today when omitted; must not be in the future
+     * @return per-culture and per-energy-level pulse statistics
+     */
+    @GetMapping("/breakdown")
+    public ResponseEntity<PulseBreakdownDto> getBreakdown(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return ResponseEntity.ok(pulseBreakdownCache.get(date != null ? date : LocalDate.now()));
+    }
+
+    /**
+     * Get assignments and completions for each hour of a day.
+     * Served from per-hour counters bumped on write, so polling costs one read of at most 24 rows.
+     * Pre-assigned challenges are not counted.
+     *
+     * Example request:
+     * GET /pulse/hourly?date=2026-01-18
+     *
+     * @param date the day to report, today when omitted
+     * @return 24 hourly buckets starting at midnight
+     */
+    @GetMapping("/hourly")
+    public ResponseEntity<PulseHourlyActivityDto> getHourlyActivity(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return ResponseEntity.ok(pulseService.getHourlyActivity(date != null ? date : LocalDate.now()));
+    }
+
+    /**
+     * Get the pulse history for a date range, downsampled to days, ISO weeks or months.
+     *
+     * Example request:
+     * GET /pulse/history?from=2026-01-01&to=2026-03-31&granularity=MONTH
+     *
+     * @param from first day, inclusive
+     * @param to last day, inclusive
+     * @param granularity DAY, WEEK or MONTH
+     * @return one point per period, oldest first
+     */
+    @GetMapping("/history")
+    public ResponseEntity<List<PulseHistoryPointDto>> getHistory(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") PulseGranularity granularity
+    ) {
+        return ResponseEntity.ok(pulseService.getHistory(from, to, granularity));
     }
 }
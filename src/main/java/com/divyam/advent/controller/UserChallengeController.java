@@ -1,6 +1,8 @@
 package com.divyam.advent.controller;
 
 import com.divyam.advent.dto.DailyChallengeConfirmRequest;
+import com.divyam.advent.dto.DailyChallengePreviewDto;
+import com.divyam.advent.dto.UpcomingDailyChallengeDto;
 import com.divyam.advent.dto.UserProgressDto;
 import com.divyam.advent.enums.CompletionStatus;
 import com.divyam.advent.enums.Mood;
@@ -110,8 +112,38 @@ public class UserChallengeController {
         return ResponseEntity.ok(dailyChallenge);
     }
 
+    /**
+     * Preview today's daily challenge with a signed preview token.
+     * The preview is deterministic and not cached, so the confirm can be handled by any node.
+     * GET /user-challenges/daily/preview?userId=1&mood=LOW
+     */
+    @GetMapping("/daily/preview")
+    public ResponseEntity<DailyChallengePreviewDto> previewDailyChallenge(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam Long userId,
+            @RequestParam Mood mood) {
+        authService.validateUserAccess(jwt, userId);
+        return ResponseEntity.ok(userChallengeService.previewDailyChallengeWithToken(userId, mood));
+    }
+
+    /**
+     * Project the daily challenges for the next days without assigning anything.
+     * GET /user-challenges/daily/upcoming?userId=1&mood=NEUTRAL&days=7
+     */
+    @GetMapping("/daily/upcoming")
+    public ResponseEntity<List<UpcomingDailyChallengeDto>> getUpcomingDailyChallenges(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam Long userId,
+            @RequestParam Mood mood,
+            @RequestParam(defaultValue = "7") int days) {
+        authService.validateUserAccess(jwt, userId);
+        return ResponseEntity.ok(userChallengeService.projectUpcomingDailyChallenges(userId, mood, days));
+    }
+
     /**
      * Confirm today's daily challenge after preview.
+     * When the request carries a previewToken it is validated statelessly,
+     * otherwise the node-local preview is used.
      * POST /user-challenges/daily/confirm
      */
     @PostMapping("/daily/confirm")
@@ -119,11 +151,21 @@ public class UserChallengeController {
             @AuthenticationPrincipal Jwt jwt,
             @Valid @RequestBody DailyChallengeConfirmRequest request) {
         authService.validateUserAccess(jwt, request.getUserId());
-        UserChallenge userChallenge = userChallengeService.confirmDailyChallenge(
-                request.getUserId(),
-                request.getChallengeId(),
-                request.getMood()
-        );
+        UserChallenge userChallenge;
+        if (request.getPreviewToken() != null && !request.getPreviewToken().isBlank()) {
+            userChallenge = userChallengeService.confirmDailyChallenge(
+                    request.getUserId(),
+                    request.getChallengeId(),
+                    request.getMood(),
+                    request.getPreviewToken().trim()
+            );
+        } else {
+            userChallenge = userChallengeService.confirmDailyChallenge(
+                    request.getUserId(),
+                    request.getChallengeId(),
+                    request.getMood()
+            );
+        }
         return ResponseEntity.ok(userChallenge);
     }
 
@@ -0,0 +1,14 @@
+package com.divyam.advent.dto;
+
+/**
+ * Estimated distinct active users for the day and the 7 and 30 days ending with it.
+ * A user is active when they were assigned a challenge themselves or completed one.
+ * The figures come from HyperLogLog sketches, with a standard error of about 1.6%.
+ */
+public record ActiveUsersDto(
+        String date,
+        long dailyActiveUsers,
+        long weeklyActiveUsers,
+        long monthlyActiveUsers
+) {
+}
@@ -0,0 +1,13 @@
+package com.divyam.advent.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Estimated distinct active users over a window of days, both ends inclusive.
+ */
+public record ActiveUsersWindowDto(
+        LocalDate from,
+        LocalDate to,
+        long activeUsers
+) {
+}
@@ -0,0 +1,108 @@
+package com.divyam.advent.dto;
+
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.enums.CompletionStatus;
+import com.divyam.advent.enums.CubeDimension;
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.enums.EnergyLevel;
+import com.divyam.advent.enums.Mood;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Slice of the activity cube to read. Empty or missing filters match every value.
+ * A mood filter leaves out challenges without a recorded mood, which group under "NONE".
+ */
+public class ActivityCubeQueryRequest {
+
+    @NotNull
+    private LocalDate from;
+
+    @NotNull
+    private LocalDate to;
+
+    private Set<Culture> cultures;
+
+    private Set<Mood> moods;
+
+    private Set<EnergyLevel> energyLevels;
+
+    private Set<ChallengeCategory> categories;
+
+    private Set<CompletionStatus> statuses;
+
+    /**
+     * Dimensions to keep in the result, in key order. Everything else is summed up.
+     */
+    private List<CubeDimension> groupBy;
+
+    public ActivityCubeQueryRequest() {
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public Set<Culture> getCultures() {
+        return cultures;
+    }
+
+    public void setCultures(Set<Culture> cultures) {
+        this.cultures = cultures;
+    }
+
+    public Set<Mood> getMoods() {
+        return moods;
+    }
+
+    public void setMoods(Set<Mood> moods) {
+        this.moods = moods;
+    }
+
+    public Set<EnergyLevel> getEnergyLevels() {
+        return energyLevels;
+    }
+
+    public void setEnergyLevels(Set<EnergyLevel> energyLevels) {
+        this.energyLevels = energyLevels;
+    }
+
+    public Set<ChallengeCategory> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(Set<ChallengeCategory> categories) {
+        this.categories = categories;
+    }
+
+    public Set<CompletionStatus> getStatuses() {
+        return statuses;
+    }
+
+    public void setStatuses(Set<CompletionStatus> statuses) {
+        this.statuses = statuses;
+    }
+
+    public List<CubeDimension> getGroupBy() {
+        return groupBy;
+    }
+
+    public void setGroupBy(List<CubeDimension> groupBy) {
+        this.groupBy = groupBy;
+    }
+}
@@ -0,0 +1,35 @@
+package com.divyam.advent.dto;
+
+import com.divyam.advent.enums.CubeDimension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of an activity cube query: one row per combination of the grouped dimensions.
+ *
+ * @param builtThrough last day the cube has been built for; later days in the range are not included yet
+ * @param rows rows with the largest challenge counts first
+ */
+public record ActivityCubeSliceDto(
+        LocalDate from,
+        LocalDate to,
+        List<CubeDimension> groupBy,
+        LocalDate builtThrough,
+        List<Row> rows
+) {
+
+    /**
+     * @param key value of each grouped dimension, in groupBy order
+     * @param challenges challenges started in the slice
+     * @param completed how many of them are completed
+     */
+    public record Row(
+            Map<CubeDimension, String> key,
+            long challenges,
+            long completed,
+            double completionPercentage
+    ) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.divyam.advent.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Request payload for creating or replacing a badge.
+ * Criteria are "METRIC:threshold", e.g. "STREAK_DAYS:7", or "CATEGORY_COMPLETED:CATEGORY:threshold".
+ */
+public class BadgeUpsertRequest {
+
+    @NotBlank
+    private String title;
+
+    @NotBlank
+    @Size(max = 500)
+    private String description;
+
+    @NotBlank
+    private String icon;
+
+    @NotBlank
+    private String criteria;
+
+    public BadgeUpsertRequest() {
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getIcon() {
+        return icon;
+    }
+
+    public void setIcon(String icon) {
+        this.icon = icon;
+    }
+
+    public String getCriteria() {
+        return criteria;
+    }
+
+    public void setCriteria(String criteria) {
+        this.criteria = criteria;
+    }
+}
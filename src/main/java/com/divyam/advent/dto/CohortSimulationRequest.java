@@ -0,0 +1,67 @@
+package com.divyam.advent.dto;
+
+import com.divyam.advent.enums.Mood;
+import com.divyam.advent.model.Challenge;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Request payload for simulating daily selection over the whole user base.
+ */
+public class CohortSimulationRequest {
+
+    @Min(1)
+    @Max(90)
+    private int days = 30;
+
+    private Mood mood = Mood.NEUTRAL;
+
+    /**
+     * First simulated day. Defaults to tomorrow.
+     */
+    private LocalDate startDate;
+
+    /**
+     * Optional candidate catalog to simulate instead of the active one, e.g. a seeded catalog or
+     * PDF cycle that is not published yet. Challenges with a sourceVersion count as cycle challenges.
+     */
+    private List<Challenge> catalog;
+
+    public CohortSimulationRequest() {
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public void setDays(int days) {
+        this.days = days;
+    }
+
+    public Mood getMood() {
+        return mood;
+    }
+
+    public void setMood(Mood mood) {
+        this.mood = mood;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public List<Challenge> getCatalog() {
+        return catalog;
+    }
+
+    public void setCatalog(List<Challenge> catalog) {
+        this.catalog = catalog;
+    }
+}
@@ -0,0 +1,33 @@
+package com.divyam.advent.dto;
+
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.enums.EnergyLevel;
+import com.divyam.advent.enums.Mood;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How a simulated run of daily selection spread assignments over the cohort.
+ *
+ * @param users users in the snapshot
+ * @param usersWithoutHistory users simulated from an empty history because they had no assignments yet
+ * @param unassignableUsers users for whom the catalog had no candidate at all
+ * @param byDay category counts for each simulated day, starting with startDate
+ */
+public record CohortSimulationResultDto(
+        LocalDate startDate,
+        int days,
+        Mood mood,
+        String catalogVersion,
+        int users,
+        int usersWithoutHistory,
+        int unassignableUsers,
+        long assignments,
+        Map<ChallengeCategory, Long> byCategory,
+        Map<EnergyLevel, Long> byEnergyLevel,
+        List<Map<ChallengeCategory, Long>> byDay,
+        long elapsedMillis
+) {
+}
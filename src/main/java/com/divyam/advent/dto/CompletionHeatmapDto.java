@@ -0,0 +1,20 @@
+package com.divyam.advent.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Days with at least one completed challenge in a range, both ends inclusive, for an activity heatmap.
+ *
+ * @param completedDays the days with a completion, oldest first
+ * @param currentStreak consecutive days with a completion ending today or yesterday
+ * @param longestStreak longest run of consecutive days with a completion ever
+ */
+public record CompletionHeatmapDto(
+        LocalDate from,
+        LocalDate to,
+        List<LocalDate> completedDays,
+        int currentStreak,
+        int longestStreak
+) {
+}
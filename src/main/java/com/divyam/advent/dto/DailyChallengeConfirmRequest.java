@@ -17,6 +17,12 @@ public class DailyChallengeConfirmRequest {
     @NotNull
     private Mood mood;
 
+    /**
+     * Optional signed token from GET /user-challenges/daily/preview.
+     * When present the confirmation is validated from the token alone.
+     */
+    private String previewToken;
+
     public DailyChallengeConfirmRequest() {
     }
 
@@ -43,4 +49,12 @@ public class DailyChallengeConfirmRequest {
     public void setMood(Mood mood) {
         this.mood = mood;
     }
+
+    public String getPreviewToken() {
+        return previewToken;
+    }
+
+    public void setPreviewToken(String previewToken) {
+        this.previewToken = previewToken;
+    }
 }
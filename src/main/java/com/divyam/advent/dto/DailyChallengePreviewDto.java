@@ -0,0 +1,19 @@
+package com.divyam.advent.dto;
+
+import com.divyam.advent.enums.Mood;
+import com.divyam.advent.model.Challenge;
+
+import java.time.LocalDate;
+
+/**
+ * Stateless preview of today's daily challenge.
+ * The previewToken is passed back to POST /user-challenges/daily/confirm and can be
+ * validated by any backend node.
+ */
+public record DailyChallengePreviewDto(
+        Challenge challenge,
+        LocalDate date,
+        Mood mood,
+        String previewToken
+) {
+}
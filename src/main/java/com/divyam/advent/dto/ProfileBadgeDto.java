@@ -8,7 +8,6 @@ public class ProfileBadgeDto {
     private String icon;
     private String criteria;
     private boolean earned;
-    private boolean newlyUnlocked;
 
     public ProfileBadgeDto() {
     }
@@ -19,8 +18,7 @@ public class ProfileBadgeDto {
             String description,
             String icon,
             String criteria,
-            boolean earned,
-            boolean newlyUnlocked
+            boolean earned
     ) {
         this.id = id;
         this.title = title;
@@ -28,7 +26,6 @@ public class ProfileBadgeDto {
         this.icon = icon;
         this.criteria = criteria;
         this.earned = earned;
-        this.newlyUnlocked = newlyUnlocked;
     }
 
     public String getId() {
@@ -78,12 +75,4 @@ public class ProfileBadgeDto {
     public void setEarned(boolean earned) {
         this.earned = earned;
     }
-
-    public boolean isNewlyUnlocked() {
-        return newlyUnlocked;
-    }
-
-    public void setNewlyUnlocked(boolean newlyUnlocked) {
-        this.newlyUnlocked = newlyUnlocked;
-    }
 }
@@ -6,19 +6,16 @@ public class ProfileBadgesResponseDto {
 
     private List<ProfileBadgeDto> badges;
     private List<ProfileBadgeDto> earnedBadges;
-    private List<String> newlyUnlockedBadgeIds;
 
     public ProfileBadgesResponseDto() {
     }
 
     public ProfileBadgesResponseDto(
             List<ProfileBadgeDto> badges,
-            List<ProfileBadgeDto> earnedBadges,
-            List<String> newlyUnlockedBadgeIds
+            List<ProfileBadgeDto> earnedBadges
     ) {
         this.badges = badges;
         this.earnedBadges = earnedBadges;
-        this.newlyUnlockedBadgeIds = newlyUnlockedBadgeIds;
     }
 
     public List<ProfileBadgeDto> getBadges() {
@@ -36,12 +33,4 @@ public class ProfileBadgesResponseDto {
     public void setEarnedBadges(List<ProfileBadgeDto> earnedBadges) {
         this.earnedBadges = earnedBadges;
     }
-
-    public List<String> getNewlyUnlockedBadgeIds() {
-        return newlyUnlockedBadgeIds;
-    }
-
-    public void setNewlyUnlockedBadgeIds(List<String> newlyUnlockedBadgeIds) {
-        this.newlyUnlockedBadgeIds = newlyUnlockedBadgeIds;
-    }
 }
@@ -11,10 +11,10 @@ public class ProfileResponseDto {
     private String email;
     private String avatar;
     private Integer streak;
+    private Integer longestStreak;
     private Long totalPoints;
     private List<String> badges;
     private ThemePreference themePreference;
-    private List<String> newlyUnlockedBadgeIds;
 
     public ProfileResponseDto() {
     }
@@ -25,20 +25,20 @@ public class ProfileResponseDto {
             String email,
             String avatar,
             Integer streak,
+            Integer longestStreak,
             Long totalPoints,
             List<String> badges,
-            ThemePreference themePreference,
-            List<String> newlyUnlockedBadgeIds
+            ThemePreference themePreference
     ) {
         this.id = id;
         this.name = name;
         this.email = email;
         this.avatar = avatar;
         this.streak = streak;
+        this.longestStreak = longestStreak;
         this.totalPoints = totalPoints;
         this.badges = badges;
         this.themePreference = themePreference;
-        this.newlyUnlockedBadgeIds = newlyUnlockedBadgeIds;
     }
 
     public Long getId() {
@@ -81,6 +81,14 @@ public class ProfileResponseDto {
         this.streak = streak;
     }
 
+    public Integer getLongestStreak() {
+        return longestStreak;
+    }
+
+    public void setLongestStreak(Integer longestStreak) {
+        this.longestStreak = longestStreak;
+    }
+
     public Long getTotalPoints() {
         return totalPoints;
     }
@@ -104,12 +112,4 @@ public class ProfileResponseDto {
     public void setThemePreference(ThemePreference themePreference) {
         this.themePreference = themePreference;
     }
-
-    public List<String> getNewlyUnlockedBadgeIds() {
-        return newlyUnlockedBadgeIds;
-    }
-
-    public void setNewlyUnlockedBadgeIds(List<String> newlyUnlockedBadgeIds) {
-        this.newlyUnlockedBadgeIds = newlyUnlockedBadgeIds;
-    }
 }
@@ -0,0 +1,20 @@
+package com.divyam.advent.dto;
+
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.enums.EnergyLevel;
+
+import java.util.Map;
+
+/**
+ * Pulse figures for one day broken down by user culture and by challenge energy level.
+ * Every culture and energy level is present, with hasData false when it had no activity.
+ * Per-culture user counts are distinct users. A user is counted once per energy level they took a
+ * challenge of that day, so the per-energy-level user counts can add up to more than the distinct users
+ * when someone mixed energy levels.
+ */
+public record PulseBreakdownDto(
+        String date,
+        Map<Culture, PulseResponseDto> byCulture,
+        Map<EnergyLevel, PulseResponseDto> byEnergyLevel
+) {
+}
@@ -0,0 +1,22 @@
+package com.divyam.advent.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Pulse figures for one period of the pulse history, both ends inclusive.
+ * Users are counted once per day they were active, so userDays is not a count of distinct users
+ * when the period is longer than a day; averageDailyUsers is userDays over the days in the period.
+ * Periods at the edges are clipped to the requested range.
+ */
+public record PulseHistoryPointDto(
+        LocalDate periodStart,
+        LocalDate periodEnd,
+        long userDays,
+        double averageDailyUsers,
+        long completedCount,
+        double completionPercentage,
+        long lowMoodCount,
+        long neutralMoodCount,
+        long highMoodCount
+) {
+}
@@ -0,0 +1,20 @@
+package com.divyam.advent.dto;
+
+import java.util.List;
+
+/**
+ * Assignments and completions per hour of one day, always 24 buckets starting at midnight.
+ */
+public record PulseHourlyActivityDto(
+        String date,
+        List<HourBucket> hours
+) {
+
+    /**
+     * @param hour hour of the day, 0 to 23
+     * @param assignments challenges assigned by users during the hour
+     * @param completions challenges completed during the hour
+     */
+    public record HourBucket(int hour, long assignments, long completions) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.divyam.advent.dto;
+
+import com.divyam.advent.model.Challenge;
+
+/**
+ * A trending challenge and its recent completion score.
+ *
+ * @param score completions weighted by age: one completion now counts 1, and half as much one half-life later
+ * @param maxOvercount how much of the score may belong to challenges it displaced in the summary
+ */
+public record TrendingChallengeDto(
+        Challenge challenge,
+        double score,
+        double maxOvercount
+) {
+}
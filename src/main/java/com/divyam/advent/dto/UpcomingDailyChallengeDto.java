@@ -0,0 +1,16 @@
+package com.divyam.advent.dto;
+
+import com.divyam.advent.model.Challenge;
+
+import java.time.LocalDate;
+
+/**
+ * One day of a projected daily challenge plan.
+ * assigned is true when the day already has a stored assignment, false when the challenge is only projected.
+ */
+public record UpcomingDailyChallengeDto(
+        LocalDate date,
+        Challenge challenge,
+        boolean assigned
+) {
+}
@@ -0,0 +1,32 @@
+package com.divyam.advent.enums;
+
+/**
+ * What a badge criterion measures. Criteria are written as "METRIC:threshold",
+ * or "METRIC:CATEGORY:threshold" for metrics counted per challenge category.
+ */
+public enum BadgeMetric {
+
+    /**
+     * Consecutive days with a completion, ending today or yesterday.
+     */
+    STREAK_DAYS,
+
+    /**
+     * Longest run of consecutive days with a completion ever.
+     */
+    LONGEST_STREAK_DAYS,
+
+    /**
+     * Completed challenges in total.
+     */
+    COMPLETED_CHALLENGES,
+
+    /**
+     * Completed challenges of one category, e.g. "CATEGORY_COMPLETED:EXPLORE_CITY:5".
+     */
+    CATEGORY_COMPLETED;
+
+    public boolean isPerCategory() {
+        return this == CATEGORY_COMPLETED;
+    }
+}
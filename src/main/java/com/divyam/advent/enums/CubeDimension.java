@@ -0,0 +1,13 @@
+package com.divyam.advent.enums;
+
+/**
+ * Dimensions of the activity cube that analytics queries can filter and group by.
+ */
+public enum CubeDimension {
+    DAY,
+    CULTURE,
+    MOOD,
+    ENERGY_LEVEL,
+    CATEGORY,
+    STATUS
+}
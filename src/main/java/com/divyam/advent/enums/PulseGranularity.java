@@ -0,0 +1,19 @@
+package com.divyam.advent.enums;
+
+/**
+ * Period length of one point in the pulse history.
+ */
+public enum PulseGranularity {
+
+    DAY,
+
+    /**
+     * ISO weeks, Monday to Sunday.
+     */
+    WEEK,
+
+    /**
+     * Calendar months.
+     */
+    MONTH
+}
@@ -1,5 +1,6 @@
 package com.divyam.advent.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -138,6 +139,14 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.TOO_MANY_REQUESTS);
     }
 
+    @ExceptionHandler(StreamCapacityExceededException.class)
+    public ResponseEntity<Object> handleStreamCapacityExceededException(StreamCapacityExceededException ex) {
+        // No body: event stream clients only accept text/event-stream, which a JSON error cannot be written as.
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .build();
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleGenericException(Exception ex) {
         // Log the full exception stack trace for debugging
@@ -0,0 +1,15 @@
+package com.divyam.advent.exception;
+
+public class StreamCapacityExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public StreamCapacityExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
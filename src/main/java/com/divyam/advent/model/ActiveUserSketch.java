@@ -0,0 +1,42 @@
+package com.divyam.advent.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * HyperLogLog registers of the users active on one day, merged from every node's sketches.
+ * Days are combined by merging their registers, so any window of days can be counted
+ * without keeping user ids.
+ */
+@Entity
+@Table(name = "active_user_sketches")
+public class ActiveUserSketch {
+
+    @Id
+    @Column(name = "activity_day")
+    private LocalDate day;
+
+    @Column(name = "registers", nullable = false, length = 4096)
+    private byte[] registers;
+
+    public ActiveUserSketch() {
+    }
+
+    public ActiveUserSketch(LocalDate day, byte[] registers) {
+        this.day = day;
+        this.registers = registers;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public byte[] getRegisters() {
+        return registers;
+    }
+
+    public void setRegisters(byte[] registers) {
+        this.registers = registers;
+    }
+}
@@ -0,0 +1,56 @@
+package com.divyam.advent.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Single marker row for activity cube builds. Each build locks it first, so only one node rewrites
+ * the cube at a time, and a node that waited for the lock sees how far the cube has been built.
+ */
+@Entity
+@Table(name = "activity_cube_builds")
+public class ActivityCubeBuild {
+
+    public static final long MARKER_ID = 1L;
+
+    @Id
+    private Long id;
+
+    /**
+     * Last day covered by the most recent build, null before the first one.
+     */
+    @Column(name = "built_through")
+    private LocalDate builtThrough;
+
+    @Column(name = "built_at")
+    private LocalDateTime builtAt;
+
+    public ActivityCubeBuild() {
+    }
+
+    public ActivityCubeBuild(Long id) {
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getBuiltThrough() {
+        return builtThrough;
+    }
+
+    public void setBuiltThrough(LocalDate builtThrough) {
+        this.builtThrough = builtThrough;
+    }
+
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    public void setBuiltAt(LocalDateTime builtAt) {
+        this.builtAt = builtAt;
+    }
+}
@@ -0,0 +1,109 @@
+package com.divyam.advent.model;
+
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.enums.CompletionStatus;
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.enums.EnergyLevel;
+import com.divyam.advent.enums.Mood;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Number of user challenges that started on one day with one combination of user culture, mood,
+ * challenge energy level, category and status. Rebuilt nightly from user_challenges so admin analytics
+ * read this table instead of the transactional ones. Counts are additive over every dimension.
+ */
+@Entity
+@Table(
+    name = "activity_cube",
+    indexes = @Index(name = "idx_activity_cube_day", columnList = "cube_day")
+)
+public class ActivityCubeCell {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cube_day", nullable = false)
+    private LocalDate day;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "culture", nullable = false)
+    private Culture culture;
+
+    /**
+     * Null when no mood was recorded.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "mood")
+    private Mood mood;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "energy_level", nullable = false)
+    private EnergyLevel energyLevel;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", nullable = false)
+    private ChallengeCategory category;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private CompletionStatus status;
+
+    @Column(name = "challenges", nullable = false)
+    private long challenges;
+
+    public ActivityCubeCell() {
+    }
+
+    public ActivityCubeCell(
+            LocalDate day,
+            Culture culture,
+            Mood mood,
+            EnergyLevel energyLevel,
+            ChallengeCategory category,
+            CompletionStatus status,
+            long challenges
+    ) {
+        this.day = day;
+        this.culture = culture;
+        this.mood = mood;
+        this.energyLevel = energyLevel;
+        this.category = category;
+        this.status = status;
+        this.challenges = challenges;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public Culture getCulture() {
+        return culture;
+    }
+
+    public Mood getMood() {
+        return mood;
+    }
+
+    public EnergyLevel getEnergyLevel() {
+        return energyLevel;
+    }
+
+    public ChallengeCategory getCategory() {
+        return category;
+    }
+
+    public CompletionStatus getStatus() {
+        return status;
+    }
+
+    public long getChallenges() {
+        return challenges;
+    }
+}
@@ -4,6 +4,9 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "badges")
@@ -25,6 +28,13 @@ public class Badge {
     @Column(name = "criteria", nullable = false)
     private String criteria;
 
+    /**
+     * Set on every insert and change, so other nodes can tell their compiled catalog is stale.
+     */
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     public Badge() {
     }
 
@@ -75,4 +85,8 @@ public class Badge {
     public void setCriteria(String criteria) {
         this.criteria = criteria;
     }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
 }
@@ -0,0 +1,53 @@
+package com.divyam.advent.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * The days on which a user completed at least one challenge, as a {@link com.divyam.advent.util.DayBitmap}:
+ * one bit per day from the origin day, about 46 bytes per year.
+ */
+@Entity
+@Table(name = "completion_calendars")
+public class CompletionCalendar {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "origin_day")
+    private LocalDate origin;
+
+    @Column(name = "days", nullable = false, length = 4096)
+    private byte[] days;
+
+    public CompletionCalendar() {
+    }
+
+    public CompletionCalendar(Long userId, LocalDate origin, byte[] days) {
+        this.userId = userId;
+        this.origin = origin;
+        this.days = days;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LocalDate getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(LocalDate origin) {
+        this.origin = origin;
+    }
+
+    public byte[] getDays() {
+        return days;
+    }
+
+    public void setDays(byte[] days) {
+        this.days = days;
+    }
+}
@@ -0,0 +1,120 @@
+package com.divyam.advent.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Running pulse figures for one day, kept up to date from user_challenges writes
+ * so the pulse is a single keyed read. Periodically reconciled against user_challenges.
+ *
+ * Once a day is over the row is recounted one last time and frozen, and from then on
+ * serves as that day's entry in the pulse history.
+ */
+@Entity
+@Table(name = "pulse_daily_counters")
+public class PulseDailyCounter {
+
+    @Id
+    @Column(name = "pulse_day")
+    private LocalDate day;
+
+    @Column(name = "total_users", nullable = false)
+    private long totalUsers;
+
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+
+    @Column(name = "low_mood_count", nullable = false)
+    private long lowMoodCount;
+
+    @Column(name = "neutral_mood_count", nullable = false)
+    private long neutralMoodCount;
+
+    @Column(name = "high_mood_count", nullable = false)
+    private long highMoodCount;
+
+    /**
+     * When the figures were last recomputed from user_challenges.
+     */
+    @Column(name = "reconciled_at")
+    private LocalDateTime reconciledAt;
+
+    /**
+     * Frozen rows are final history and are no longer changed by deltas or reconciliation.
+     */
+    @Column(name = "finalized", nullable = false)
+    private boolean finalized;
+
+    public PulseDailyCounter() {
+    }
+
+    public PulseDailyCounter(LocalDate day) {
+        this.day = day;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public long getTotalUsers() {
+        return totalUsers;
+    }
+
+    public void setTotalUsers(long totalUsers) {
+        this.totalUsers = totalUsers;
+    }
+
+    public long getCompletedCount() {
+        return completedCount;
+    }
+
+    public void setCompletedCount(long completedCount) {
+        this.completedCount = completedCount;
+    }
+
+    public long getLowMoodCount() {
+        return lowMoodCount;
+    }
+
+    public void setLowMoodCount(long lowMoodCount) {
+        this.lowMoodCount = lowMoodCount;
+    }
+
+    public long getNeutralMoodCount() {
+        return neutralMoodCount;
+    }
+
+    public void setNeutralMoodCount(long neutralMoodCount) {
+        this.neutralMoodCount = neutralMoodCount;
+    }
+
+    public long getHighMoodCount() {
+        return highMoodCount;
+    }
+
+    public void setHighMoodCount(long highMoodCount) {
+        this.highMoodCount = highMoodCount;
+    }
+
+    public LocalDateTime getReconciledAt() {
+        return reconciledAt;
+    }
+
+    public void setReconciledAt(LocalDateTime reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+
+    public boolean isFinalized() {
+        return finalized;
+    }
+
+    public void setFinalized(boolean finalized) {
+        this.finalized = finalized;
+    }
+}
@@ -0,0 +1,48 @@
+package com.divyam.advent.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Assignments and completions written during one hour, bumped from user_challenges writes
+ * so the hourly activity of a day is a read of at most 24 rows.
+ */
+@Entity
+@Table(name = "pulse_hourly_counters")
+public class PulseHourlyCounter {
+
+    /**
+     * Start of the hour.
+     */
+    @Id
+    @Column(name = "pulse_hour")
+    private LocalDateTime hour;
+
+    @Column(name = "assignments", nullable = false)
+    private long assignments;
+
+    @Column(name = "completions", nullable = false)
+    private long completions;
+
+    public PulseHourlyCounter() {
+    }
+
+    public PulseHourlyCounter(LocalDateTime hour, long assignments, long completions) {
+        this.hour = hour;
+        this.assignments = assignments;
+        this.completions = completions;
+    }
+
+    public LocalDateTime getHour() {
+        return hour;
+    }
+
+    public long getAssignments() {
+        return assignments;
+    }
+
+    public long getCompletions() {
+        return completions;
+    }
+}
@@ -4,6 +4,7 @@ import com.divyam.advent.enums.Culture;
 import com.divyam.advent.enums.ThemePreference;
 import jakarta.persistence.*;
 
+import java.time.LocalDate;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -45,6 +46,15 @@ public class User {
     @Column(name = "streak", nullable = false)
     private Integer streak = 0;
 
+    @Column(name = "longest_streak", nullable = false)
+    private Integer longestStreak = 0;
+
+    @Column(name = "last_completion_day")
+    private LocalDate lastCompletionDay;
+
+    @Column(name = "streak_needs_repair", nullable = false)
+    private boolean streakNeedsRepair;
+
     @Column(name = "total_points", nullable = false)
     private Long totalPoints = 0L;
 
@@ -138,6 +148,30 @@ public class User {
         this.streak = streak;
     }
 
+    public Integer getLongestStreak() {
+        return longestStreak;
+    }
+
+    public void setLongestStreak(Integer longestStreak) {
+        this.longestStreak = longestStreak;
+    }
+
+    public LocalDate getLastCompletionDay() {
+        return lastCompletionDay;
+    }
+
+    public void setLastCompletionDay(LocalDate lastCompletionDay) {
+        this.lastCompletionDay = lastCompletionDay;
+    }
+
+    public boolean isStreakNeedsRepair() {
+        return streakNeedsRepair;
+    }
+
+    public void setStreakNeedsRepair(boolean streakNeedsRepair) {
+        this.streakNeedsRepair = streakNeedsRepair;
+    }
+
     public Long getTotalPoints() {
         return totalPoints;
     }
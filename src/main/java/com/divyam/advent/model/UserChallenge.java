@@ -4,7 +4,9 @@ import com.divyam.advent.enums.CompletionStatus;
 import com.divyam.advent.enums.Mood;
 import jakarta.persistence.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Represents a user's participation in a challenge.
@@ -13,7 +15,23 @@ import java.time.LocalDateTime;
  * Each row in this table = one user doing one challenge.
  */
 @Entity
-@Table(name = "user_challenges")
+@Table(
+    name = "user_challenges",
+    uniqueConstraints = {
+        @UniqueConstraint(
+            name = "uk_user_challenges_user_challenge_active_day",
+            columnNames = {"user_id", "challenge_id", "active_assignment_day"}
+        ),
+        @UniqueConstraint(
+            name = "uk_user_challenges_user_daily_day",
+            columnNames = {"user_id", "daily_assignment_day"}
+        )
+    },
+    indexes = {
+        @Index(name = "idx_user_challenges_user_start", columnList = "user_id, start_time"),
+        @Index(name = "idx_user_challenges_start_pulse", columnList = "start_time, user_id, status, mood")
+    }
+)
 public class UserChallenge {
 
     @Id
@@ -63,6 +81,36 @@ public class UserChallenge {
     @Column(name = "mood", nullable = true)
     private Mood mood;
 
+    /**
+     * True when the nightly job created this row as the user's NEUTRAL default for the day.
+     * Picking another mood on the day replaces it instead of only updating the mood.
+     */
+    @Column(name = "preassigned", nullable = false)
+    private boolean preassigned = false;
+
+    /**
+     * The day this row is assigned for while it is ASSIGNED, null once it leaves ASSIGNED.
+     * Backs the unique key that collapses duplicate assignments of the same challenge on the same day,
+     * without blocking a new assignment after a challenge is completed.
+     * Maintained from status and startTime, never set directly.
+     */
+    @Column(name = "active_assignment_day")
+    private LocalDate activeAssignmentDay;
+
+    /**
+     * Same as activeAssignmentDay, but only for rows created by the daily flows.
+     * Backs the unique key that allows one active daily challenge per user per day.
+     */
+    @Column(name = "daily_assignment_day")
+    private LocalDate dailyAssignmentDay;
+
+    /**
+     * Badges the user unlocked with the change that returned this row, so the client can celebrate them.
+     * Not stored; empty when the row is read back later.
+     */
+    @Transient
+    private List<String> newlyUnlockedBadgeIds = List.of();
+
     /**
      * Default constructor required by JPA.
      */
@@ -78,6 +126,7 @@ public class UserChallenge {
         this.challenge = challenge;
         this.status = status;
         this.startTime = LocalDateTime.now();
+        syncActiveAssignmentDay();
     }
 
     // Getters and Setters
@@ -112,6 +161,7 @@ public class UserChallenge {
 
     public void setStatus(CompletionStatus status) {
         this.status = status;
+        syncActiveAssignmentDay();
     }
 
     public LocalDateTime getStartTime() {
@@ -120,6 +170,7 @@ public class UserChallenge {
 
     public void setStartTime(LocalDateTime startTime) {
         this.startTime = startTime;
+        syncActiveAssignmentDay();
     }
 
     public LocalDateTime getCompletionTime() {
@@ -137,4 +188,44 @@ public class UserChallenge {
     public void setMood(Mood mood) {
         this.mood = mood;
     }
+
+    public boolean isPreassigned() {
+        return preassigned;
+    }
+
+    public void setPreassigned(boolean preassigned) {
+        this.preassigned = preassigned;
+    }
+
+    public List<String> getNewlyUnlockedBadgeIds() {
+        return newlyUnlockedBadgeIds;
+    }
+
+    public void setNewlyUnlockedBadgeIds(List<String> newlyUnlockedBadgeIds) {
+        this.newlyUnlockedBadgeIds = newlyUnlockedBadgeIds;
+    }
+
+    public LocalDate getActiveAssignmentDay() {
+        return activeAssignmentDay;
+    }
+
+    public LocalDate getDailyAssignmentDay() {
+        return dailyAssignmentDay;
+    }
+
+    /**
+     * Mark a new row as the user's daily challenge for its day.
+     */
+    public void markAsDailyAssignment() {
+        dailyAssignmentDay = activeAssignmentDay;
+    }
+
+    private void syncActiveAssignmentDay() {
+        activeAssignmentDay = status == CompletionStatus.ASSIGNED && startTime != null
+                ? startTime.toLocalDate()
+                : null;
+        if (dailyAssignmentDay != null) {
+            dailyAssignmentDay = activeAssignmentDay;
+        }
+    }
 }
@@ -0,0 +1,369 @@
+package com.divyam.advent.model;
+
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.model.converter.CategoryCountMapConverter;
+import com.divyam.advent.model.converter.LongCountMapConverter;
+import com.divyam.advent.model.converter.LongSetConverter;
+import com.divyam.advent.util.LongCountTable;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-user rollup of challenge history used by daily selection.
+ * Kept in one row so selection costs a single keyed read no matter how long the history is.
+ *
+ * The maps are replaced rather than mutated in place so Hibernate always sees the change.
+ */
+@Entity
+@Table(name = "user_challenge_summaries")
+public class UserChallengeSummary {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * How many times each challenge has been assigned to the user, keyed by challenge id.
+     */
+    @Convert(converter = LongCountMapConverter.class)
+    @Column(name = "challenge_usage_counts", nullable = false, columnDefinition = "text")
+    private Map<Long, Long> challengeUsageCounts = new HashMap<>();
+
+    /**
+     * How many times each category has been assigned to the user.
+     */
+    @Convert(converter = CategoryCountMapConverter.class)
+    @Column(name = "category_usage_counts", nullable = false, length = 500)
+    private Map<ChallengeCategory, Long> categoryUsageCounts = new EnumMap<>(ChallengeCategory.class);
+
+    @Column(name = "last_challenge_id")
+    private Long lastChallengeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "last_category")
+    private ChallengeCategory lastCategory;
+
+    @Column(name = "last_start_time")
+    private LocalDateTime lastStartTime;
+
+    /**
+     * The most recent day the user was assigned anything, together with the challenges assigned on it.
+     */
+    @Column(name = "last_assignment_day")
+    private LocalDate lastAssignmentDay;
+
+    @Convert(converter = LongSetConverter.class)
+    @Column(name = "last_day_challenge_ids", nullable = false, length = 1000)
+    private Set<Long> lastDayChallengeIds = new HashSet<>();
+
+    /**
+     * The latest day with an assignment before {@link #lastAssignmentDay}, with its challenges and latest pick.
+     * Once tomorrow is pre-assigned, selections for today still rank against today's assignments.
+     */
+    @Column(name = "previous_assignment_day")
+    private LocalDate previousAssignmentDay;
+
+    @Convert(converter = LongSetConverter.class)
+    @Column(name = "previous_day_challenge_ids", length = 1000)
+    private Set<Long> previousDayChallengeIds = new HashSet<>();
+
+    @Column(name = "previous_challenge_id")
+    private Long previousChallengeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_category")
+    private ChallengeCategory previousCategory;
+
+    /**
+     * Primitive views of the usage maps for allocation-free reads during selection.
+     * Built on first use and dropped whenever the maps are replaced, so a freshly loaded summary builds
+     * them once, sized by its history. A view is complete before it is
+     * published through the volatile field and never changes afterwards, so concurrent readers of a
+     * shared summary see either no view or a whole one; racing readers may each build one.
+     */
+    @Transient
+    private transient volatile LongCountTable challengeUsageTable;
+
+    @Transient
+    private transient volatile long[] categoryUsageByOrdinal;
+
+    public UserChallengeSummary() {
+    }
+
+    public UserChallengeSummary(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Fold one newly saved assignment into the summary.
+     */
+    public void recordAssignment(Long challengeId, ChallengeCategory category, LocalDateTime startTime) {
+        if (challengeId == null) {
+            return;
+        }
+
+        Map<Long, Long> updatedUsage = new HashMap<>(challengeUsageCounts);
+        updatedUsage.merge(challengeId, 1L, Long::sum);
+        challengeUsageCounts = updatedUsage;
+        challengeUsageTable = null;
+
+        if (category != null) {
+            Map<ChallengeCategory, Long> updatedCategories = new EnumMap<>(ChallengeCategory.class);
+            updatedCategories.putAll(categoryUsageCounts);
+            updatedCategories.merge(category, 1L, Long::sum);
+            categoryUsageCounts = updatedCategories;
+            categoryUsageByOrdinal = null;
+        }
+
+        if (startTime == null) {
+            return;
+        }
+
+        LocalDate day = startTime.toLocalDate();
+        if (lastAssignmentDay == null || day.isAfter(lastAssignmentDay)) {
+            if (lastAssignmentDay != null) {
+                previousAssignmentDay = lastAssignmentDay;
+                previousDayChallengeIds = lastDayChallengeIds;
+                previousChallengeId = lastChallengeId;
+                previousCategory = lastCategory;
+            }
+            lastAssignmentDay = day;
+            lastDayChallengeIds = Set.of(challengeId);
+            lastChallengeId = challengeId;
+            lastCategory = category;
+            lastStartTime = startTime;
+        } else if (day.equals(lastAssignmentDay)) {
+            lastDayChallengeIds = with(lastDayChallengeIds, challengeId);
+            if (lastStartTime == null || !startTime.isBefore(lastStartTime)) {
+                lastChallengeId = challengeId;
+                lastCategory = category;
+                lastStartTime = startTime;
+            }
+        } else if (day.equals(previousAssignmentDay)) {
+            // Only on-demand assignments for today land here, after tomorrow's, so they are the latest of the day.
+            previousDayChallengeIds = with(previousDayChallengeIds, challengeId);
+            previousChallengeId = challengeId;
+            previousCategory = category;
+        } else if (previousAssignmentDay == null || day.isAfter(previousAssignmentDay)) {
+            previousAssignmentDay = day;
+            previousDayChallengeIds = Set.of(challengeId);
+            previousChallengeId = challengeId;
+            previousCategory = category;
+        }
+    }
+
+    private static Set<Long> with(Set<Long> ids, Long id) {
+        if (ids.contains(id)) {
+            return ids;
+        }
+        Set<Long> updated = new HashSet<>(ids);
+        updated.add(id);
+        return updated;
+    }
+
+    /**
+     * Detached copy for what-if selection. Changes to the copy never reach this summary.
+     * The collections are shared because they are only ever replaced, never mutated.
+     * The copy builds its own primitive views.
+     */
+    public UserChallengeSummary copy() {
+        UserChallengeSummary copy = new UserChallengeSummary(userId);
+        copy.challengeUsageCounts = challengeUsageCounts;
+        copy.categoryUsageCounts = categoryUsageCounts;
+        copy.lastChallengeId = lastChallengeId;
+        copy.lastCategory = lastCategory;
+        copy.lastStartTime = lastStartTime;
+        copy.lastAssignmentDay = lastAssignmentDay;
+        copy.lastDayChallengeIds = lastDayChallengeIds;
+        copy.previousAssignmentDay = previousAssignmentDay;
+        copy.previousDayChallengeIds = previousDayChallengeIds;
+        copy.previousChallengeId = previousChallengeId;
+        copy.previousCategory = previousCategory;
+        return copy;
+    }
+
+    /**
+     * Challenge ids assigned to the user on the given day, if it is one of the two latest assignment days.
+     */
+    public Set<Long> getChallengeIdsOn(LocalDate day) {
+        if (day == null) {
+            return Set.of();
+        }
+        if (day.equals(lastAssignmentDay)) {
+            return Collections.unmodifiableSet(lastDayChallengeIds);
+        }
+        return day.equals(previousAssignmentDay) ? Collections.unmodifiableSet(previousDayChallengeIds) : Set.of();
+    }
+
+    /**
+     * Whether the challenge was assigned to the user on the given day. Does not allocate.
+     */
+    public boolean isAssignedOn(LocalDate day, Long challengeId) {
+        if (challengeId == null || day == null) {
+            return false;
+        }
+        if (day.equals(lastAssignmentDay)) {
+            return lastDayChallengeIds.contains(challengeId);
+        }
+        return day.equals(previousAssignmentDay) && previousDayChallengeIds.contains(challengeId);
+    }
+
+    /**
+     * The latest challenge assigned on or before the given day, ignoring days pre-assigned after it.
+     */
+    public Long getLastChallengeIdAsOf(LocalDate day) {
+        if (day == null || lastAssignmentDay == null || !lastAssignmentDay.isAfter(day)) {
+            return lastChallengeId;
+        }
+        return previousAssignmentDay != null && !previousAssignmentDay.isAfter(day) ? previousChallengeId : null;
+    }
+
+    /**
+     * The category of {@link #getLastChallengeIdAsOf(LocalDate)}.
+     */
+    public ChallengeCategory getLastCategoryAsOf(LocalDate day) {
+        if (day == null || lastAssignmentDay == null || !lastAssignmentDay.isAfter(day)) {
+            return lastCategory;
+        }
+        return previousAssignmentDay != null && !previousAssignmentDay.isAfter(day) ? previousCategory : null;
+    }
+
+    /**
+     * How many times the challenge has been assigned to the user. Does not allocate once warmed up.
+     */
+    public long getChallengeUsageCount(long challengeId) {
+        LongCountTable table = challengeUsageTable;
+        if (table == null) {
+            table = LongCountTable.from(challengeUsageCounts);
+            challengeUsageTable = table;
+        }
+        return table.get(challengeId);
+    }
+
+    /**
+     * How many times the category has been assigned to the user. Does not allocate once warmed up.
+     */
+    public long getCategoryUsageCount(ChallengeCategory category) {
+        if (category == null) {
+            return 0L;
+        }
+
+        long[] byOrdinal = categoryUsageByOrdinal;
+        if (byOrdinal == null) {
+            byOrdinal = new long[ChallengeCategory.values().length];
+            for (Map.Entry<ChallengeCategory, Long> entry : categoryUsageCounts.entrySet()) {
+                byOrdinal[entry.getKey().ordinal()] = entry.getValue();
+            }
+            categoryUsageByOrdinal = byOrdinal;
+        }
+        return byOrdinal[category.ordinal()];
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Map<Long, Long> getChallengeUsageCounts() {
+        return Collections.unmodifiableMap(challengeUsageCounts);
+    }
+
+    public void setChallengeUsageCounts(Map<Long, Long> challengeUsageCounts) {
+        this.challengeUsageCounts = new HashMap<>(challengeUsageCounts);
+        this.challengeUsageTable = null;
+    }
+
+    public Map<ChallengeCategory, Long> getCategoryUsageCounts() {
+        return Collections.unmodifiableMap(categoryUsageCounts);
+    }
+
+    public void setCategoryUsageCounts(Map<ChallengeCategory, Long> categoryUsageCounts) {
+        Map<ChallengeCategory, Long> copy = new EnumMap<>(ChallengeCategory.class);
+        copy.putAll(categoryUsageCounts);
+        this.categoryUsageCounts = copy;
+        this.categoryUsageByOrdinal = null;
+    }
+
+    public Long getLastChallengeId() {
+        return lastChallengeId;
+    }
+
+    public void setLastChallengeId(Long lastChallengeId) {
+        this.lastChallengeId = lastChallengeId;
+    }
+
+    public ChallengeCategory getLastCategory() {
+        return lastCategory;
+    }
+
+    public void setLastCategory(ChallengeCategory lastCategory) {
+        this.lastCategory = lastCategory;
+    }
+
+    public LocalDateTime getLastStartTime() {
+        return lastStartTime;
+    }
+
+    public void setLastStartTime(LocalDateTime lastStartTime) {
+        this.lastStartTime = lastStartTime;
+    }
+
+    public LocalDate getLastAssignmentDay() {
+        return lastAssignmentDay;
+    }
+
+    public void setLastAssignmentDay(LocalDate lastAssignmentDay) {
+        this.lastAssignmentDay = lastAssignmentDay;
+    }
+
+    public Set<Long> getLastDayChallengeIds() {
+        return Collections.unmodifiableSet(lastDayChallengeIds);
+    }
+
+    public void setLastDayChallengeIds(Set<Long> lastDayChallengeIds) {
+        this.lastDayChallengeIds = new HashSet<>(lastDayChallengeIds);
+    }
+
+    public LocalDate getPreviousAssignmentDay() {
+        return previousAssignmentDay;
+    }
+
+    public void setPreviousAssignmentDay(LocalDate previousAssignmentDay) {
+        this.previousAssignmentDay = previousAssignmentDay;
+    }
+
+    public Set<Long> getPreviousDayChallengeIds() {
+        return Collections.unmodifiableSet(previousDayChallengeIds);
+    }
+
+    public void setPreviousDayChallengeIds(Set<Long> previousDayChallengeIds) {
+        this.previousDayChallengeIds = new HashSet<>(previousDayChallengeIds);
+    }
+
+    public Long getPreviousChallengeId() {
+        return previousChallengeId;
+    }
+
+    public void setPreviousChallengeId(Long previousChallengeId) {
+        this.previousChallengeId = previousChallengeId;
+    }
+
+    public ChallengeCategory getPreviousCategory() {
+        return previousCategory;
+    }
+
+    public void setPreviousCategory(ChallengeCategory previousCategory) {
+        this.previousCategory = previousCategory;
+    }
+}
@@ -0,0 +1,48 @@
+package com.divyam.advent.model.converter;
+
+import com.divyam.advent.enums.ChallengeCategory;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Stores a map of challenge category to count as a compact "CATEGORY:count,CATEGORY:count" string.
+ */
+@Converter
+public class CategoryCountMapConverter implements AttributeConverter<Map<ChallengeCategory, Long>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(Map<ChallengeCategory, Long> counts) {
+        if (counts == null || counts.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder encoded = new StringBuilder();
+        for (Map.Entry<ChallengeCategory, Long> entry : new EnumMap<>(counts).entrySet()) {
+            if (encoded.length() > 0) {
+                encoded.append(',');
+            }
+            encoded.append(entry.getKey().name()).append(':').append(entry.getValue());
+        }
+        return encoded.toString();
+    }
+
+    @Override
+    public Map<ChallengeCategory, Long> convertToEntityAttribute(String encoded) {
+        Map<ChallengeCategory, Long> counts = new EnumMap<>(ChallengeCategory.class);
+        if (encoded == null || encoded.isEmpty()) {
+            return counts;
+        }
+
+        for (String pair : encoded.split(",")) {
+            int separator = pair.indexOf(':');
+            counts.put(
+                    ChallengeCategory.valueOf(pair.substring(0, separator)),
+                    Long.parseLong(pair.substring(separator + 1))
+            );
+        }
+        return counts;
+    }
+}
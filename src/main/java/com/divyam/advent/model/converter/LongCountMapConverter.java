@@ -0,0 +1,49 @@
+package com.divyam.advent.model.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stores a map of id to count as a compact "id:count,id:count" string.
+ * Keys are written in ascending order so equal maps always produce the same column value.
+ */
+@Converter
+public class LongCountMapConverter implements AttributeConverter<Map<Long, Long>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(Map<Long, Long> counts) {
+        if (counts == null || counts.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder encoded = new StringBuilder(counts.size() * 8);
+        for (Map.Entry<Long, Long> entry : new TreeMap<>(counts).entrySet()) {
+            if (encoded.length() > 0) {
+                encoded.append(',');
+            }
+            encoded.append(entry.getKey()).append(':').append(entry.getValue());
+        }
+        return encoded.toString();
+    }
+
+    @Override
+    public Map<Long, Long> convertToEntityAttribute(String encoded) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return counts;
+        }
+
+        for (String pair : encoded.split(",")) {
+            int separator = pair.indexOf(':');
+            counts.put(
+                    Long.parseLong(pair.substring(0, separator)),
+                    Long.parseLong(pair.substring(separator + 1))
+            );
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,44 @@
+package com.divyam.advent.model.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Stores a small set of ids as a sorted, comma separated string.
+ */
+@Converter
+public class LongSetConverter implements AttributeConverter<Set<Long>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(Set<Long> values) {
+        if (values == null || values.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder encoded = new StringBuilder();
+        for (Long value : new TreeSet<>(values)) {
+            if (encoded.length() > 0) {
+                encoded.append(',');
+            }
+            encoded.append(value);
+        }
+        return encoded.toString();
+    }
+
+    @Override
+    public Set<Long> convertToEntityAttribute(String encoded) {
+        Set<Long> values = new HashSet<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return values;
+        }
+
+        for (String value : encoded.split(",")) {
+            values.add(Long.parseLong(value));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,23 @@
+package com.divyam.advent.repository;
+
+import com.divyam.advent.model.ActiveUserSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ActiveUserSketchRepository extends JpaRepository<ActiveUserSketch, LocalDate> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ActiveUserSketch s WHERE s.day = :day")
+    Optional<ActiveUserSketch> findByDayForUpdate(@Param("day") LocalDate day);
+
+    List<ActiveUserSketch> findByDayBetween(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,19 @@
+package com.divyam.advent.repository;
+
+import com.divyam.advent.model.ActivityCubeBuild;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ActivityCubeBuildRepository extends JpaRepository<ActivityCubeBuild, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM ActivityCubeBuild b WHERE b.id = :id")
+    Optional<ActivityCubeBuild> findByIdForUpdate(@Param("id") Long id);
+}
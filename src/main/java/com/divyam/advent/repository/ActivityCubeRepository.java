@@ -0,0 +1,22 @@
+package com.divyam.advent.repository;
+
+import com.divyam.advent.model.ActivityCubeCell;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface ActivityCubeRepository extends JpaRepository<ActivityCubeCell, Long>, ActivityCubeSliceRepository {
+
+    @Query("SELECT MAX(c.day) FROM ActivityCubeCell c")
+    Optional<LocalDate> findLastBuiltDay();
+
+    @Modifying
+    @Query("DELETE FROM ActivityCubeCell c WHERE c.day >= :from AND c.day <= :to")
+    int deleteByDayBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
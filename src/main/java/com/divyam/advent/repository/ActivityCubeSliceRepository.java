@@ -0,0 +1,41 @@
+package com.divyam.advent.repository;
+
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.enums.CompletionStatus;
+import com.divyam.advent.enums.CubeDimension;
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.enums.EnergyLevel;
+import com.divyam.advent.enums.Mood;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Grouped reads of the activity cube. The grouping dimensions vary per request, so the query is
+ * assembled at runtime instead of being declared with {@code @Query}.
+ */
+public interface ActivityCubeSliceRepository {
+
+    /**
+     * Challenges and completed challenges per combination of the groupBy dimensions.
+     * @param key one value per groupBy dimension, in the same order; null for a missing mood
+     */
+    record SliceTotal(List<Object> key, long challenges, long completed) {
+    }
+
+    /**
+     * Sum the cells between from and to, both included, that match every filter, grouped by the given dimensions.
+     * Null or empty filters match every value.
+     */
+    List<SliceTotal> sumSlice(
+            LocalDate from,
+            LocalDate to,
+            Set<Culture> cultures,
+            Set<Mood> moods,
+            Set<EnergyLevel> energyLevels,
+            Set<ChallengeCategory> categories,
+            Set<CompletionStatus> statuses,
+            List<CubeDimension> groupBy
+    );
+}
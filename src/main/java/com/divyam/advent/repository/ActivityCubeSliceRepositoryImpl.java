@@ -0,0 +1,98 @@
+package com.divyam.advent.repository;
+
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.enums.CompletionStatus;
+import com.divyam.advent.enums.CubeDimension;
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.enums.EnergyLevel;
+import com.divyam.advent.enums.Mood;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class ActivityCubeSliceRepositoryImpl implements ActivityCubeSliceRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<SliceTotal> sumSlice(
+            LocalDate from,
+            LocalDate to,
+            Set<Culture> cultures,
+            Set<Mood> moods,
+            Set<EnergyLevel> energyLevels,
+            Set<ChallengeCategory> categories,
+            Set<CompletionStatus> statuses,
+            List<CubeDimension> groupBy
+    ) {
+        Map<String, Collection<?>> filters = new LinkedHashMap<>();
+        putFilter(filters, "culture", cultures);
+        putFilter(filters, "mood", moods);
+        putFilter(filters, "energyLevel", energyLevels);
+        putFilter(filters, "category", categories);
+        putFilter(filters, "status", statuses);
+
+        // Paths come from CubeDimension and filters from fixed names; every value is a bound parameter.
+        List<String> paths = groupBy.stream().map(ActivityCubeSliceRepositoryImpl::path).toList();
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        for (String path : paths) {
+            jpql.append(path).append(", ");
+        }
+        jpql.append("SUM(c.challenges), SUM(CASE WHEN c.status = :completed THEN c.challenges ELSE 0 END) ")
+                .append("FROM ActivityCubeCell c WHERE c.day >= :from AND c.day <= :to");
+        for (String field : filters.keySet()) {
+            jpql.append(" AND c.").append(field).append(" IN :").append(field);
+        }
+        if (!paths.isEmpty()) {
+            jpql.append(" GROUP BY ").append(String.join(", ", paths));
+        }
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class)
+                .setParameter("completed", CompletionStatus.COMPLETED)
+                .setParameter("from", from)
+                .setParameter("to", to);
+        filters.forEach(query::setParameter);
+
+        int dimensions = paths.size();
+        List<SliceTotal> totals = new ArrayList<>();
+        for (Object[] row : query.getResultList()) {
+            // Without groupBy the sums come back as one row, null when nothing matched.
+            if (row[dimensions] == null) {
+                continue;
+            }
+            totals.add(new SliceTotal(
+                    Arrays.asList(Arrays.copyOf(row, dimensions)),
+                    ((Number) row[dimensions]).longValue(),
+                    ((Number) row[dimensions + 1]).longValue()
+            ));
+        }
+        return totals;
+    }
+
+    private static void putFilter(Map<String, Collection<?>> filters, String field, Collection<?> values) {
+        if (values != null && !values.isEmpty()) {
+            filters.put(field, values);
+        }
+    }
+
+    private static String path(CubeDimension dimension) {
+        return switch (dimension) {
+            case DAY -> "c.day";
+            case CULTURE -> "c.culture";
+            case MOOD -> "c.mood";
+            case ENERGY_LEVEL -> "c.energyLevel";
+            case CATEGORY -> "c.category";
+            case STATUS -> "c.status";
+        };
+    }
+}
@@ -2,11 +2,26 @@ package com.divyam.advent.repository;
 
 import com.divyam.advent.model.Badge;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface BadgeRepository extends JpaRepository<Badge, String> {
+
+    interface CatalogVersionProjection {
+        long getBadges();
+
+        LocalDateTime getLastUpdatedAt();
+    }
+
     List<Badge> findAllByOrderByTitleAsc();
+
+    /**
+     * Cheap probe that changes whenever a badge is added, changed or removed.
+     */
+    @Query("SELECT COUNT(b) AS badges, MAX(b.updatedAt) AS lastUpdatedAt FROM Badge b")
+    CatalogVersionProjection findCatalogVersion();
 }
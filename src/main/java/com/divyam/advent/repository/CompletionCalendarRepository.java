@@ -0,0 +1,19 @@
+package com.divyam.advent.repository;
+
+import com.divyam.advent.model.CompletionCalendar;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CompletionCalendarRepository extends JpaRepository<CompletionCalendar, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CompletionCalendar c WHERE c.userId = :userId")
+    Optional<CompletionCalendar> findByUserIdForUpdate(@Param("userId") Long userId);
+}
@@ -0,0 +1,50 @@
+package com.divyam.advent.repository;
+
+import com.divyam.advent.model.PulseDailyCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PulseDailyCounterRepository extends JpaRepository<PulseDailyCounter, LocalDate> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM PulseDailyCounter c WHERE c.day = :day")
+    Optional<PulseDailyCounter> findByDayForUpdate(@Param("day") LocalDate day);
+
+    /**
+     * Add deltas to a day's counters in place, so concurrent writers on any node never lose updates.
+     * Frozen days are left untouched.
+     *
+     * @return number of rows updated, 0 when the day has no open counter row
+     */
+    @Modifying
+    @Query("UPDATE PulseDailyCounter c SET " +
+           "c.totalUsers = c.totalUsers + :users, " +
+           "c.completedCount = c.completedCount + :completed, " +
+           "c.lowMoodCount = c.lowMoodCount + :low, " +
+           "c.neutralMoodCount = c.neutralMoodCount + :neutral, " +
+           "c.highMoodCount = c.highMoodCount + :high " +
+           "WHERE c.day = :day AND c.finalized = false")
+    int addDeltas(
+            @Param("day") LocalDate day,
+            @Param("users") long users,
+            @Param("completed") long completed,
+            @Param("low") long low,
+            @Param("neutral") long neutral,
+            @Param("high") long high
+    );
+
+    @Query("SELECT MAX(c.day) FROM PulseDailyCounter c WHERE c.finalized = true")
+    Optional<LocalDate> findLastFinalizedDay();
+
+    List<PulseDailyCounter> findByDayBetweenOrderByDayAsc(LocalDate from, LocalDate to);
+}
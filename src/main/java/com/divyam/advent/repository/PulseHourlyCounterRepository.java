@@ -0,0 +1,33 @@
+package com.divyam.advent.repository;
+
+import com.divyam.advent.model.PulseHourlyCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PulseHourlyCounterRepository extends JpaRepository<PulseHourlyCounter, LocalDateTime> {
+
+    /**
+     * Add deltas to an hour's counters in place.
+     *
+     * @return number of rows updated, 0 when the hour has no counter row yet
+     */
+    @Modifying
+    @Query("UPDATE PulseHourlyCounter c SET " +
+           "c.assignments = c.assignments + :assignments, " +
+           "c.completions = c.completions + :completions " +
+           "WHERE c.hour = :hour")
+    int addDeltas(
+            @Param("hour") LocalDateTime hour,
+            @Param("assignments") long assignments,
+            @Param("completions") long completions
+    );
+
+    List<PulseHourlyCounter> findByHourGreaterThanEqualAndHourLessThanOrderByHourAsc(LocalDateTime start, LocalDateTime end);
+}
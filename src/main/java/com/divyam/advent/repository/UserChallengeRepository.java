@@ -2,13 +2,18 @@ package com.divyam.advent.repository;
 
 import com.divyam.advent.enums.ChallengeCategory;
 import com.divyam.advent.enums.CompletionStatus;
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.enums.EnergyLevel;
+import com.divyam.advent.enums.Mood;
 import com.divyam.advent.model.UserChallenge;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -26,19 +31,89 @@ public interface UserChallengeRepository extends JpaRepository<UserChallenge, Lo
         long getCount();
     }
 
+    interface PulseCountsProjection {
+        long getTotalUsers();
+
+        long getCompletedCount();
+
+        long getLowMoodCount();
+
+        long getNeutralMoodCount();
+
+        long getHighMoodCount();
+    }
+
+    interface DailyPulseCountsProjection extends PulseCountsProjection {
+        LocalDate getDay();
+    }
+
+    interface SegmentPulseCountsProjection extends PulseCountsProjection {
+        Culture getCulture();
+
+        EnergyLevel getEnergyLevel();
+    }
+
+    interface CultureUserCountProjection {
+        Culture getCulture();
+
+        long getTotalUsers();
+    }
+
+    interface ActivityCubeProjection {
+        LocalDate getDay();
+
+        Culture getCulture();
+
+        Mood getMood();
+
+        EnergyLevel getEnergyLevel();
+
+        ChallengeCategory getCategory();
+
+        CompletionStatus getStatus();
+
+        long getChallenges();
+    }
+
+    interface CompletionStreakProjection {
+        LocalDate getLastDay();
+
+        long getDays();
+
+        long getLongest();
+    }
+
+    interface ChallengeUsageProjection {
+        Long getChallengeId();
+
+        ChallengeCategory getCategory();
+
+        long getCount();
+    }
+
     /**
-     * Find all challenges for a specific user.
+     * Find all challenges for a specific user, leaving out rows pre-assigned for a day that has not started.
      * @param userId the ID of the user
+     * @param now the current time
      * @return list of UserChallenges for this user
      */
-    List<UserChallenge> findByUser_Id(Long userId);
+    @Query("SELECT uc FROM UserChallenge uc WHERE uc.user.id = :userId " +
+           "AND (uc.preassigned = false OR uc.startTime <= :now)")
+    List<UserChallenge> findVisibleByUser_Id(@Param("userId") Long userId, @Param("now") LocalDateTime now);
 
     /**
-     * Find all users participating in a specific challenge.
+     * Find all users participating in a specific challenge, leaving out rows pre-assigned for a day
+     * that has not started.
      * @param challengeId the ID of the challenge
+     * @param now the current time
      * @return list of UserChallenges for this challenge
      */
-    List<UserChallenge> findByChallenge_Id(Long challengeId);
+    @Query("SELECT uc FROM UserChallenge uc WHERE uc.challenge.id = :challengeId " +
+           "AND (uc.preassigned = false OR uc.startTime <= :now)")
+    List<UserChallenge> findVisibleByChallenge_Id(
+            @Param("challengeId") Long challengeId,
+            @Param("now") LocalDateTime now
+    );
 
     /**
      * Find all challenges for a user with a specific status.
@@ -49,6 +124,18 @@ public interface UserChallengeRepository extends JpaRepository<UserChallenge, Lo
      */
     List<UserChallenge> findByUser_IdAndStatus(Long userId, CompletionStatus status);
 
+    /**
+     * Like {@link #findByUser_IdAndStatus}, leaving out rows pre-assigned for a day that has not started.
+     */
+    @Query("SELECT uc FROM UserChallenge uc WHERE uc.user.id = :userId " +
+           "AND uc.status = :status " +
+           "AND (uc.preassigned = false OR uc.startTime <= :now)")
+    List<UserChallenge> findVisibleByUser_IdAndStatus(
+            @Param("userId") Long userId,
+            @Param("status") CompletionStatus status,
+            @Param("now") LocalDateTime now
+    );
+
     @Query("SELECT COUNT(uc) FROM UserChallenge uc WHERE uc.user.id = :userId " +
            "AND uc.startTime BETWEEN :start AND :end")
     long countAssignedInRange(
@@ -77,6 +164,44 @@ public interface UserChallengeRepository extends JpaRepository<UserChallenge, Lo
             @Param("end") LocalDateTime end
     );
 
+    @Query("SELECT uc.challenge.category AS category, COUNT(uc) AS count FROM UserChallenge uc " +
+           "WHERE uc.user.id = :userId " +
+           "AND uc.status = 'COMPLETED' " +
+           "GROUP BY uc.challenge.category")
+    List<CategoryCountProjection> countCompletedByCategory(@Param("userId") Long userId);
+
+    /**
+     * Count how often each challenge has been assigned to a user.
+     * Used to rebuild the per-user selection summary without loading full entities.
+     *
+     * @param userId the ID of the user
+     * @return one row per challenge with its category and assignment count
+     */
+    @Query("SELECT uc.challenge.id AS challengeId, uc.challenge.category AS category, COUNT(uc) AS count " +
+           "FROM UserChallenge uc WHERE uc.user.id = :userId " +
+           "GROUP BY uc.challenge.id, uc.challenge.category")
+    List<ChallengeUsageProjection> countUsageByChallenge(@Param("userId") Long userId);
+
+    /**
+     * Find the most recently started challenge for a user.
+     *
+     * @param userId the ID of the user
+     * @return the latest UserChallenge with a start time, if any
+     */
+    Optional<UserChallenge> findFirstByUser_IdAndStartTimeNotNullOrderByStartTimeDescIdDesc(Long userId);
+
+    /**
+     * Find the latest challenge a user started before a given time.
+     *
+     * @param userId the ID of the user
+     * @param before exclusive upper bound
+     * @return the latest UserChallenge started before the bound, if any
+     */
+    Optional<UserChallenge> findFirstByUser_IdAndStartTimeBeforeOrderByStartTimeDescIdDesc(
+            Long userId,
+            LocalDateTime before
+    );
+
     /**
      * Check if a user is already participating in a specific challenge.
      * Useful to prevent duplicate sign-ups.
@@ -96,12 +221,15 @@ public interface UserChallengeRepository extends JpaRepository<UserChallenge, Lo
     Optional<UserChallenge> findByUser_IdAndChallenge_Id(Long userId, Long challengeId);
 
     /**
-     * Count total challenges assigned to a user.
+     * Count total challenges assigned to a user, leaving out rows pre-assigned for a day that has not started.
      * This is an efficient COUNT query that executes at the database level.
      * @param userId the ID of the user
+     * @param now the current time
      * @return total count of challenges for this user
      */
-    long countByUser_Id(Long userId);
+    @Query("SELECT COUNT(uc) FROM UserChallenge uc WHERE uc.user.id = :userId " +
+           "AND (uc.preassigned = false OR uc.startTime <= :now)")
+    long countVisibleByUser_Id(@Param("userId") Long userId, @Param("now") LocalDateTime now);
 
     @Query("SELECT COUNT(uc) FROM UserChallenge uc " +
            "WHERE uc.user.id = :userId " +
@@ -190,69 +318,191 @@ public interface UserChallengeRepository extends JpaRepository<UserChallenge, Lo
             @Param("status") CompletionStatus status
     );
 
+    /**
+     * Find a user's challenges with a status whose start time falls in [start, end).
+     * Used for today's lookups so rows pre-assigned for tomorrow are not picked up.
+     *
+     * @param userId the ID of the user
+     * @param start inclusive lower bound (typically today's start)
+     * @param end exclusive upper bound (typically tomorrow's start)
+     * @param status the target status
+     * @return matching UserChallenges, earliest first
+     */
+    @Query("SELECT uc FROM UserChallenge uc WHERE uc.user.id = :userId " +
+           "AND uc.startTime >= :start AND uc.startTime < :end " +
+           "AND uc.status = :status " +
+           "ORDER BY uc.startTime ASC, uc.id ASC")
+    List<UserChallenge> findByUser_IdAndStartTimeInRangeAndStatus(
+            @Param("userId") Long userId,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("status") CompletionStatus status
+    );
+
+    /**
+     * Find users who were assigned anything since a given time and have nothing assigned in [start, end).
+     * Keyset-paged by user id for the nightly pre-assignment job.
+     *
+     * @param activeSince users with a challenge started at or after this time count as active
+     * @param start inclusive lower bound of the target day
+     * @param end exclusive upper bound of the target day
+     * @param afterUserId only return user ids greater than this
+     * @param pageable page size (page number is ignored by callers, which always pass page 0)
+     * @return ascending user ids
+     */
+    @Query("SELECT DISTINCT uc.user.id FROM UserChallenge uc " +
+           "WHERE uc.startTime >= :activeSince " +
+           "AND uc.user.id > :afterUserId " +
+           "AND NOT EXISTS (SELECT 1 FROM UserChallenge planned " +
+           "WHERE planned.user = uc.user " +
+           "AND planned.startTime >= :start AND planned.startTime < :end) " +
+           "ORDER BY uc.user.id")
+    List<Long> findActiveUserIdsWithoutAssignmentInRange(
+            @Param("activeSince") LocalDateTime activeSince,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("afterUserId") Long afterUserId,
+            Pageable pageable
+    );
+
     // ==================== ANALYTICS / PULSE QUERIES ====================
     // All queries below are for the Global Student Pulse feature.
-    // They use efficient COUNT aggregation at the database level.
+    // They aggregate at the database level. Pre-assigned rows the user has not touched yet are left out:
+    // the nightly job writes them for the whole active population, so they are not activity.
 
     /**
-     * Count total unique users assigned challenges today.
-     * Uses COUNT(DISTINCT user.id) for accurate user count.
+     * All pulse figures for a time range in a single scan of user_challenges.
      *
-     * @param start start of today (00:00:00)
-     * @param end end of today (23:59:59)
-     * @return number of unique users assigned challenges today
+     * @param start start of the range, inclusive
+     * @param end end of the range, exclusive
+     * @return distinct users, completed challenges and per-mood counts for the range
      */
-    @Query("SELECT COUNT(DISTINCT uc.user.id) FROM UserChallenge uc " +
-           "WHERE uc.startTime BETWEEN :start AND :end")
-    long countDistinctUsersToday(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    @Query("SELECT COUNT(DISTINCT uc.user.id) AS totalUsers, " +
+           "COALESCE(SUM(CASE WHEN uc.status = 'COMPLETED' THEN 1 ELSE 0 END), 0) AS completedCount, " +
+           "COALESCE(SUM(CASE WHEN uc.mood = 'LOW' THEN 1 ELSE 0 END), 0) AS lowMoodCount, " +
+           "COALESCE(SUM(CASE WHEN uc.mood = 'NEUTRAL' THEN 1 ELSE 0 END), 0) AS neutralMoodCount, " +
+           "COALESCE(SUM(CASE WHEN uc.mood = 'HIGH' THEN 1 ELSE 0 END), 0) AS highMoodCount " +
+           "FROM UserChallenge uc " +
+           "WHERE uc.startTime >= :start AND uc.startTime < :end AND uc.preassigned = false")
+    PulseCountsProjection aggregatePulse(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
     /**
-     * Count completed challenges for today.
+     * Pulse figures for every day in a range with at least one row, in one grouped scan.
      *
-     * @param start start of today (00:00:00)
-     * @param end end of today (23:59:59)
-     * @return number of completed challenges today
+     * @param start start of the first day, inclusive
+     * @param end start of the day after the last one, exclusive
+     * @return one row per active day, in date order
      */
-    @Query("SELECT COUNT(uc) FROM UserChallenge uc " +
-           "WHERE uc.status = 'COMPLETED' " +
-           "AND uc.startTime BETWEEN :start AND :end")
-    long countCompletedToday(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    @Query("SELECT extract(date from uc.startTime) AS day, " +
+           "COUNT(DISTINCT uc.user.id) AS totalUsers, " +
+           "COALESCE(SUM(CASE WHEN uc.status = 'COMPLETED' THEN 1 ELSE 0 END), 0) AS completedCount, " +
+           "COALESCE(SUM(CASE WHEN uc.mood = 'LOW' THEN 1 ELSE 0 END), 0) AS lowMoodCount, " +
+           "COALESCE(SUM(CASE WHEN uc.mood = 'NEUTRAL' THEN 1 ELSE 0 END), 0) AS neutralMoodCount, " +
+           "COALESCE(SUM(CASE WHEN uc.mood = 'HIGH' THEN 1 ELSE 0 END), 0) AS highMoodCount " +
+           "FROM UserChallenge uc " +
+           "WHERE uc.startTime >= :start AND uc.startTime < :end AND uc.preassigned = false " +
+           "GROUP BY extract(date from uc.startTime) " +
+           "ORDER BY extract(date from uc.startTime)")
+    List<DailyPulseCountsProjection> aggregatePulseByDay(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
 
     /**
-     * Count users with LOW mood today.
+     * Pulse figures for a time range per user culture and challenge energy level, in one grouped scan.
      *
-     * @param start start of today (00:00:00)
-     * @param end end of today (23:59:59)
-     * @return number of users with LOW mood
+     * @param start start of the range, inclusive
+     * @param end end of the range, exclusive
+     * @return one row per culture and energy level with at least one row
      */
-    @Query("SELECT COUNT(uc) FROM UserChallenge uc " +
-           "WHERE uc.mood = 'LOW' " +
-           "AND uc.startTime BETWEEN :start AND :end")
-    long countLowMoodToday(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    @Query("SELECT u.country AS culture, c.energyLevel AS energyLevel, " +
+           "COUNT(DISTINCT u.id) AS totalUsers, " +
+           "COALESCE(SUM(CASE WHEN uc.status = 'COMPLETED' THEN 1 ELSE 0 END), 0) AS completedCount, " +
+           "COALESCE(SUM(CASE WHEN uc.mood = 'LOW' THEN 1 ELSE 0 END), 0) AS lowMoodCount, " +
+           "COALESCE(SUM(CASE WHEN uc.mood = 'NEUTRAL' THEN 1 ELSE 0 END), 0) AS neutralMoodCount, " +
+           "COALESCE(SUM(CASE WHEN uc.mood = 'HIGH' THEN 1 ELSE 0 END), 0) AS highMoodCount " +
+           "FROM UserChallenge uc JOIN uc.user u JOIN uc.challenge c " +
+           "WHERE uc.startTime >= :start AND uc.startTime < :end AND uc.preassigned = false " +
+           "GROUP BY u.country, c.energyLevel")
+    List<SegmentPulseCountsProjection> aggregatePulseBySegment(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
 
     /**
-     * Count users with NEUTRAL mood today.
+     * Distinct users per user culture for a time range. A user with challenges at several energy levels
+     * appears in several segments of {@link #aggregatePulseBySegment}, so per-culture user counts come from here.
      *
-     * @param start start of today (00:00:00)
-     * @param end end of today (23:59:59)
-     * @return number of users with NEUTRAL mood
+     * @param start start of the range, inclusive
+     * @param end end of the range, exclusive
+     * @return one row per culture with at least one row
      */
-    @Query("SELECT COUNT(uc) FROM UserChallenge uc " +
-           "WHERE uc.mood = 'NEUTRAL' " +
-           "AND uc.startTime BETWEEN :start AND :end")
-    long countNeutralMoodToday(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    @Query("SELECT u.country AS culture, COUNT(DISTINCT u.id) AS totalUsers " +
+           "FROM UserChallenge uc JOIN uc.user u " +
+           "WHERE uc.startTime >= :start AND uc.startTime < :end AND uc.preassigned = false " +
+           "GROUP BY u.country")
+    List<CultureUserCountProjection> countUsersByCulture(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
 
     /**
-     * Count users with HIGH mood today.
+     * Users who were assigned a challenge themselves or completed one in a time range.
+     * Pre-assigned rows only count once completed.
      *
-     * @param start start of today (00:00:00)
-     * @param end end of today (23:59:59)
-     * @return number of users with HIGH mood
+     * @param start start of the range, inclusive
+     * @param end end of the range, exclusive
      */
-    @Query("SELECT COUNT(uc) FROM UserChallenge uc " +
-           "WHERE uc.mood = 'HIGH' " +
-           "AND uc.startTime BETWEEN :start AND :end")
-    long countHighMoodToday(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    @Query("SELECT DISTINCT uc.user.id FROM UserChallenge uc " +
+           "WHERE (uc.startTime >= :start AND uc.startTime < :end AND uc.preassigned = false) " +
+           "OR (uc.completionTime >= :start AND uc.completionTime < :end)")
+    List<Long> findActiveUserIdsInRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Challenge counts per day, user culture, mood, challenge energy level, category and status,
+     * in one grouped scan of a time range.
+     *
+     * @param start start of the first day, inclusive
+     * @param end start of the day after the last one, exclusive
+     */
+    @Query("SELECT extract(date from uc.startTime) AS day, u.country AS culture, uc.mood AS mood, " +
+           "c.energyLevel AS energyLevel, c.category AS category, uc.status AS status, COUNT(uc.id) AS challenges " +
+           "FROM UserChallenge uc JOIN uc.user u JOIN uc.challenge c " +
+           "WHERE uc.startTime >= :start AND uc.startTime < :end AND uc.preassigned = false " +
+           "GROUP BY extract(date from uc.startTime), u.country, uc.mood, c.energyLevel, c.category, uc.status")
+    List<ActivityCubeProjection> aggregateActivityCube(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
+
+    /**
+     * A user's completion streaks, computed in the database as gaps and islands: consecutive completion
+     * days share the same (day number - row number), so each group is one streak. Only the most recent
+     * streak is returned, together with the longest one, so the result size does not grow with history.
+     * Completed rows with neither a completion nor a start time have no day and are skipped.
+     *
+     * @param userId the ID of the user
+     * @param epoch any fixed day, used to number days
+     * @param pageable use the first page of size 1
+     */
+    @Query("SELECT s.lastDay AS lastDay, s.days AS days, MAX(s.days) OVER () AS longest FROM (" +
+           "SELECT MAX(d.completedOn) AS lastDay, COUNT(*) AS days FROM (" +
+           "SELECT cd.completedOn AS completedOn, " +
+           "(cd.completedOn - :epoch) BY DAY - ROW_NUMBER() OVER (ORDER BY cd.completedOn) AS island " +
+           "FROM (SELECT DISTINCT CAST(COALESCE(uc.completionTime, uc.startTime) AS LocalDate) AS completedOn " +
+           "FROM UserChallenge uc " +
+           "WHERE uc.user.id = :userId AND uc.status = 'COMPLETED' " +
+           "AND COALESCE(uc.completionTime, uc.startTime) IS NOT NULL) cd" +
+           ") d GROUP BY d.island" +
+           ") s ORDER BY s.lastDay DESC NULLS LAST")
+    List<CompletionStreakProjection> findLatestCompletionStreak(
+            @Param("userId") Long userId,
+            @Param("epoch") LocalDate epoch,
+            Pageable pageable
+    );
+
+    @Query("SELECT MIN(uc.startTime) FROM UserChallenge uc")
+    Optional<LocalDateTime> findEarliestStartTime();
 
     /**
      * Delete all pending (ASSIGNED status) challenges for a specific user.
@@ -305,6 +555,45 @@ public interface UserChallengeRepository extends JpaRepository<UserChallenge, Lo
             @Param("status") CompletionStatus status
     );
 
+    /**
+     * Whether the user has any row counted by the pulse, that is not an untouched pre-assigned row,
+     * whose start time falls in [start, end).
+     *
+     * @param userId the ID of the user
+     * @param start inclusive lower bound
+     * @param end exclusive upper bound
+     * @return true if at least one row exists
+     */
+    @Query("SELECT COUNT(uc) > 0 FROM UserChallenge uc WHERE uc.user.id = :userId " +
+           "AND uc.startTime >= :start AND uc.startTime < :end AND uc.preassigned = false")
+    boolean existsCountedByUser_IdAndStartTimeInRange(
+            @Param("userId") Long userId,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
+
+    /**
+     * Find a user/challenge pair with a specific status whose start time falls in [start, end).
+     *
+     * @param userId the ID of the user
+     * @param challengeId the ID of the challenge
+     * @param start inclusive lower bound (typically today's start)
+     * @param end exclusive upper bound (typically tomorrow's start)
+     * @param status the target status
+     * @return matching UserChallenge if exists
+     */
+    @Query("SELECT uc FROM UserChallenge uc WHERE uc.user.id = :userId " +
+           "AND uc.challenge.id = :challengeId " +
+           "AND uc.startTime >= :start AND uc.startTime < :end " +
+           "AND uc.status = :status")
+    Optional<UserChallenge> findByUser_IdAndChallenge_IdAndStartTimeInRangeAndStatus(
+            @Param("userId") Long userId,
+            @Param("challengeId") Long challengeId,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("status") CompletionStatus status
+    );
+
     @Query("SELECT uc.completionTime FROM UserChallenge uc " +
            "WHERE uc.user.id = :userId " +
            "AND uc.status = 'COMPLETED' " +
@@ -0,0 +1,25 @@
+package com.divyam.advent.repository;
+
+import com.divyam.advent.model.UserChallengeSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserChallengeSummaryRepository extends JpaRepository<UserChallengeSummary, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserChallengeSummary s WHERE s.userId = :userId")
+    Optional<UserChallengeSummary> findByUserIdForUpdate(@Param("userId") Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserChallengeSummary s WHERE s.userId IN :userIds")
+    List<UserChallengeSummary> findByUserIdInForUpdate(@Param("userIds") Collection<Long> userIds);
+}
@@ -1,17 +1,27 @@
 package com.divyam.advent.repository;
 
+import com.divyam.advent.enums.Culture;
 import com.divyam.advent.model.User;
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    interface UserCultureProjection {
+        Long getId();
+
+        Culture getCountry();
+    }
+
     Optional<User> findByEmailIgnoreCase(String email);
 
     Optional<User> findByAuthProviderAndAuthSubject(String authProvider, String authSubject);
@@ -19,4 +29,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT u FROM User u WHERE u.id = :id")
     Optional<User> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT u.id AS id, u.country AS country FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserCultureProjection> findCulturesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<User> findByStreakNeedsRepairTrueOrderByIdAsc(Pageable pageable);
 }
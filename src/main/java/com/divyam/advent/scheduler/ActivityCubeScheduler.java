@@ -0,0 +1,34 @@
+package com.divyam.advent.scheduler;
+
+import com.divyam.advent.service.ActivityCubeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Component
+public class ActivityCubeScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityCubeScheduler.class);
+
+    private final ActivityCubeService activityCubeService;
+
+    public ActivityCubeScheduler(ActivityCubeService activityCubeService) {
+        this.activityCubeService = activityCubeService;
+    }
+
+    /**
+     * Build the activity cube through yesterday once the day is over.
+     */
+    @Scheduled(cron = "${challenge.analytics.cube-cron:0 30 0 * * *}")
+    public void buildActivityCube() {
+        try {
+            int cells = activityCubeService.buildThrough(LocalDate.now().minusDays(1));
+            logger.info("Activity cube built through yesterday: {} cells written", cells);
+        } catch (RuntimeException exception) {
+            logger.error("Building the activity cube failed", exception);
+        }
+    }
+}
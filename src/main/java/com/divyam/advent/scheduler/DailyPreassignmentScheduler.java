@@ -0,0 +1,35 @@
+package com.divyam.advent.scheduler;
+
+import com.divyam.advent.service.DailyPreassignmentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Component
+public class DailyPreassignmentScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyPreassignmentScheduler.class);
+
+    private final DailyPreassignmentService dailyPreassignmentService;
+
+    public DailyPreassignmentScheduler(DailyPreassignmentService dailyPreassignmentService) {
+        this.dailyPreassignmentService = dailyPreassignmentService;
+    }
+
+    /**
+     * Pre-assign tomorrow's default challenges before midnight so the morning rush only reads.
+     * Set challenge.preassign.cron to "-" to disable.
+     */
+    @Scheduled(cron = "${challenge.preassign.cron:0 30 23 * * *}")
+    public void preassignTomorrow() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        try {
+            dailyPreassignmentService.preassign(tomorrow);
+        } catch (RuntimeException exception) {
+            logger.error("Daily pre-assignment for {} failed", tomorrow, exception);
+        }
+    }
+}
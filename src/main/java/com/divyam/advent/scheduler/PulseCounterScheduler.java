@@ -0,0 +1,85 @@
+package com.divyam.advent.scheduler;
+
+import com.divyam.advent.service.ActiveUserSketchService;
+import com.divyam.advent.service.PulseActivityService;
+import com.divyam.advent.service.PulseCounterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Component
+public class PulseCounterScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PulseCounterScheduler.class);
+
+    private final PulseCounterService pulseCounterService;
+    private final PulseActivityService pulseActivityService;
+    private final ActiveUserSketchService activeUserSketchService;
+
+    public PulseCounterScheduler(
+            PulseCounterService pulseCounterService,
+            PulseActivityService pulseActivityService,
+            ActiveUserSketchService activeUserSketchService
+    ) {
+        this.pulseCounterService = pulseCounterService;
+        this.pulseActivityService = pulseActivityService;
+        this.activeUserSketchService = activeUserSketchService;
+    }
+
+    /**
+     * Push this node's pulse counter deltas, hourly activity and active user sketches to the database.
+     */
+    @Scheduled(fixedDelayString = "${challenge.pulse.flush-interval-ms:5000}")
+    public void flushCounters() {
+        try {
+            pulseCounterService.flush();
+        } catch (RuntimeException exception) {
+            logger.error("Flushing pulse counters failed", exception);
+        }
+        try {
+            pulseActivityService.flush();
+        } catch (RuntimeException exception) {
+            logger.error("Flushing hourly pulse activity failed", exception);
+        }
+        try {
+            activeUserSketchService.flush();
+        } catch (RuntimeException exception) {
+            logger.error("Flushing active user sketches failed", exception);
+        }
+    }
+
+    /**
+     * Recount today and yesterday from user_challenges to correct any drift.
+     * Yesterday is included so changes made around midnight are settled.
+     */
+    @Scheduled(cron = "${challenge.pulse.reconcile-cron:0 */10 * * * *}")
+    public void reconcileCounters() {
+        LocalDate today = LocalDate.now();
+        for (LocalDate day : new LocalDate[]{today.minusDays(1), today}) {
+            try {
+                pulseCounterService.reconcile(day);
+            } catch (RuntimeException exception) {
+                logger.error("Reconciling pulse counters for {} failed", day, exception);
+            }
+        }
+    }
+
+    /**
+     * Freeze every finished day into the pulse history. Runs after midnight so yesterday is complete;
+     * days missed while the job was down are caught up on the next run.
+     */
+    @Scheduled(cron = "${challenge.pulse.rollup-cron:0 15 0 * * *}")
+    public void rollUpFinishedDays() {
+        try {
+            int frozen = pulseCounterService.freezeThrough(LocalDate.now().minusDays(1));
+            if (frozen > 0) {
+                logger.info("Froze {} days of pulse history", frozen);
+            }
+        } catch (RuntimeException exception) {
+            logger.error("Rolling up pulse history failed", exception);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.divyam.advent.scheduler;
+
+import com.divyam.advent.service.StreakService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StreakRepairScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreakRepairScheduler.class);
+
+    private final StreakService streakService;
+
+    public StreakRepairScheduler(StreakService streakService) {
+        this.streakService = streakService;
+    }
+
+    /**
+     * Rebuild the streaks of users flagged as out of date from their completion history.
+     * A flagged user's next completion rebuilds them too. Profile reads only compute their streaks from history
+     * and store nothing, so this is what repairs users who do not complete anything.
+     */
+    @Scheduled(cron = "${challenge.streak.repair-cron:0 45 0 * * *}")
+    public void repairStreaks() {
+        try {
+            int repaired = streakService.repairFlagged();
+            if (repaired > 0) {
+                logger.info("Rebuilt streaks for {} users", repaired);
+            }
+        } catch (RuntimeException exception) {
+            logger.error("Rebuilding streaks failed", exception);
+        }
+    }
+}
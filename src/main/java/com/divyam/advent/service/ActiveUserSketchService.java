@@ -0,0 +1,153 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.model.ActiveUserSketch;
+import com.divyam.advent.repository.ActiveUserSketchRepository;
+import com.divyam.advent.repository.UserChallengeRepository;
+import com.divyam.advent.util.HyperLogLog;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-day HyperLogLog sketches of active users, for daily, weekly and monthly active user counts.
+ *
+ * A user is active on a day when they are assigned a challenge themselves or complete one. Each node
+ * collects the ids it sees into in-memory sketches and {@link #flush()} merges them into the day's
+ * active_user_sketches row. A day without a row is first built from user_challenges. Merging is
+ * idempotent, so rebuilt days, retries and several nodes never count a user twice.
+ */
+@Service
+public class ActiveUserSketchService {
+
+    static final int MAX_WINDOW_DAYS = 366;
+
+    private final ActiveUserSketchRepository sketchRepository;
+    private final UserChallengeRepository userChallengeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<LocalDate, HyperLogLog> pending = new HashMap<>();
+
+    public ActiveUserSketchService(
+            ActiveUserSketchRepository sketchRepository,
+            UserChallengeRepository userChallengeRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.sketchRepository = sketchRepository;
+        this.userChallengeRepository = userChallengeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Count a user as active on a day. Callers report committed activity only.
+     */
+    public synchronized void userActive(Long userId, LocalDate day) {
+        if (userId == null || day == null) {
+            return;
+        }
+        pending.computeIfAbsent(day, ignored -> new HyperLogLog()).add(userId);
+    }
+
+    /**
+     * Merge the sketches collected on this node into the stored ones.
+     */
+    public void flush() {
+        Map<LocalDate, HyperLogLog> drained;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            drained = new HashMap<>(pending);
+            pending.clear();
+        }
+
+        drained.forEach(this::store);
+    }
+
+    /**
+     * Sketch of each day in a range, oldest first, including activity on this node that is not flushed yet.
+     * Days up to today without a stored sketch are built from user_challenges and stored once.
+     */
+    public List<HyperLogLog> sketches(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Active user window must not exceed " + MAX_WINDOW_DAYS + " days");
+        }
+
+        Map<LocalDate, HyperLogLog> stored = new HashMap<>();
+        for (ActiveUserSketch sketch : sketchRepository.findByDayBetween(from, to)) {
+            stored.put(sketch.getDay(), HyperLogLog.fromBytes(sketch.getRegisters()));
+        }
+
+        LocalDate today = LocalDate.now();
+        List<HyperLogLog> sketches = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            HyperLogLog sketch = stored.get(day);
+            if (sketch == null) {
+                sketch = day.isAfter(today) ? new HyperLogLog() : store(day, new HyperLogLog());
+            }
+            synchronized (this) {
+                HyperLogLog unflushed = pending.get(day);
+                if (unflushed != null) {
+                    sketch.merge(unflushed);
+                }
+            }
+            sketches.add(sketch);
+        }
+        return sketches;
+    }
+
+    /**
+     * Estimated distinct active users over a range of days, both ends inclusive.
+     */
+    public long estimate(LocalDate from, LocalDate to) {
+        return union(sketches(from, to)).estimate();
+    }
+
+    public static HyperLogLog union(List<HyperLogLog> sketches) {
+        HyperLogLog union = new HyperLogLog();
+        for (HyperLogLog sketch : sketches) {
+            union.merge(sketch);
+        }
+        return union;
+    }
+
+    private HyperLogLog store(LocalDate day, HyperLogLog delta) {
+        try {
+            return mergeIntoStored(day, delta);
+        } catch (DataIntegrityViolationException concurrentInsert) {
+            // Another node created the row first; merge into it instead.
+            return mergeIntoStored(day, delta);
+        }
+    }
+
+    private HyperLogLog mergeIntoStored(LocalDate day, HyperLogLog delta) {
+        return transactionTemplate.execute(status -> {
+            ActiveUserSketch row = sketchRepository.findByDayForUpdate(day).orElse(null);
+            HyperLogLog sketch;
+            if (row != null) {
+                sketch = HyperLogLog.fromBytes(row.getRegisters());
+            } else {
+                sketch = new HyperLogLog();
+                for (Long userId : userChallengeRepository.findActiveUserIdsInRange(
+                        day.atStartOfDay(), day.plusDays(1).atStartOfDay())) {
+                    sketch.add(userId);
+                }
+                row = new ActiveUserSketch(day, null);
+            }
+            sketch.merge(delta);
+            row.setRegisters(sketch.toBytes());
+            sketchRepository.saveAndFlush(row);
+            return sketch;
+        });
+    }
+}
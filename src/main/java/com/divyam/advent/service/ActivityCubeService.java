@@ -0,0 +1,173 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.dto.ActivityCubeQueryRequest;
+import com.divyam.advent.dto.ActivityCubeSliceDto;
+import com.divyam.advent.enums.CubeDimension;
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.model.ActivityCubeBuild;
+import com.divyam.advent.model.ActivityCubeCell;
+import com.divyam.advent.repository.ActivityCubeBuildRepository;
+import com.divyam.advent.repository.ActivityCubeRepository;
+import com.divyam.advent.repository.UserChallengeRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Builds the activity cube from user_challenges and answers slice-and-dice queries from it.
+ *
+ * Each build replaces the cells of a range of days with one grouped scan. Days are rebuilt for a week
+ * after they end, because completing an older challenge changes the day it started on.
+ * Queries filter and group in the database and only read back the result rows.
+ */
+@Service
+public class ActivityCubeService {
+
+    static final int REBUILT_TRAILING_DAYS = 7;
+    static final int MAX_QUERY_DAYS = 366;
+
+    private final ActivityCubeRepository cubeRepository;
+    private final ActivityCubeBuildRepository buildRepository;
+    private final UserChallengeRepository userChallengeRepository;
+    private final TransactionTemplate newTransaction;
+
+    public ActivityCubeService(
+            ActivityCubeRepository cubeRepository,
+            ActivityCubeBuildRepository buildRepository,
+            UserChallengeRepository userChallengeRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.cubeRepository = cubeRepository;
+        this.buildRepository = buildRepository;
+        this.userChallengeRepository = userChallengeRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Build every day after the last built one, and rebuild the week before lastDay, up to and including lastDay.
+     * The first build covers the whole history of user_challenges.
+     *
+     * Builds hold the lock on the marker row until they commit, so nodes running the schedule at the same time
+     * take turns, and the ones that waited find the cube already built through lastDay.
+     * @param lastDay the last day to build, normally yesterday
+     * @return number of cells written, 0 when another build already covered lastDay
+     */
+    @Transactional
+    public int buildThrough(LocalDate lastDay) {
+        ActivityCubeBuild build = lockBuild();
+        if (build.getBuiltThrough() != null && !build.getBuiltThrough().isBefore(lastDay)) {
+            return 0;
+        }
+
+        LocalDate trailingStart = lastDay.minusDays(REBUILT_TRAILING_DAYS - 1);
+        Optional<LocalDate> firstDay = cubeRepository.findLastBuiltDay()
+                .map(built -> built.plusDays(1))
+                .or(() -> userChallengeRepository.findEarliestStartTime().map(LocalDateTime::toLocalDate))
+                .map(day -> day.isBefore(trailingStart) ? day : trailingStart);
+        int written = 0;
+        if (firstDay.isPresent()) {
+            cubeRepository.deleteByDayBetween(firstDay.get(), lastDay);
+            List<ActivityCubeCell> cells = new ArrayList<>();
+            for (UserChallengeRepository.ActivityCubeProjection cell : userChallengeRepository.aggregateActivityCube(
+                    firstDay.get().atStartOfDay(), lastDay.plusDays(1).atStartOfDay())) {
+                cells.add(new ActivityCubeCell(
+                        cell.getDay(),
+                        cell.getCulture() != null ? cell.getCulture() : Culture.GLOBAL,
+                        cell.getMood(),
+                        cell.getEnergyLevel(),
+                        cell.getCategory(),
+                        cell.getStatus(),
+                        cell.getChallenges()
+                ));
+            }
+            cubeRepository.saveAll(cells);
+            written = cells.size();
+        }
+
+        build.setBuiltThrough(lastDay);
+        build.setBuiltAt(LocalDateTime.now());
+        buildRepository.save(build);
+        return written;
+    }
+
+    /**
+     * Filter the cube to a slice and sum it up over every dimension not in groupBy.
+     */
+    @Transactional(readOnly = true)
+    public ActivityCubeSliceDto query(ActivityCubeQueryRequest request) {
+        LocalDate from = request.getFrom();
+        LocalDate to = request.getTo();
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from and to are required");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_QUERY_DAYS) {
+            throw new IllegalArgumentException("Cube queries must not exceed " + MAX_QUERY_DAYS + " days");
+        }
+        List<CubeDimension> groupBy = request.getGroupBy() != null
+                ? request.getGroupBy().stream().distinct().toList()
+                : List.of();
+
+        List<ActivityCubeSliceDto.Row> rows = new ArrayList<>();
+        for (ActivityCubeRepository.SliceTotal total : cubeRepository.sumSlice(
+                from,
+                to,
+                request.getCultures(),
+                request.getMoods(),
+                request.getEnergyLevels(),
+                request.getCategories(),
+                request.getStatuses(),
+                groupBy
+        )) {
+            Map<CubeDimension, String> labels = new LinkedHashMap<>();
+            for (int i = 0; i < groupBy.size(); i++) {
+                Object value = total.key().get(i);
+                labels.put(groupBy.get(i), value != null ? value.toString() : "NONE");
+            }
+            rows.add(new ActivityCubeSliceDto.Row(
+                    labels,
+                    total.challenges(),
+                    total.completed(),
+                    total.challenges() > 0 ? total.completed() * 100.0 / total.challenges() : 0.0
+            ));
+        }
+        rows.sort(Comparator.comparingLong(ActivityCubeSliceDto.Row::challenges).reversed()
+                .thenComparing(row -> row.key().values().toString()));
+
+        return new ActivityCubeSliceDto(from, to, groupBy, cubeRepository.findLastBuiltDay().orElse(null), rows);
+    }
+
+    /**
+     * Lock the build marker, creating it first if this database has never built the cube.
+     */
+    private ActivityCubeBuild lockBuild() {
+        Optional<ActivityCubeBuild> build = buildRepository.findByIdForUpdate(ActivityCubeBuild.MARKER_ID);
+        if (build.isPresent()) {
+            return build.get();
+        }
+        try {
+            newTransaction.executeWithoutResult(status ->
+                    buildRepository.saveAndFlush(new ActivityCubeBuild(ActivityCubeBuild.MARKER_ID)));
+        } catch (DataIntegrityViolationException concurrentInsert) {
+            // Another node created the marker first.
+        }
+        return buildRepository.findByIdForUpdate(ActivityCubeBuild.MARKER_ID)
+                .orElseThrow(() -> new IllegalStateException("Activity cube build marker is missing"));
+    }
+}
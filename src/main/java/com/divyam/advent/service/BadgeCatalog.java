@@ -0,0 +1,115 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.repository.BadgeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.function.LongSupplier;
+
+/**
+ * The badge catalog, compiled into a {@link BadgeRuleTable} on first use and swapped atomically
+ * whenever the catalog changes. Badge evaluation reads it without touching the badges table.
+ *
+ * The node that changes a badge recompiles right after commit. Every other node notices the change by probing
+ * the badge count and latest update time once the check interval has passed, and recompiles then.
+ */
+@Component
+public class BadgeCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(BadgeCatalog.class);
+
+    private record Version(long badges, LocalDateTime lastUpdatedAt) {
+    }
+
+    private record Loaded(BadgeRuleTable table, Version version, long checkedAtNanos) {
+    }
+
+    private final BadgeRepository badgeRepository;
+    private final long checkEveryNanos;
+    private final LongSupplier nanoClock;
+    private volatile Loaded loaded;
+
+    @Autowired
+    public BadgeCatalog(
+            BadgeRepository badgeRepository,
+            @Value("${challenge.badges.catalog-check-ms:30000}") long checkEveryMillis
+    ) {
+        this(badgeRepository, checkEveryMillis, System::nanoTime);
+    }
+
+    BadgeCatalog(BadgeRepository badgeRepository, long checkEveryMillis, LongSupplier nanoClock) {
+        if (checkEveryMillis <= 0) {
+            throw new IllegalArgumentException("challenge.badges.catalog-check-ms must be positive");
+        }
+        this.badgeRepository = badgeRepository;
+        this.checkEveryNanos = checkEveryMillis * 1_000_000L;
+        this.nanoClock = nanoClock;
+    }
+
+    public BadgeRuleTable table() {
+        Loaded current = loaded;
+        if (current != null && !isDue(current)) {
+            return current.table();
+        }
+
+        synchronized (this) {
+            current = loaded;
+            if (current == null) {
+                loaded = load();
+            } else if (isDue(current)) {
+                Version version = probe();
+                loaded = version.equals(current.version())
+                        ? new Loaded(current.table(), version, nanoClock.getAsLong())
+                        : load();
+            }
+            return loaded.table();
+        }
+    }
+
+    /**
+     * Recompile the catalog from the database.
+     * When called inside a transaction the rebuild is deferred until after commit,
+     * so evaluations never use badges that could still be rolled back.
+     */
+    public void rebuild() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+            return;
+        }
+        reload();
+    }
+
+    private boolean isDue(Loaded current) {
+        return nanoClock.getAsLong() - current.checkedAtNanos() >= checkEveryNanos;
+    }
+
+    private synchronized void reload() {
+        loaded = load();
+    }
+
+    /**
+     * Probe before reading, so a change that lands in between is picked up by the next check.
+     */
+    private Loaded load() {
+        Version version = probe();
+        BadgeRuleTable table = BadgeRuleTable.compile(badgeRepository.findAllByOrderByTitleAsc());
+        log.info("Loaded badge catalog: {} badges", table.badges().size());
+        return new Loaded(table, version, nanoClock.getAsLong());
+    }
+
+    private Version probe() {
+        BadgeRepository.CatalogVersionProjection version = badgeRepository.findCatalogVersion();
+        return new Version(version.getBadges(), version.getLastUpdatedAt());
+    }
+}
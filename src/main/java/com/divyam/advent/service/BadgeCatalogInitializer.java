@@ -10,9 +10,11 @@ import org.springframework.transaction.annotation.Transactional;
 public class BadgeCatalogInitializer {
 
     private final BadgeRepository badgeRepository;
+    private final BadgeCatalog badgeCatalog;
 
-    public BadgeCatalogInitializer(BadgeRepository badgeRepository) {
+    public BadgeCatalogInitializer(BadgeRepository badgeRepository, BadgeCatalog badgeCatalog) {
         this.badgeRepository = badgeRepository;
+        this.badgeCatalog = badgeCatalog;
     }
 
     @PostConstruct
@@ -53,6 +55,7 @@ public class BadgeCatalogInitializer {
                 "crown",
                 "STREAK_DAYS:30"
         );
+        badgeCatalog.rebuild();
     }
 
     private void seedBadge(String id, String title, String description, String icon, String criteria) {
@@ -0,0 +1,146 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.enums.BadgeMetric;
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.model.Badge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable badge catalog with each badge's criteria compiled into a typed threshold once, when the
+ * catalog is loaded. Evaluating a user compares numbers and never parses criteria strings.
+ * Badges whose criteria cannot be compiled are listed but never unlocked.
+ */
+public final class BadgeRuleTable {
+
+    private static final Logger log = LoggerFactory.getLogger(BadgeRuleTable.class);
+
+    /**
+     * A user's figures that badge rules compare against.
+     */
+    public record Progress(
+            long completedChallenges,
+            int currentStreak,
+            int longestStreak,
+            Map<ChallengeCategory, Long> completedByCategory
+    ) {
+
+        long valueOf(BadgeMetric metric, ChallengeCategory category) {
+            return switch (metric) {
+                case STREAK_DAYS -> currentStreak;
+                case LONGEST_STREAK_DAYS -> longestStreak;
+                case COMPLETED_CHALLENGES -> completedChallenges;
+                case CATEGORY_COMPLETED -> completedByCategory.getOrDefault(category, 0L);
+            };
+        }
+    }
+
+    /**
+     * @param category the category counted, for per-category metrics only
+     */
+    public record Rule(BadgeMetric metric, ChallengeCategory category, long threshold) {
+
+        boolean isMetBy(Progress progress) {
+            return progress.valueOf(metric, category) >= threshold;
+        }
+    }
+
+    private record CompiledBadge(Badge badge, Rule rule) {
+    }
+
+    private final List<Badge> badges;
+    private final List<CompiledBadge> compiled;
+    private final boolean usesCategoryCounts;
+
+    private BadgeRuleTable(List<Badge> badges, List<CompiledBadge> compiled) {
+        this.badges = List.copyOf(badges);
+        this.compiled = List.copyOf(compiled);
+        this.usesCategoryCounts = compiled.stream().anyMatch(entry -> entry.rule().metric().isPerCategory());
+    }
+
+    /**
+     * Compile a catalog, keeping its order.
+     */
+    public static BadgeRuleTable compile(List<Badge> badges) {
+        List<CompiledBadge> compiled = new ArrayList<>();
+        for (Badge badge : badges) {
+            try {
+                compiled.add(new CompiledBadge(badge, compileCriteria(badge.getCriteria())));
+            } catch (IllegalArgumentException exception) {
+                log.warn("Badge {} will never unlock: {}", badge.getId(), exception.getMessage());
+            }
+        }
+        return new BadgeRuleTable(badges, compiled);
+    }
+
+    /**
+     * Compile one criteria string such as "STREAK_DAYS:7" or "CATEGORY_COMPLETED:EXPLORE_CITY:5".
+     *
+     * @throws IllegalArgumentException if the criteria are malformed or name an unknown metric or category
+     */
+    public static Rule compileCriteria(String criteria) {
+        if (criteria == null || criteria.isBlank()) {
+            throw new IllegalArgumentException("Badge criteria are required");
+        }
+
+        String[] parts = criteria.trim().split(":");
+        BadgeMetric metric = parseEnum(BadgeMetric.class, parts[0], criteria);
+        int expectedParts = metric.isPerCategory() ? 3 : 2;
+        if (parts.length != expectedParts) {
+            throw new IllegalArgumentException("Badge criteria must look like "
+                    + (metric.isPerCategory() ? metric + ":CATEGORY:threshold" : metric + ":threshold") + ": " + criteria);
+        }
+
+        ChallengeCategory category = metric.isPerCategory()
+                ? parseEnum(ChallengeCategory.class, parts[1], criteria)
+                : null;
+        long threshold;
+        try {
+            threshold = Long.parseLong(parts[parts.length - 1].trim());
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException("Badge criteria threshold must be a number: " + criteria);
+        }
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Badge criteria threshold must not be negative: " + criteria);
+        }
+        return new Rule(metric, category, threshold);
+    }
+
+    public List<Badge> badges() {
+        return badges;
+    }
+
+    /**
+     * Whether any rule needs per-category completion counts, so callers can skip that query otherwise.
+     */
+    public boolean usesCategoryCounts() {
+        return usesCategoryCounts;
+    }
+
+    /**
+     * Badges not in earnedBadgeIds whose rule the progress meets, in catalog order.
+     */
+    public List<Badge> newlyMet(Progress progress, Set<String> earnedBadgeIds) {
+        List<Badge> met = new ArrayList<>();
+        for (CompiledBadge entry : compiled) {
+            if (!earnedBadgeIds.contains(entry.badge().getId()) && entry.rule().isMetBy(progress)) {
+                met.add(entry.badge());
+            }
+        }
+        return met;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String criteria) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " in badge criteria: " + criteria);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.divyam.advent.service;
 
+import com.divyam.advent.dto.BadgeUpsertRequest;
+import com.divyam.advent.enums.ChallengeCategory;
 import com.divyam.advent.enums.CompletionStatus;
 import com.divyam.advent.enums.ThemePreference;
+import com.divyam.advent.exception.ResourceNotFoundException;
 import com.divyam.advent.model.Badge;
 import com.divyam.advent.model.User;
 import com.divyam.advent.repository.BadgeRepository;
@@ -11,10 +14,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -23,60 +26,95 @@ import java.util.stream.Collectors;
 public class BadgeService {
 
     private static final long POINTS_PER_COMPLETED_CHALLENGE = 10L;
-    private static final String CRITERIA_STREAK_DAYS = "STREAK_DAYS";
-    private static final String CRITERIA_COMPLETED_CHALLENGES = "COMPLETED_CHALLENGES";
-
     private final BadgeRepository badgeRepository;
+    private final BadgeCatalog badgeCatalog;
     private final UserRepository userRepository;
     private final UserChallengeRepository userChallengeRepository;
+    private final StreakService streakService;
 
     public BadgeService(
             BadgeRepository badgeRepository,
+            BadgeCatalog badgeCatalog,
             UserRepository userRepository,
-            UserChallengeRepository userChallengeRepository
+            UserChallengeRepository userChallengeRepository,
+            StreakService streakService
     ) {
         this.badgeRepository = badgeRepository;
+        this.badgeCatalog = badgeCatalog;
         this.userRepository = userRepository;
         this.userChallengeRepository = userChallengeRepository;
+        this.streakService = streakService;
     }
 
     public List<Badge> getAllBadges() {
-        return badgeRepository.findAllByOrderByTitleAsc();
+        return badgeCatalog.table().badges();
     }
 
+    /**
+     * Create or replace a badge and recompile the catalog once the change commits.
+     * @throws IllegalArgumentException if the criteria do not compile
+     */
     @Transactional
-    public List<Badge> evaluateAndAssignBadges(User user) {
-        if (user == null || user.getId() == null) {
-            throw new IllegalArgumentException("Valid user is required for badge evaluation");
+    public Badge upsertBadge(String id, BadgeUpsertRequest request) {
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("Badge id is required");
         }
+        BadgeRuleTable.compileCriteria(request.getCriteria());
+
+        Badge badge = badgeRepository.findById(id).orElseGet(Badge::new);
+        badge.setId(id);
+        badge.setTitle(request.getTitle().trim());
+        badge.setDescription(request.getDescription().trim());
+        badge.setIcon(request.getIcon().trim());
+        badge.setCriteria(request.getCriteria().trim());
+        Badge saved = badgeRepository.save(badge);
+        badgeCatalog.rebuild();
+        return saved;
+    }
+
+    /**
+     * Advance the user's streak for a completion on the given day, then evaluate badges.
+     * The user is re-read under a row lock, so concurrent completions, withdrawals and profile edits
+     * never overwrite each other's changes.
+     */
+    @Transactional
+    public List<Badge> recordCompletion(User user, LocalDate day) {
+        User locked = lockUser(user);
+        boolean streakChanged = streakService.recordCompletion(locked, day);
+        return evaluate(locked, streakChanged);
+    }
+
+    /**
+     * Flag the user's streak for a rebuild after a completion is withdrawn, and recount their points.
+     * Earned badges are kept. Like {@link #recordCompletion}, this works on the locked user row.
+     */
+    @Transactional
+    public void invalidateStreak(User user) {
+        User locked = lockUser(user);
+        streakService.invalidate(locked);
+        locked.setTotalPoints(pointsFor(countCompleted(locked)));
+        userRepository.save(locked);
+    }
 
-        long completedChallenges = userChallengeRepository.countByUser_IdAndStatus(
-                user.getId(),
-                CompletionStatus.COMPLETED
+    private List<Badge> evaluate(User user, boolean streakChanged) {
+        boolean changed = streakService.refresh(user, LocalDate.now()) || streakChanged;
+
+        long completedChallenges = countCompleted(user);
+        long totalPoints = pointsFor(completedChallenges);
+
+        BadgeRuleTable rules = badgeCatalog.table();
+        BadgeRuleTable.Progress progress = new BadgeRuleTable.Progress(
+                completedChallenges,
+                user.getStreak() != null ? user.getStreak() : 0,
+                user.getLongestStreak() != null ? user.getLongestStreak() : 0,
+                rules.usesCategoryCounts() ? completedByCategory(user.getId()) : Map.of()
         );
-        int currentStreak = calculateCurrentStreak(user.getId());
-        long totalPoints = completedChallenges * POINTS_PER_COMPLETED_CHALLENGE;
 
         Set<String> existingBadgeIds = user.getBadges() != null
                 ? new LinkedHashSet<>(user.getBadges())
                 : new LinkedHashSet<>();
-        List<Badge> catalog = getAllBadges();
-        List<Badge> newlyUnlocked = new ArrayList<>();
-
-        for (Badge badge : catalog) {
-            if (!existingBadgeIds.contains(badge.getId())
-                    && doesUserMeetCriteria(badge.getCriteria(), completedChallenges, currentStreak)) {
-                existingBadgeIds.add(badge.getId());
-                newlyUnlocked.add(badge);
-            }
-        }
-
-        boolean changed = false;
-
-        if (!Objects.equals(user.getStreak(), currentStreak)) {
-            user.setStreak(currentStreak);
-            changed = true;
-        }
+        List<Badge> newlyUnlocked = rules.newlyMet(progress, existingBadgeIds);
+        newlyUnlocked.forEach(badge -> existingBadgeIds.add(badge.getId()));
 
         if (!Objects.equals(user.getTotalPoints(), totalPoints)) {
             user.setTotalPoints(totalPoints);
@@ -100,70 +138,28 @@ public class BadgeService {
         return newlyUnlocked;
     }
 
-    private int calculateCurrentStreak(Long userId) {
-        List<LocalDate> completionDates = userChallengeRepository.findCompletionTimesDesc(userId).stream()
-                .map(LocalDateTime::toLocalDate)
-                .distinct()
-                .collect(Collectors.toList());
-        if (completionDates.isEmpty()) {
-            return 0;
-        }
-
-        LocalDate today = LocalDate.now();
-        LocalDate latestCompletionDate = completionDates.get(0);
-
-        if (latestCompletionDate.isBefore(today.minusDays(1))) {
-            return 0;
-        }
-
-        int streak = 0;
-        LocalDate expectedDate = latestCompletionDate;
-
-        for (LocalDate completionDate : completionDates) {
-            if (completionDate.equals(expectedDate)) {
-                streak++;
-                expectedDate = expectedDate.minusDays(1);
-            } else if (completionDate.isBefore(expectedDate)) {
-                break;
-            }
-        }
-
-        return streak;
+    private long countCompleted(User user) {
+        return userChallengeRepository.countByUser_IdAndStatus(user.getId(), CompletionStatus.COMPLETED);
     }
 
-    private boolean doesUserMeetCriteria(String criteria, long completedChallenges, int currentStreak) {
-        CriteriaRule rule = parseCriteria(criteria);
-        if (rule == null) {
-            return false;
-        }
-
-        return switch (rule.metric()) {
-            case CRITERIA_STREAK_DAYS -> currentStreak >= rule.threshold();
-            case CRITERIA_COMPLETED_CHALLENGES -> completedChallenges >= rule.threshold();
-            default -> false;
-        };
+    private static long pointsFor(long completedChallenges) {
+        return completedChallenges * POINTS_PER_COMPLETED_CHALLENGE;
     }
 
-    private CriteriaRule parseCriteria(String criteria) {
-        if (criteria == null || criteria.trim().isEmpty()) {
-            return null;
+    private Map<ChallengeCategory, Long> completedByCategory(Long userId) {
+        Map<ChallengeCategory, Long> counts = new EnumMap<>(ChallengeCategory.class);
+        for (UserChallengeRepository.CategoryCountProjection count : userChallengeRepository.countCompletedByCategory(userId)) {
+            counts.put(count.getCategory(), count.getCount());
         }
+        return counts;
+    }
 
-        String[] parts = criteria.trim().split(":");
-        if (parts.length != 2) {
-            return null;
-        }
-
-        String metric = parts[0].trim().toUpperCase();
-        int threshold;
-
-        try {
-            threshold = Integer.parseInt(parts[1].trim());
-        } catch (NumberFormatException ex) {
-            return null;
+    private User lockUser(User user) {
+        if (user == null || user.getId() == null) {
+            throw new IllegalArgumentException("Valid user is required for badge evaluation");
         }
-
-        return new CriteriaRule(metric, threshold);
+        return userRepository.findByIdForUpdate(user.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + user.getId()));
     }
 
     public List<String> getEarnedBadgeIds(User user) {
@@ -175,7 +171,4 @@ public class BadgeService {
                 .sorted()
                 .collect(Collectors.toList());
     }
-
-    private record CriteriaRule(String metric, int threshold) {
-    }
 }
@@ -0,0 +1,269 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.enums.EnergyLevel;
+import com.divyam.advent.model.Challenge;
+import com.divyam.advent.repository.ChallengeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * In-memory, immutable view of the active challenge catalog.
+ * Daily selection reads candidates from here instead of scanning the challenges table per request.
+ * The snapshot is swapped atomically whenever the catalog changes.
+ */
+@Component
+public class ChallengeCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(ChallengeCatalog.class);
+
+    private final ChallengeRepository challengeRepository;
+    private volatile Snapshot snapshot;
+
+    public ChallengeCatalog(ChallengeRepository challengeRepository) {
+        this.challengeRepository = challengeRepository;
+    }
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = load();
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Rebuild the snapshot from the database.
+     * When called inside a transaction the rebuild is deferred until after commit,
+     * so readers never see a catalog that could still be rolled back.
+     */
+    public void rebuild() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+            return;
+        }
+        reload();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    private synchronized void reload() {
+        snapshot = load();
+    }
+
+    private Snapshot load() {
+        Snapshot loaded = Snapshot.of(challengeRepository.findByActiveTrue());
+        log.info(
+                "Loaded challenge catalog {}: {} seeded, {} cycle challenges (source {})",
+                loaded.version,
+                loaded.seededCount,
+                loaded.cycleChallenges.size(),
+                loaded.cycleSourceVersion
+        );
+        return loaded;
+    }
+
+    public static final class Snapshot {
+
+        private static final Comparator<Challenge> BY_ID = Comparator.comparing(
+                Challenge::getId,
+                Comparator.nullsLast(Comparator.naturalOrder())
+        );
+        private static final Comparator<Challenge> BY_CYCLE_DAY = Comparator
+                .comparing(Challenge::getCycleDay, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(BY_ID);
+
+        private final Map<EnergyLevel, Map<Culture, List<Challenge>>> seededByEnergyAndCulture;
+        private final Map<EnergyLevel, List<Challenge>> seededByEnergy;
+        private final Map<EnergyLevel, List<Challenge>> cycleByEnergy;
+        private final List<Challenge> cycleChallenges;
+        private final String cycleSourceVersion;
+        private final Map<Long, Challenge> byId;
+        private final int seededCount;
+        private final String version;
+
+        private Snapshot(
+                Map<EnergyLevel, Map<Culture, List<Challenge>>> seededByEnergyAndCulture,
+                Map<EnergyLevel, List<Challenge>> seededByEnergy,
+                Map<EnergyLevel, List<Challenge>> cycleByEnergy,
+                List<Challenge> cycleChallenges,
+                String cycleSourceVersion,
+                Map<Long, Challenge> byId,
+                int seededCount,
+                String version
+        ) {
+            this.seededByEnergyAndCulture = seededByEnergyAndCulture;
+            this.seededByEnergy = seededByEnergy;
+            this.cycleByEnergy = cycleByEnergy;
+            this.cycleChallenges = cycleChallenges;
+            this.cycleSourceVersion = cycleSourceVersion;
+            this.byId = byId;
+            this.seededCount = seededCount;
+            this.version = version;
+        }
+
+        static Snapshot of(List<Challenge> activeChallenges) {
+            List<Challenge> seeded = new ArrayList<>();
+            Set<String> sourceVersions = new TreeSet<>();
+            Map<Long, Challenge> byId = new HashMap<>();
+
+            for (Challenge challenge : activeChallenges) {
+                if (challenge.getId() != null) {
+                    byId.put(challenge.getId(), challenge);
+                }
+                if (challenge.getSourceVersion() == null) {
+                    seeded.add(challenge);
+                } else {
+                    sourceVersions.add(challenge.getSourceVersion());
+                }
+            }
+            seeded.sort(BY_ID);
+
+            String cycleSourceVersion = null;
+            if (sourceVersions.size() == 1) {
+                cycleSourceVersion = sourceVersions.iterator().next();
+            } else if (sourceVersions.size() > 1) {
+                log.warn("Multiple active challenge cycles found {}. Ignoring cycle fallback", sourceVersions);
+            }
+
+            List<Challenge> cycle = new ArrayList<>();
+            if (cycleSourceVersion != null) {
+                for (Challenge challenge : activeChallenges) {
+                    if (cycleSourceVersion.equals(challenge.getSourceVersion())) {
+                        cycle.add(challenge);
+                    }
+                }
+                cycle.sort(BY_CYCLE_DAY);
+            }
+
+            Map<EnergyLevel, Map<Culture, List<Challenge>>> seededByEnergyAndCulture = new EnumMap<>(EnergyLevel.class);
+            Map<EnergyLevel, List<Challenge>> seededByEnergy = new EnumMap<>(EnergyLevel.class);
+            Map<EnergyLevel, List<Challenge>> cycleByEnergy = new EnumMap<>(EnergyLevel.class);
+
+            for (EnergyLevel energyLevel : EnergyLevel.values()) {
+                List<Challenge> seededForEnergy = seeded.stream()
+                        .filter(challenge -> challenge.getEnergyLevel() == energyLevel)
+                        .toList();
+                seededByEnergy.put(energyLevel, seededForEnergy);
+
+                Map<Culture, List<Challenge>> byCulture = new EnumMap<>(Culture.class);
+                for (Culture culture : Culture.values()) {
+                    byCulture.put(culture, seededForEnergy.stream()
+                            .filter(challenge -> challenge.getCulture() == Culture.GLOBAL
+                                    || challenge.getCulture() == culture)
+                            .toList());
+                }
+                seededByEnergyAndCulture.put(energyLevel, byCulture);
+
+                cycleByEnergy.put(energyLevel, cycle.stream()
+                        .filter(challenge -> challenge.getEnergyLevel() == energyLevel)
+                        .toList());
+            }
+
+            return new Snapshot(
+                    seededByEnergyAndCulture,
+                    seededByEnergy,
+                    cycleByEnergy,
+                    List.copyOf(cycle),
+                    cycleSourceVersion,
+                    Map.copyOf(byId),
+                    seeded.size(),
+                    fingerprint(activeChallenges)
+            );
+        }
+
+        /**
+         * Content hash of every field selection depends on. Identical catalogs produce the same
+         * version on every node, so it can be embedded in tokens that another node validates.
+         */
+        private static String fingerprint(List<Challenge> activeChallenges) {
+            try {
+                MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+                List<Challenge> ordered = new ArrayList<>(activeChallenges);
+                ordered.sort(BY_ID);
+                for (Challenge challenge : ordered) {
+                    String row = challenge.getId() + "|" + challenge.getCategory() + "|" + challenge.getEnergyLevel()
+                            + "|" + challenge.getCulture() + "|" + challenge.getSourceVersion()
+                            + "|" + challenge.getCycleDay() + ";";
+                    sha256.update(row.getBytes(StandardCharsets.UTF_8));
+                }
+                return HexFormat.of().formatHex(sha256.digest(), 0, 8);
+            } catch (NoSuchAlgorithmException exception) {
+                throw new IllegalStateException("SHA-256 is not available", exception);
+            }
+        }
+
+        /**
+         * Seeded (non-cycle) challenges of an energy level that are GLOBAL or match the given culture.
+         */
+        public List<Challenge> seeded(EnergyLevel energyLevel, Culture culture) {
+            Culture effectiveCulture = culture != null ? culture : Culture.GLOBAL;
+            return seededByEnergyAndCulture.get(energyLevel).get(effectiveCulture);
+        }
+
+        /**
+         * All seeded (non-cycle) challenges of an energy level, regardless of culture.
+         */
+        public List<Challenge> seeded(EnergyLevel energyLevel) {
+            return seededByEnergy.get(energyLevel);
+        }
+
+        /**
+         * Challenges of the current PDF cycle with the given energy level, ordered by cycle day.
+         */
+        public List<Challenge> cycle(EnergyLevel energyLevel) {
+            return cycleByEnergy.get(energyLevel);
+        }
+
+        /**
+         * All challenges of the current PDF cycle, ordered by cycle day.
+         */
+        public List<Challenge> cycle() {
+            return cycleChallenges;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public String getCycleSourceVersion() {
+            return cycleSourceVersion;
+        }
+
+        public Challenge findById(Long challengeId) {
+            return challengeId != null ? byId.get(challengeId) : null;
+        }
+    }
+}
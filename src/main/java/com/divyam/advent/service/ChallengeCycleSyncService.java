@@ -24,15 +24,18 @@ public class ChallengeCycleSyncService {
 
     private final PdfChallengeCycleParser pdfChallengeCycleParser;
     private final ChallengeRepository challengeRepository;
+    private final ChallengeCatalog challengeCatalog;
     private final String configuredPdfPath;
 
     public ChallengeCycleSyncService(
             PdfChallengeCycleParser pdfChallengeCycleParser,
             ChallengeRepository challengeRepository,
+            ChallengeCatalog challengeCatalog,
             @Value("${challenge.cycle.pdf-path:../Advent-calendar.pdf}") String configuredPdfPath
     ) {
         this.pdfChallengeCycleParser = pdfChallengeCycleParser;
         this.challengeRepository = challengeRepository;
+        this.challengeCatalog = challengeCatalog;
         this.configuredPdfPath = configuredPdfPath;
     }
 
@@ -57,6 +60,7 @@ public class ChallengeCycleSyncService {
 
             challengeRepository.deactivateChallengesOutsideSourceVersion(parsedCycle.sourceVersion());
             persistCycle(parsedCycle);
+            challengeCatalog.rebuild();
             log.info("Synced {} challenge days from {}", parsedCycle.days().size(), pdfPath);
         } catch (IOException exception) {
             throw new IllegalStateException("Failed to parse challenge PDF: " + pdfPath, exception);
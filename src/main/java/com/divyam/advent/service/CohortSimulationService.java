@@ -0,0 +1,308 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.dto.CohortSimulationRequest;
+import com.divyam.advent.dto.CohortSimulationResultDto;
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.enums.EnergyLevel;
+import com.divyam.advent.enums.Mood;
+import com.divyam.advent.model.Challenge;
+import com.divyam.advent.model.UserChallengeSummary;
+import com.divyam.advent.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Replays daily selection for every user over a number of days to see how a catalog would
+ * spread assignments across categories and energy levels.
+ *
+ * Users are read a page at a time with their summaries; users without a stored summary get one computed
+ * from their history. Each page is replayed on a shared fork/join pool over user partitions, each user
+ * against a detached copy of their summary, and the replay never writes to the tables.
+ */
+@Service
+public class CohortSimulationService {
+
+    private static final Logger log = LoggerFactory.getLogger(CohortSimulationService.class);
+    private static final int MAX_DAYS = 90;
+    private static final int USERS_PER_TASK = 256;
+    private static final int USERS_PER_PAGE = 1000;
+    private static final ChallengeCategory[] CATEGORIES = ChallengeCategory.values();
+    private static final EnergyLevel[] ENERGY_LEVELS = EnergyLevel.values();
+
+    private final UserRepository userRepository;
+    private final UserChallengeSummaryService summaryService;
+    private final ChallengeCatalog challengeCatalog;
+    private final DailyChallengeSelector dailyChallengeSelector;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    public CohortSimulationService(
+            UserRepository userRepository,
+            UserChallengeSummaryService summaryService,
+            ChallengeCatalog challengeCatalog,
+            DailyChallengeSelector dailyChallengeSelector,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.userRepository = userRepository;
+        this.summaryService = summaryService;
+        this.challengeCatalog = challengeCatalog;
+        this.dailyChallengeSelector = dailyChallengeSelector;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public CohortSimulationResultDto simulate(CohortSimulationRequest request) {
+        int days = request.getDays();
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("days must be between 1 and " + MAX_DAYS);
+        }
+        Mood mood = request.getMood() != null ? request.getMood() : Mood.NEUTRAL;
+        LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : LocalDate.now().plusDays(1);
+        ChallengeCatalog.Snapshot catalog = request.getCatalog() != null
+                ? candidateCatalog(request.getCatalog())
+                : challengeCatalog.snapshot();
+
+        long started = System.nanoTime();
+        Tally tally = new Tally(days);
+        int users = 0;
+        int withoutHistory = 0;
+        long afterId = 0L;
+        while (true) {
+            long after = afterId;
+            Cohort cohort = readOnlyTransaction.execute(status -> loadCohort(after));
+            if (cohort.size() == 0) {
+                break;
+            }
+            tally.merge(pool.invoke(new PartitionTask(cohort, 0, cohort.size(), catalog, mood, startDate, days)));
+            users += cohort.size();
+            withoutHistory += cohort.withoutHistory();
+            afterId = cohort.lastUserId();
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000L;
+
+        log.info("Simulated {} users over {} days from {} in {} ms", users, days, startDate, elapsedMillis);
+        return tally.toResult(startDate, days, mood, catalog.getVersion(), users, withoutHistory, elapsedMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Candidates are copied so the request is left as it was. Copies of candidates without an id get
+     * negative ids so they can be told apart during selection without colliding with stored challenges.
+     */
+    private ChallengeCatalog.Snapshot candidateCatalog(List<Challenge> candidates) {
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException("catalog must not be empty when provided");
+        }
+
+        List<Challenge> identified = new ArrayList<>(candidates.size());
+        long nextCandidateId = -1L;
+        for (Challenge candidate : candidates) {
+            if (candidate.getCategory() == null || candidate.getEnergyLevel() == null) {
+                throw new IllegalArgumentException("Every catalog challenge needs a category and an energyLevel");
+            }
+            Challenge copy = new Challenge(
+                    candidate.getTitle(),
+                    candidate.getDescription(),
+                    candidate.getCategory(),
+                    candidate.getEnergyLevel(),
+                    candidate.isActive()
+            );
+            copy.setId(candidate.getId() != null ? candidate.getId() : nextCandidateId--);
+            copy.setCulture(candidate.getCulture() != null ? candidate.getCulture() : Culture.GLOBAL);
+            copy.setCycleDay(candidate.getCycleDay());
+            copy.setSourceVersion(candidate.getSourceVersion());
+            identified.add(copy);
+        }
+        return ChallengeCatalog.Snapshot.of(identified);
+    }
+
+    /**
+     * The next page of users after the given id, with their summaries.
+     */
+    private Cohort loadCohort(long afterId) {
+        List<UserRepository.UserCultureProjection> users =
+                userRepository.findCulturesAfter(afterId, PageRequest.of(0, USERS_PER_PAGE));
+        Map<Long, UserChallengeSummary> summaries = summaryService.getSummaries(
+                users.stream().map(UserRepository.UserCultureProjection::getId).toList());
+
+        Culture[] cultures = new Culture[users.size()];
+        UserChallengeSummary[] userSummaries = new UserChallengeSummary[users.size()];
+        int withoutHistory = 0;
+        for (int i = 0; i < users.size(); i++) {
+            UserRepository.UserCultureProjection user = users.get(i);
+            cultures[i] = user.getCountry();
+            userSummaries[i] = summaries.get(user.getId());
+            if (userSummaries[i].getLastAssignmentDay() == null) {
+                withoutHistory++;
+            }
+        }
+        long lastUserId = users.isEmpty() ? afterId : users.get(users.size() - 1).getId();
+        return new Cohort(cultures, userSummaries, withoutHistory, lastUserId);
+    }
+
+    private record Cohort(Culture[] cultures, UserChallengeSummary[] summaries, int withoutHistory, long lastUserId) {
+        int size() {
+            return cultures.length;
+        }
+    }
+
+    /**
+     * Counts for one partition, merged pairwise on the way up the fork/join tree.
+     */
+    private static final class Tally {
+
+        private final long[][] byDayAndCategory;
+        private final long[] byEnergyLevel = new long[ENERGY_LEVELS.length];
+        private int unassignableUsers;
+
+        Tally(int days) {
+            this.byDayAndCategory = new long[days][CATEGORIES.length];
+        }
+
+        void add(int day, Challenge challenge) {
+            if (challenge.getCategory() != null) {
+                byDayAndCategory[day][challenge.getCategory().ordinal()]++;
+            }
+            if (challenge.getEnergyLevel() != null) {
+                byEnergyLevel[challenge.getEnergyLevel().ordinal()]++;
+            }
+        }
+
+        Tally merge(Tally other) {
+            for (int day = 0; day < byDayAndCategory.length; day++) {
+                for (int category = 0; category < CATEGORIES.length; category++) {
+                    byDayAndCategory[day][category] += other.byDayAndCategory[day][category];
+                }
+            }
+            for (int energy = 0; energy < ENERGY_LEVELS.length; energy++) {
+                byEnergyLevel[energy] += other.byEnergyLevel[energy];
+            }
+            unassignableUsers += other.unassignableUsers;
+            return this;
+        }
+
+        CohortSimulationResultDto toResult(
+                LocalDate startDate,
+                int days,
+                Mood mood,
+                String catalogVersion,
+                int users,
+                int withoutHistory,
+                long elapsedMillis
+        ) {
+            Map<ChallengeCategory, Long> byCategory = new EnumMap<>(ChallengeCategory.class);
+            List<Map<ChallengeCategory, Long>> byDay = new ArrayList<>(days);
+            long assignments = 0L;
+            for (long[] dayCounts : byDayAndCategory) {
+                Map<ChallengeCategory, Long> day = new EnumMap<>(ChallengeCategory.class);
+                for (ChallengeCategory category : CATEGORIES) {
+                    long count = dayCounts[category.ordinal()];
+                    day.put(category, count);
+                    byCategory.merge(category, count, Long::sum);
+                }
+                byDay.add(day);
+            }
+
+            Map<EnergyLevel, Long> byEnergy = new EnumMap<>(EnergyLevel.class);
+            for (EnergyLevel energyLevel : ENERGY_LEVELS) {
+                long count = byEnergyLevel[energyLevel.ordinal()];
+                byEnergy.put(energyLevel, count);
+                assignments += count;
+            }
+
+            return new CohortSimulationResultDto(
+                    startDate,
+                    days,
+                    mood,
+                    catalogVersion,
+                    users,
+                    withoutHistory,
+                    unassignableUsers,
+                    assignments,
+                    byCategory,
+                    byEnergy,
+                    byDay,
+                    elapsedMillis
+            );
+        }
+    }
+
+    private final class PartitionTask extends RecursiveTask<Tally> {
+
+        private final Cohort cohort;
+        private final int from;
+        private final int to;
+        private final ChallengeCatalog.Snapshot catalog;
+        private final Mood mood;
+        private final LocalDate startDate;
+        private final int days;
+
+        PartitionTask(Cohort cohort, int from, int to, ChallengeCatalog.Snapshot catalog,
+                      Mood mood, LocalDate startDate, int days) {
+            this.cohort = cohort;
+            this.from = from;
+            this.to = to;
+            this.catalog = catalog;
+            this.mood = mood;
+            this.startDate = startDate;
+            this.days = days;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from <= USERS_PER_TASK) {
+                return simulatePartition();
+            }
+
+            int middle = (from + to) >>> 1;
+            PartitionTask left = new PartitionTask(cohort, from, middle, catalog, mood, startDate, days);
+            PartitionTask right = new PartitionTask(cohort, middle, to, catalog, mood, startDate, days);
+            left.fork();
+            Tally rightTally = right.compute();
+            return left.join().merge(rightTally);
+        }
+
+        private Tally simulatePartition() {
+            Tally tally = new Tally(days);
+            for (int user = from; user < to; user++) {
+                List<Challenge> plan;
+                try {
+                    plan = dailyChallengeSelector.project(
+                            catalog,
+                            cohort.cultures()[user],
+                            mood,
+                            cohort.summaries()[user],
+                            startDate,
+                            days,
+                            Map.of()
+                    );
+                } catch (IllegalStateException noCandidates) {
+                    tally.unassignableUsers++;
+                    continue;
+                }
+                for (int day = 0; day < plan.size(); day++) {
+                    tally.add(day, plan.get(day));
+                }
+            }
+            return tally;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.model.CompletionCalendar;
+import com.divyam.advent.repository.CompletionCalendarRepository;
+import com.divyam.advent.repository.UserChallengeRepository;
+import com.divyam.advent.util.DayBitmap;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Per-user bitmap of the days with a completion, shared by the heatmap and the streak logic.
+ *
+ * A completion sets one bit. A user without a stored calendar, or whose calendar was dropped because a
+ * completion was withdrawn, gets it rebuilt from their completion times on their next completion or streak
+ * repair. Reads never store it: they compute it from history until then. Writes run in their own
+ * transaction so a concurrent first insert can be retried without spoiling the caller's transaction.
+ */
+@Service
+public class CompletionCalendarService {
+
+    private final CompletionCalendarRepository calendarRepository;
+    private final UserChallengeRepository userChallengeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public CompletionCalendarService(
+            CompletionCalendarRepository calendarRepository,
+            UserChallengeRepository userChallengeRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.calendarRepository = calendarRepository;
+        this.userChallengeRepository = userChallengeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Add a completion day to the user's calendar.
+     */
+    public DayBitmap recordCompletion(Long userId, LocalDate day) {
+        return update(userId, false, calendar -> calendar.set(day));
+    }
+
+    /**
+     * The user's calendar for reading, computed from their completion history if it is not stored.
+     * Takes no lock and writes nothing.
+     */
+    public DayBitmap calendar(Long userId) {
+        return calendarRepository.findById(userId)
+                .map(stored -> DayBitmap.fromBytes(stored.getOrigin(), stored.getDays()))
+                .orElseGet(() -> fromHistory(userId));
+    }
+
+    /**
+     * Rebuild the user's calendar from their completion history.
+     */
+    public DayBitmap rebuild(Long userId) {
+        return update(userId, true, calendar -> {
+        });
+    }
+
+    /**
+     * Drop the stored calendar, for example after a completion is withdrawn; it is rebuilt on next use.
+     */
+    public void forget(Long userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (calendarRepository.existsById(userId)) {
+                calendarRepository.deleteById(userId);
+            }
+        });
+    }
+
+    private DayBitmap update(Long userId, boolean fromHistory, Consumer<DayBitmap> change) {
+        try {
+            return updateStored(userId, fromHistory, change);
+        } catch (DataIntegrityViolationException concurrentInsert) {
+            // Another request created the row first; update it instead.
+            return updateStored(userId, fromHistory, change);
+        }
+    }
+
+    private DayBitmap updateStored(Long userId, boolean fromHistory, Consumer<DayBitmap> change) {
+        return transactionTemplate.execute(status -> {
+            CompletionCalendar row = calendarRepository.findByUserIdForUpdate(userId).orElse(null);
+            DayBitmap calendar;
+            if (row != null && !fromHistory) {
+                calendar = DayBitmap.fromBytes(row.getOrigin(), row.getDays());
+            } else {
+                calendar = fromHistory(userId);
+                if (row == null) {
+                    row = new CompletionCalendar(userId, null, null);
+                }
+            }
+            change.accept(calendar);
+            row.setOrigin(calendar.origin());
+            row.setDays(calendar.toBytes());
+            calendarRepository.saveAndFlush(row);
+            return calendar;
+        });
+    }
+
+    private DayBitmap fromHistory(Long userId) {
+        DayBitmap calendar = DayBitmap.empty();
+        for (LocalDateTime completionTime : userChallengeRepository.findCompletionTimesDesc(userId)) {
+            calendar.set(completionTime.toLocalDate());
+        }
+        return calendar;
+    }
+}
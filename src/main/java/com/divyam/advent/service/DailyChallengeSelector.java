@@ -0,0 +1,247 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.enums.EnergyLevel;
+import com.divyam.advent.enums.Mood;
+import com.divyam.advent.model.Challenge;
+import com.divyam.advent.model.UserChallengeSummary;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Picks a user's daily challenge from the in-memory catalog and the user's history summary.
+ * Selection does no I/O, so the request path and the nightly pre-assignment job share it.
+ *
+ * Candidates are ranked in a single pass over primitive keys, in this order:
+ * the soft filters (not assigned that day, never seen, not the latest category, not the latest challenge),
+ * then least used challenge, least used category, category name, cycle day and id.
+ * The pass itself does not allocate, but the first selection on a summary builds its primitive usage views,
+ * and a request path that loads the summary afresh pays for that on every selection.
+ */
+@Component
+public class DailyChallengeSelector {
+
+    private static final EnergyLevel[] LOW_MOOD_ENERGY = {EnergyLevel.LOW, EnergyLevel.MEDIUM};
+    private static final EnergyLevel[] NEUTRAL_MOOD_ENERGY = {EnergyLevel.MEDIUM, EnergyLevel.LOW, EnergyLevel.HIGH};
+    private static final EnergyLevel[] HIGH_MOOD_ENERGY = {EnergyLevel.HIGH, EnergyLevel.MEDIUM};
+
+    /**
+     * Rank of each category's name in alphabetical order, indexed by ordinal.
+     */
+    private static final int[] CATEGORY_NAME_RANK = categoryNameRanks();
+
+    private final ChallengeCatalog challengeCatalog;
+
+    public DailyChallengeSelector(ChallengeCatalog challengeCatalog) {
+        this.challengeCatalog = challengeCatalog;
+    }
+
+    /**
+     * Select the daily challenge for a user.
+     * @param culture the user's culture, null for GLOBAL only
+     * @param mood the mood to select for
+     * @param summary the user's challenge history summary
+     * @param day the day the challenge is assigned for
+     * @return the selected challenge
+     */
+    public Challenge select(Culture culture, Mood mood, UserChallengeSummary summary, LocalDate day) {
+        return select(challengeCatalog.snapshot(), culture, mood, summary, day);
+    }
+
+    /**
+     * Select the daily challenge against a given catalog snapshot instead of the live one.
+     */
+    public Challenge select(
+            ChallengeCatalog.Snapshot catalog,
+            Culture culture,
+            Mood mood,
+            UserChallengeSummary summary,
+            LocalDate day
+    ) {
+        List<Challenge> candidates = selectCandidates(catalog, culture, mood);
+        if (candidates.isEmpty()) {
+            throw new IllegalStateException("No active challenge is available for mood " + mood);
+        }
+
+        Long latestChallengeId = summary.getLastChallengeIdAsOf(day);
+        ChallengeCategory latestCategory = summary.getLastCategoryAsOf(day);
+
+        Challenge best = null;
+        int bestPreference = 0;
+        long bestUsage = 0L;
+        long bestCategoryUsage = 0L;
+        int bestCategoryRank = 0;
+        int bestCycleDay = 0;
+        long bestId = 0L;
+
+        for (int i = 0, size = candidates.size(); i < size; i++) {
+            Challenge challenge = candidates.get(i);
+            Long id = challenge.getId();
+            ChallengeCategory category = challenge.getCategory();
+            long usage = id != null ? summary.getChallengeUsageCount(id) : 0L;
+
+            int preference = preference(
+                    !summary.isAssignedOn(day, id),
+                    usage == 0L,
+                    latestCategory == null || category != latestCategory,
+                    latestChallengeId == null || !latestChallengeId.equals(id)
+            );
+            long categoryUsage = summary.getCategoryUsageCount(category);
+            int categoryRank = category != null ? CATEGORY_NAME_RANK[category.ordinal()] : Integer.MAX_VALUE;
+            int cycleDay = challenge.getCycleDay() != null ? challenge.getCycleDay() : Integer.MAX_VALUE;
+            long rankedId = id != null ? id : Long.MAX_VALUE;
+
+            if (best == null || ranksBefore(
+                    preference, usage, categoryUsage, categoryRank, cycleDay, rankedId,
+                    bestPreference, bestUsage, bestCategoryUsage, bestCategoryRank, bestCycleDay, bestId)) {
+                best = challenge;
+                bestPreference = preference;
+                bestUsage = usage;
+                bestCategoryUsage = categoryUsage;
+                bestCategoryRank = categoryRank;
+                bestCycleDay = cycleDay;
+                bestId = rankedId;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Run the selection forward for consecutive days against one copy of the summary,
+     * as if the user took each projected challenge in the same mood. Nothing is persisted.
+     * @param culture the user's culture, null for GLOBAL only
+     * @param mood the mood to project for
+     * @param summary the user's challenge history summary, left unchanged
+     * @param firstDay the first day to project
+     * @param days how many days to project
+     * @param assigned challenges already assigned on some of the days; these are kept as they are
+     *                 and are assumed to be in the summary already
+     * @return the challenge for each day, starting with firstDay
+     */
+    public List<Challenge> project(
+            Culture culture,
+            Mood mood,
+            UserChallengeSummary summary,
+            LocalDate firstDay,
+            int days,
+            Map<LocalDate, Challenge> assigned
+    ) {
+        return project(challengeCatalog.snapshot(), culture, mood, summary, firstDay, days, assigned);
+    }
+
+    /**
+     * Project against a given catalog snapshot instead of the live one.
+     */
+    public List<Challenge> project(
+            ChallengeCatalog.Snapshot catalog,
+            Culture culture,
+            Mood mood,
+            UserChallengeSummary summary,
+            LocalDate firstDay,
+            int days,
+            Map<LocalDate, Challenge> assigned
+    ) {
+        UserChallengeSummary projected = summary.copy();
+        List<Challenge> sequence = new ArrayList<>(days);
+        for (int offset = 0; offset < days; offset++) {
+            LocalDate day = firstDay.plusDays(offset);
+            Challenge challenge = assigned.get(day);
+            if (challenge == null) {
+                challenge = select(catalog, culture, mood, projected, day);
+                projected.recordAssignment(challenge.getId(), challenge.getCategory(), day.atStartOfDay());
+            }
+            sequence.add(challenge);
+        }
+        return sequence;
+    }
+
+    /**
+     * Pack the four soft filters into one number, most important first.
+     * Keeping the candidates with the highest value is the same as applying each filter in turn
+     * and skipping any filter that would leave nothing.
+     */
+    private static int preference(
+            boolean notAssignedOnDay,
+            boolean unseen,
+            boolean differentCategory,
+            boolean notLatest
+    ) {
+        return (notAssignedOnDay ? 8 : 0)
+                | (unseen ? 4 : 0)
+                | (differentCategory ? 2 : 0)
+                | (notLatest ? 1 : 0);
+    }
+
+    private static boolean ranksBefore(
+            int preference, long usage, long categoryUsage, int categoryRank, int cycleDay, long id,
+            int bestPreference, long bestUsage, long bestCategoryUsage, int bestCategoryRank, int bestCycleDay, long bestId
+    ) {
+        if (preference != bestPreference) {
+            return preference > bestPreference;
+        }
+        if (usage != bestUsage) {
+            return usage < bestUsage;
+        }
+        if (categoryUsage != bestCategoryUsage) {
+            return categoryUsage < bestCategoryUsage;
+        }
+        if (categoryRank != bestCategoryRank) {
+            return categoryRank < bestCategoryRank;
+        }
+        if (cycleDay != bestCycleDay) {
+            return cycleDay < bestCycleDay;
+        }
+        return id < bestId;
+    }
+
+    private List<Challenge> selectCandidates(ChallengeCatalog.Snapshot catalog, Culture culture, Mood mood) {
+        EnergyLevel[] energyLevels = preferredEnergyLevels(mood);
+
+        for (EnergyLevel energyLevel : energyLevels) {
+            List<Challenge> seededCultureAware = catalog.seeded(energyLevel, culture);
+            if (!seededCultureAware.isEmpty()) {
+                return seededCultureAware;
+            }
+
+            List<Challenge> seededFallback = catalog.seeded(energyLevel);
+            if (!seededFallback.isEmpty()) {
+                return seededFallback;
+            }
+        }
+
+        for (EnergyLevel energyLevel : energyLevels) {
+            List<Challenge> energyMatched = catalog.cycle(energyLevel);
+            if (!energyMatched.isEmpty()) {
+                return energyMatched;
+            }
+        }
+
+        return catalog.cycle();
+    }
+
+    private static EnergyLevel[] preferredEnergyLevels(Mood mood) {
+        return switch (mood) {
+            case LOW -> LOW_MOOD_ENERGY;
+            case NEUTRAL -> NEUTRAL_MOOD_ENERGY;
+            case HIGH -> HIGH_MOOD_ENERGY;
+        };
+    }
+
+    private static int[] categoryNameRanks() {
+        ChallengeCategory[] byName = ChallengeCategory.values();
+        Arrays.sort(byName, Comparator.comparing(ChallengeCategory::name));
+        int[] ranks = new int[byName.length];
+        for (int rank = 0; rank < byName.length; rank++) {
+            ranks[byName[rank].ordinal()] = rank;
+        }
+        return ranks;
+    }
+}
@@ -0,0 +1,186 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.enums.CompletionStatus;
+import com.divyam.advent.enums.Mood;
+import com.divyam.advent.model.Challenge;
+import com.divyam.advent.model.User;
+import com.divyam.advent.model.UserChallengeSummary;
+import com.divyam.advent.repository.UserChallengeRepository;
+import com.divyam.advent.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pre-computes each active user's NEUTRAL daily challenge for a day ahead of time.
+ *
+ * Users are processed in keyset-paged chunks. Each chunk selects in memory, inserts with one
+ * JDBC batch and updates the matching summaries in its own transaction. A user assigned on demand
+ * while their chunk was prepared makes the batch hit a unique key; the chunk is then retried once
+ * without the users who have a row for the day by now.
+ */
+@Service
+public class DailyPreassignmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(DailyPreassignmentService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO user_challenges " +
+            "(user_id, challenge_id, status, start_time, mood, preassigned, " +
+            "active_assignment_day, daily_assignment_day) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final UserChallengeRepository userChallengeRepository;
+    private final UserRepository userRepository;
+    private final UserChallengeSummaryService userChallengeSummaryService;
+    private final DailyChallengeSelector dailyChallengeSelector;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int activeDays;
+
+    public DailyPreassignmentService(
+            UserChallengeRepository userChallengeRepository,
+            UserRepository userRepository,
+            UserChallengeSummaryService userChallengeSummaryService,
+            DailyChallengeSelector dailyChallengeSelector,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${challenge.preassign.chunk-size:500}") int chunkSize,
+            @Value("${challenge.preassign.active-days:7}") int activeDays
+    ) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("challenge.preassign.chunk-size must be positive");
+        }
+        if (activeDays <= 0) {
+            throw new IllegalArgumentException("challenge.preassign.active-days must be positive");
+        }
+        this.userChallengeRepository = userChallengeRepository;
+        this.userRepository = userRepository;
+        this.userChallengeSummaryService = userChallengeSummaryService;
+        this.dailyChallengeSelector = dailyChallengeSelector;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.activeDays = activeDays;
+    }
+
+    /**
+     * Pre-assign the given day's NEUTRAL challenge to every active user who has nothing for that day yet.
+     * @param day the day to pre-assign
+     * @return number of rows inserted
+     */
+    public int preassign(LocalDate day) {
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = day.plusDays(1).atStartOfDay();
+        LocalDateTime activeSince = day.minusDays(activeDays).atStartOfDay();
+
+        int inserted = 0;
+        long afterUserId = 0L;
+        while (true) {
+            List<Long> userIds = userChallengeRepository.findActiveUserIdsWithoutAssignmentInRange(
+                    activeSince, start, end, afterUserId, PageRequest.of(0, chunkSize)
+            );
+            if (userIds.isEmpty()) {
+                break;
+            }
+
+            try {
+                inserted += insertChunk(userIds, day);
+            } catch (DataIntegrityViolationException duplicate) {
+                inserted += retryChunk(userIds, day, activeSince, afterUserId, duplicate);
+            }
+            afterUserId = userIds.get(userIds.size() - 1);
+        }
+
+        log.info("Pre-assigned {} daily challenges for {}", inserted, day);
+        return inserted;
+    }
+
+    /**
+     * Some users in the chunk were assigned on demand after it was read. Re-read the same page, which
+     * now leaves them out, and insert the rest once more. Users of a chunk that conflicts again are
+     * not pre-assigned; they get their challenge on demand.
+     */
+    private int retryChunk(
+            List<Long> userIds,
+            LocalDate day,
+            LocalDateTime activeSince,
+            long afterUserId,
+            DataIntegrityViolationException duplicate
+    ) {
+        Set<Long> chunk = new HashSet<>(userIds);
+        List<Long> remaining = userChallengeRepository.findActiveUserIdsWithoutAssignmentInRange(
+                        activeSince, day.atStartOfDay(), day.plusDays(1).atStartOfDay(), afterUserId,
+                        PageRequest.of(0, chunkSize)
+                ).stream()
+                .filter(chunk::contains)
+                .toList();
+        log.info("Skipped pre-assignment for {} of {} users after user {} who were assigned on demand: {}",
+                userIds.size() - remaining.size(), userIds.size(), afterUserId,
+                duplicate.getMostSpecificCause().getMessage());
+        if (remaining.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return insertChunk(remaining, day);
+        } catch (DataIntegrityViolationException again) {
+            log.warn("Skipped pre-assignment for {} users after user {}: {}",
+                    remaining.size(), afterUserId, again.getMostSpecificCause().getMessage());
+            return 0;
+        }
+    }
+
+    private int insertChunk(List<Long> userIds, LocalDate day) {
+        Integer inserted = transactionTemplate.execute(status -> preassignChunk(userIds, day));
+        return inserted != null ? inserted : 0;
+    }
+
+    private int preassignChunk(List<Long> userIds, LocalDate day) {
+        Map<Long, UserChallengeSummary> summaries = userChallengeSummaryService.getSummaries(userIds);
+        Map<Long, Challenge> challengesByUserId = new LinkedHashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            Challenge challenge = dailyChallengeSelector.select(
+                    user.getCountry(), Mood.NEUTRAL, summaries.get(user.getId()), day
+            );
+            challengesByUserId.put(user.getId(), challenge);
+        }
+
+        Timestamp startTime = Timestamp.valueOf(day.atStartOfDay());
+        Date activeAssignmentDay = Date.valueOf(day);
+        List<Object[]> rows = new ArrayList<>(challengesByUserId.size());
+        challengesByUserId.forEach((userId, challenge) -> rows.add(new Object[]{
+                userId,
+                challenge.getId(),
+                CompletionStatus.ASSIGNED.name(),
+                startTime,
+                Mood.NEUTRAL.name(),
+                true,
+                activeAssignmentDay,
+                activeAssignmentDay
+        }));
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+
+        // The pulse leaves these rows out until each user touches theirs.
+        userChallengeSummaryService.recordAssignments(challengesByUserId, day.atStartOfDay());
+        return rows.size();
+    }
+}
@@ -0,0 +1,132 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.enums.Mood;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of today's daily challenge previews.
+ *
+ * Entries only hold challenge ids, are valid for the day they were created on, and are
+ * evicted in bulk when the day rolls over. When the size bound is hit the least recently
+ * used preview is dropped, so memory stays flat regardless of uptime.
+ */
+@Component
+public class DailyPreviewCache {
+
+    private static final Logger log = LoggerFactory.getLogger(DailyPreviewCache.class);
+
+    public record Key(Long userId, LocalDate date, Mood mood) {
+    }
+
+    public record Stats(
+            LocalDate day,
+            int size,
+            int maxEntries,
+            long hits,
+            long misses,
+            long sizeEvictions,
+            long expiredEvictions
+    ) {
+    }
+
+    private final int maxEntries;
+    private final Clock clock;
+    private final LinkedHashMap<Key, Long> entries;
+
+    private LocalDate currentDay;
+    private long hits;
+    private long misses;
+    private long sizeEvictions;
+    private long expiredEvictions;
+
+    @Autowired
+    public DailyPreviewCache(@Value("${challenge.preview-cache.max-entries:10000}") int maxEntries) {
+        this(maxEntries, Clock.systemDefaultZone());
+    }
+
+    DailyPreviewCache(int maxEntries, Clock clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("challenge.preview-cache.max-entries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.currentDay = LocalDate.now(clock);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Long> eldest) {
+                if (size() > DailyPreviewCache.this.maxEntries) {
+                    sizeEvictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Look up the previewed challenge id, or null when there is no live preview for the key.
+     */
+    public synchronized Long get(Key key) {
+        rollOverIfNeeded(LocalDate.now(clock));
+        Long challengeId = key.date().equals(currentDay) ? entries.get(key) : null;
+        if (challengeId == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return challengeId;
+    }
+
+    public synchronized void put(Key key, Long challengeId) {
+        rollOverIfNeeded(LocalDate.now(clock));
+        if (challengeId == null || !key.date().equals(currentDay)) {
+            return;
+        }
+        entries.put(key, challengeId);
+    }
+
+    public synchronized void remove(Key key) {
+        entries.remove(key);
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(currentDay, entries.size(), maxEntries, hits, misses, sizeEvictions, expiredEvictions);
+    }
+
+    /**
+     * Drop every preview from previous days right after midnight instead of waiting for the next access.
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public synchronized void evictPastDays() {
+        rollOverIfNeeded(LocalDate.now(clock));
+    }
+
+    private void rollOverIfNeeded(LocalDate today) {
+        if (today.equals(currentDay)) {
+            return;
+        }
+
+        int evicted = 0;
+        Iterator<Key> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().date().isBefore(today)) {
+                keys.remove();
+                evicted++;
+            }
+        }
+        expiredEvictions += evicted;
+        currentDay = today;
+        log.info("Daily preview cache rolled over to {}: evicted {} stale previews", today, evicted);
+    }
+}
@@ -0,0 +1,172 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.enums.Mood;
+import com.divyam.advent.model.UserChallengeSummary;
+import com.divyam.advent.model.converter.CategoryCountMapConverter;
+import com.divyam.advent.model.converter.LongCountMapConverter;
+import com.divyam.advent.model.converter.LongSetConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Issues and verifies signed daily preview tokens.
+ *
+ * A token binds a previewed challenge to everything the selection depended on: user, day, mood,
+ * catalog version and a digest of the user's history summary. Any node sharing the signing secret
+ * can verify it without the node-local preview cache.
+ */
+@Component
+public class DailyPreviewTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(DailyPreviewTokenService.class);
+    private static final String TOKEN_VERSION = "v1";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final LongCountMapConverter USAGE_ENCODER = new LongCountMapConverter();
+    private static final CategoryCountMapConverter CATEGORY_ENCODER = new CategoryCountMapConverter();
+    private static final LongSetConverter ID_SET_ENCODER = new LongSetConverter();
+
+    private final byte[] secret;
+
+    public record PreviewClaims(
+            Long userId,
+            LocalDate date,
+            Mood mood,
+            Long challengeId,
+            String catalogVersion,
+            String historyDigest
+    ) {
+    }
+
+    /**
+     * @param multiNode whether several nodes serve requests. Without a configured secret a single node signs
+     *                  with a random per-process secret, so tokens fail after a restart; several nodes need the
+     *                  shared secret to verify each other's tokens.
+     * @throws IllegalStateException if no secret is configured and multiNode is true
+     */
+    @Autowired
+    public DailyPreviewTokenService(
+            @Value("${challenge.preview.token-secret:}") String configuredSecret,
+            @Value("${challenge.preview.multi-node:false}") boolean multiNode
+    ) {
+        if (configuredSecret != null && !configuredSecret.isBlank()) {
+            this.secret = configuredSecret.getBytes(StandardCharsets.UTF_8);
+        } else if (!multiNode) {
+            log.warn("challenge.preview.token-secret is not set, using a random secret. "
+                    + "Preview tokens will only validate on this node until it restarts; "
+                    + "set the secret and challenge.preview.multi-node=true when running several nodes");
+            this.secret = new byte[32];
+            new SecureRandom().nextBytes(this.secret);
+        } else {
+            throw new IllegalStateException("challenge.preview.token-secret must be set "
+                    + "when challenge.preview.multi-node is true");
+        }
+    }
+
+    public DailyPreviewTokenService(String configuredSecret) {
+        this(configuredSecret, true);
+    }
+
+    public String issue(PreviewClaims claims) {
+        String payload = String.join("|",
+                TOKEN_VERSION,
+                String.valueOf(claims.userId()),
+                claims.date().toString(),
+                claims.mood().name(),
+                String.valueOf(claims.challengeId()),
+                claims.catalogVersion(),
+                claims.historyDigest()
+        );
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(sign(payload));
+    }
+
+    /**
+     * Verify the signature and decode the claims. Returns empty for tampered or malformed tokens.
+     */
+    public Optional<PreviewClaims> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        int separator = token.indexOf('.');
+        if (separator <= 0 || separator == token.length() - 1) {
+            return Optional.empty();
+        }
+
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            String payload = new String(decoder.decode(token.substring(0, separator)), StandardCharsets.UTF_8);
+            byte[] signature = decoder.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return Optional.empty();
+            }
+
+            String[] parts = payload.split("\\|", -1);
+            if (parts.length != 7 || !TOKEN_VERSION.equals(parts[0])) {
+                return Optional.empty();
+            }
+
+            return Optional.of(new PreviewClaims(
+                    Long.parseLong(parts[1]),
+                    LocalDate.parse(parts[2]),
+                    Mood.valueOf(parts[3]),
+                    Long.parseLong(parts[4]),
+                    parts[5],
+                    parts[6]
+            ));
+        } catch (IllegalArgumentException | DateTimeParseException exception) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Digest of every summary field the selection reads, so a token is invalidated as soon as
+     * the user's history changes.
+     */
+    public String historyDigest(UserChallengeSummary summary) {
+        String encoded = String.join("|",
+                USAGE_ENCODER.convertToDatabaseColumn(summary.getChallengeUsageCounts()),
+                CATEGORY_ENCODER.convertToDatabaseColumn(summary.getCategoryUsageCounts()),
+                String.valueOf(summary.getLastChallengeId()),
+                String.valueOf(summary.getLastCategory()),
+                String.valueOf(summary.getLastAssignmentDay()),
+                ID_SET_ENCODER.convertToDatabaseColumn(summary.getLastDayChallengeIds()),
+                String.valueOf(summary.getPreviousChallengeId()),
+                String.valueOf(summary.getPreviousCategory()),
+                String.valueOf(summary.getPreviousAssignmentDay()),
+                ID_SET_ENCODER.convertToDatabaseColumn(summary.getPreviousDayChallengeIds())
+        );
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(encoded.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (Exception exception) {
+            throw new IllegalStateException("Failed to compute history digest", exception);
+        }
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret, HMAC_ALGORITHM));
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception exception) {
+            throw new IllegalStateException("Failed to sign preview token", exception);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.divyam.advent.service;
 
+import com.divyam.advent.dto.CompletionHeatmapDto;
 import com.divyam.advent.dto.ProfileBadgeDto;
 import com.divyam.advent.dto.ProfileBadgesResponseDto;
 import com.divyam.advent.dto.ProfileResponseDto;
@@ -10,10 +11,13 @@ import com.divyam.advent.exception.ResourceNotFoundException;
 import com.divyam.advent.model.Badge;
 import com.divyam.advent.model.User;
 import com.divyam.advent.repository.UserRepository;
+import com.divyam.advent.util.DayBitmap;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.LinkedHashSet;
 import java.util.Set;
@@ -22,21 +26,36 @@ import java.util.stream.Collectors;
 @Service
 public class ProfileService {
 
+    static final int MAX_HEATMAP_DAYS = 366;
+
     private final AuthService authService;
     private final UserRepository userRepository;
     private final BadgeService badgeService;
-
-    public ProfileService(AuthService authService, UserRepository userRepository, BadgeService badgeService) {
+    private final StreakService streakService;
+    private final CompletionCalendarService completionCalendarService;
+
+    public ProfileService(
+            AuthService authService,
+            UserRepository userRepository,
+            BadgeService badgeService,
+            StreakService streakService,
+            CompletionCalendarService completionCalendarService
+    ) {
         this.authService = authService;
         this.userRepository = userRepository;
         this.badgeService = badgeService;
+        this.streakService = streakService;
+        this.completionCalendarService = completionCalendarService;
     }
 
-    @Transactional
+    /**
+     * The current user's stored profile. Reads take no row lock and write nothing: points and badges
+     * are kept up to date when a completion is recorded or withdrawn, and a missed day is applied to
+     * the streak as it is read. Newly unlocked badges are returned by the completion itself.
+     */
+    @Transactional(readOnly = true)
     public ProfileResponseDto getProfile(Jwt jwt) {
-        User user = getCurrentUserForProfileOps(jwt);
-        List<Badge> newlyUnlocked = badgeService.evaluateAndAssignBadges(user);
-        return toProfileResponse(user, newlyUnlocked);
+        return toProfileResponse(authService.getCurrentUser(jwt));
     }
 
     @Transactional
@@ -75,8 +94,7 @@ public class ProfileService {
         }
 
         userRepository.save(user);
-        List<Badge> newlyUnlocked = badgeService.evaluateAndAssignBadges(user);
-        return toProfileResponse(user, newlyUnlocked);
+        return toProfileResponse(user);
     }
 
     @Transactional
@@ -88,28 +106,21 @@ public class ProfileService {
         User user = getCurrentUserForProfileOps(jwt);
         user.setThemePreference(request.getThemePreference());
         userRepository.save(user);
-
-        List<Badge> newlyUnlocked = badgeService.evaluateAndAssignBadges(user);
-        return toProfileResponse(user, newlyUnlocked);
+        return toProfileResponse(user);
     }
 
-    @Transactional
+    /**
+     * The badge catalog with the current user's earned badges, read without locking the user.
+     */
+    @Transactional(readOnly = true)
     public ProfileBadgesResponseDto getProfileBadges(Jwt jwt) {
-        User user = getCurrentUserForProfileOps(jwt);
-        List<Badge> newlyUnlocked = badgeService.evaluateAndAssignBadges(user);
+        User user = authService.getCurrentUser(jwt);
 
         List<Badge> allBadges = badgeService.getAllBadges();
         Set<String> earnedBadgeIds = new LinkedHashSet<>(badgeService.getEarnedBadgeIds(user));
-        Set<String> newlyUnlockedIds = newlyUnlocked.stream()
-                .map(Badge::getId)
-                .collect(Collectors.toSet());
 
         List<ProfileBadgeDto> badgeDtos = allBadges.stream()
-                .map(badge -> toProfileBadgeDto(
-                        badge,
-                        earnedBadgeIds.contains(badge.getId()),
-                        newlyUnlockedIds.contains(badge.getId())
-                ))
+                .map(badge -> toProfileBadgeDto(badge, earnedBadgeIds.contains(badge.getId())))
                 .collect(Collectors.toList());
 
         List<ProfileBadgeDto> earnedBadges = badgeDtos.stream()
@@ -118,38 +129,64 @@ public class ProfileService {
 
         return new ProfileBadgesResponseDto(
                 badgeDtos,
-                earnedBadges,
-                newlyUnlockedIds.stream().sorted().collect(Collectors.toList())
+                earnedBadges
+        );
+    }
+
+    /**
+     * The current user's completion days in a range, read from their completion calendar.
+     * Defaults to the 365 days ending today.
+     */
+    public CompletionHeatmapDto getHeatmap(Jwt jwt, LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        LocalDate end = to != null ? to : today;
+        LocalDate start = from != null ? from : end.minusDays(MAX_HEATMAP_DAYS - 2);
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_HEATMAP_DAYS) {
+            throw new IllegalArgumentException("Heatmap range must not exceed " + MAX_HEATMAP_DAYS + " days");
+        }
+
+        User currentUser = authService.getCurrentUser(jwt);
+        DayBitmap calendar = completionCalendarService.calendar(currentUser.getId());
+        int currentStreak = Math.max(calendar.runEndingAt(today), calendar.runEndingAt(today.minusDays(1)));
+        return new CompletionHeatmapDto(
+                start,
+                end,
+                calendar.daysBetween(start, end),
+                currentStreak,
+                calendar.longestRun()
         );
     }
 
-    private ProfileResponseDto toProfileResponse(User user, List<Badge> newlyUnlocked) {
+    private ProfileResponseDto toProfileResponse(User user) {
         ThemePreference themePreference = user.getThemePreference() != null
                 ? user.getThemePreference()
                 : ThemePreference.SYSTEM;
+        StreakService.Snapshot streaks = streakService.snapshot(user, LocalDate.now());
 
         return new ProfileResponseDto(
                 user.getId(),
                 user.getName(),
                 user.getEmail(),
                 user.getAvatar(),
-                user.getStreak() != null ? user.getStreak() : 0,
+                streaks.current(),
+                streaks.longest(),
                 user.getTotalPoints() != null ? user.getTotalPoints() : 0L,
                 badgeService.getEarnedBadgeIds(user),
-                themePreference,
-                newlyUnlocked.stream().map(Badge::getId).sorted().collect(Collectors.toList())
+                themePreference
         );
     }
 
-    private ProfileBadgeDto toProfileBadgeDto(Badge badge, boolean earned, boolean newlyUnlocked) {
+    private ProfileBadgeDto toProfileBadgeDto(Badge badge, boolean earned) {
         return new ProfileBadgeDto(
                 badge.getId(),
                 badge.getTitle(),
                 badge.getDescription(),
                 badge.getIcon(),
                 badge.getCriteria(),
-                earned,
-                newlyUnlocked
+                earned
         );
     }
 
@@ -0,0 +1,172 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.model.PulseHourlyCounter;
+import com.divyam.advent.model.UserChallenge;
+import com.divyam.advent.repository.PulseHourlyCounterRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assignment and completion events reported by {@link PulseCounterService}, once their transaction commits.
+ *
+ * Each event is counted in its hour in pulse_hourly_counters. These are event counts: later deletes do not
+ * take them back. Every event also marks its user active in {@link ActiveUserSketchService}, and completions
+ * feed {@link TrendingChallengeTracker}. Hour counts are kept in memory and added to the stored rows by
+ * {@link #flush()}.
+ */
+@Service
+public class PulseActivityService {
+
+    private static final int ASSIGNMENTS = 0;
+    private static final int COMPLETIONS = 1;
+    private static final int HOURS_PER_DAY = 24;
+
+    public record HourCounts(int hour, long assignments, long completions) {
+    }
+
+    private final PulseHourlyCounterRepository hourlyCounterRepository;
+    private final ActiveUserSketchService activeUserSketchService;
+    private final TrendingChallengeTracker trendingChallengeTracker;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<LocalDateTime, long[]> pendingHours = new HashMap<>();
+
+    public PulseActivityService(
+            PulseHourlyCounterRepository hourlyCounterRepository,
+            ActiveUserSketchService activeUserSketchService,
+            TrendingChallengeTracker trendingChallengeTracker,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.hourlyCounterRepository = hourlyCounterRepository;
+        this.activeUserSketchService = activeUserSketchService;
+        this.trendingChallengeTracker = trendingChallengeTracker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * The row's user was assigned its challenge at the given time.
+     */
+    public void assigned(UserChallenge row, LocalDateTime at) {
+        record(row, at, ASSIGNMENTS);
+    }
+
+    /**
+     * The row's user completed its challenge at the given time.
+     */
+    public void completed(UserChallenge row, LocalDateTime at) {
+        record(row, at, COMPLETIONS);
+    }
+
+    /**
+     * Assignments and completions for each hour of a day, plus events on this node that are not flushed yet.
+     * @return 24 entries, starting at midnight
+     */
+    public List<HourCounts> hourly(LocalDate day) {
+        LocalDateTime start = day.atStartOfDay();
+        long[][] figures = new long[HOURS_PER_DAY][2];
+        for (PulseHourlyCounter counter : hourlyCounterRepository.findByHourGreaterThanEqualAndHourLessThanOrderByHourAsc(
+                start, day.plusDays(1).atStartOfDay())) {
+            int hour = counter.getHour().getHour();
+            figures[hour][ASSIGNMENTS] += counter.getAssignments();
+            figures[hour][COMPLETIONS] += counter.getCompletions();
+        }
+        synchronized (this) {
+            for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+                long[] delta = pendingHours.get(start.plusHours(hour));
+                if (delta != null) {
+                    figures[hour][ASSIGNMENTS] += delta[ASSIGNMENTS];
+                    figures[hour][COMPLETIONS] += delta[COMPLETIONS];
+                }
+            }
+        }
+
+        List<HourCounts> hours = new ArrayList<>(HOURS_PER_DAY);
+        for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+            hours.add(new HourCounts(hour, figures[hour][ASSIGNMENTS], figures[hour][COMPLETIONS]));
+        }
+        return hours;
+    }
+
+    /**
+     * Add the hour counts collected on this node to the stored ones.
+     */
+    public void flush() {
+        Map<LocalDateTime, long[]> drained;
+        synchronized (this) {
+            if (pendingHours.isEmpty()) {
+                return;
+            }
+            drained = new HashMap<>(pendingHours);
+            pendingHours.clear();
+        }
+
+        for (Map.Entry<LocalDateTime, long[]> entry : drained.entrySet()) {
+            LocalDateTime hour = entry.getKey();
+            long[] delta = entry.getValue();
+            if (addHourDeltas(hour, delta)) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> hourlyCounterRepository.saveAndFlush(
+                        new PulseHourlyCounter(hour, delta[ASSIGNMENTS], delta[COMPLETIONS])
+                ));
+            } catch (DataIntegrityViolationException concurrentInsert) {
+                // Another node created the row first.
+                addHourDeltas(hour, delta);
+            }
+        }
+    }
+
+    private boolean addHourDeltas(LocalDateTime hour, long[] delta) {
+        Integer updated = transactionTemplate.execute(status -> hourlyCounterRepository.addDeltas(
+                hour, delta[ASSIGNMENTS], delta[COMPLETIONS]
+        ));
+        return updated != null && updated > 0;
+    }
+
+    /**
+     * Count the event in its hour and mark the user active that day, once committed.
+     */
+    private void record(UserChallenge row, LocalDateTime time, int figure) {
+        if (time == null) {
+            return;
+        }
+        LocalDateTime hour = time.truncatedTo(ChronoUnit.HOURS);
+        Long userId = row.getUser() != null ? row.getUser().getId() : null;
+        Long challengeId = figure == COMPLETIONS && row.getChallenge() != null ? row.getChallenge().getId() : null;
+        afterCommit(() -> {
+            mergeHour(hour, figure);
+            activeUserSketchService.userActive(userId, hour.toLocalDate());
+            trendingChallengeTracker.challengeCompleted(challengeId);
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
+    private synchronized void mergeHour(LocalDateTime hour, int figure) {
+        pendingHours.computeIfAbsent(hour, ignored -> new long[2])[figure]++;
+    }
+}
@@ -0,0 +1,83 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.dto.PulseBreakdownDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-day cache of pulse breakdowns, so every regional view of a day shares one grouped scan.
+ *
+ * A day that was already over when its breakdown was computed is kept as is. Today's breakdown,
+ * or one computed before its day ended, is recomputed once it is older than the freshness window.
+ * Concurrent readers of a stale day wait for a single recomputation. Only the most recent days are kept,
+ * and days after today are rejected, so the cache never holds more than {@link #MAX_CACHED_DAYS} days.
+ */
+@Component
+public class PulseBreakdownCache {
+
+    static final int MAX_CACHED_DAYS = 62;
+
+    private record Entry(PulseBreakdownDto breakdown, boolean complete, long computedAtNanos) {
+    }
+
+    private final PulseService pulseService;
+    private final long freshForNanos;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<LocalDate, Entry> entries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PulseBreakdownCache(PulseService pulseService, @Value("${challenge.pulse.cache.fresh-ms:5000}") long freshMillis) {
+        this(pulseService, freshMillis, System::nanoTime);
+    }
+
+    PulseBreakdownCache(PulseService pulseService, long freshMillis, LongSupplier nanoClock) {
+        if (freshMillis <= 0) {
+            throw new IllegalArgumentException("challenge.pulse.cache.fresh-ms must be positive");
+        }
+        this.pulseService = pulseService;
+        this.freshForNanos = freshMillis * 1_000_000L;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the day is after today
+     */
+    public PulseBreakdownDto get(LocalDate day) {
+        if (day.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("date must not be in the future");
+        }
+
+        Entry current = entries.get(day);
+        if (current != null && isUsable(current)) {
+            return current.breakdown();
+        }
+
+        Entry computed = entries.compute(day, (key, existing) -> {
+            if (existing != null && isUsable(existing)) {
+                return existing;
+            }
+            boolean complete = LocalDate.now().isAfter(key);
+            return new Entry(pulseService.getBreakdown(key), complete, nanoClock.getAsLong());
+        });
+        evictOldDays();
+        return computed.breakdown();
+    }
+
+    private boolean isUsable(Entry entry) {
+        return entry.complete() || nanoClock.getAsLong() - entry.computedAtNanos() < freshForNanos;
+    }
+
+    private void evictOldDays() {
+        if (entries.size() <= MAX_CACHED_DAYS) {
+            return;
+        }
+        LocalDate oldestKept = LocalDate.now().minusDays(MAX_CACHED_DAYS - 1);
+        entries.keySet().removeIf(day -> day.isBefore(oldestKept));
+    }
+}
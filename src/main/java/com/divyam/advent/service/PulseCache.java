@@ -0,0 +1,146 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.dto.ActiveUsersDto;
+import com.divyam.advent.dto.PulseResponseDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Shared stale-while-revalidate cache of today's pulse and active user estimates.
+ *
+ * A value younger than the freshness window is served as is. An older one is still served
+ * while a single background refresh recomputes it, so a burst of readers costs one computation.
+ * Only the first read of a day waits for the pulse to be computed.
+ */
+@Component
+public class PulseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PulseCache.class);
+
+    public record Snapshot(
+            LocalDate day,
+            PulseResponseDto pulse,
+            ActiveUsersDto activeUsers,
+            String etag,
+            long computedAtNanos
+    ) {
+    }
+
+    private final PulseService pulseService;
+    private final Duration freshFor;
+    private final Executor refreshExecutor;
+    private final ExecutorService ownedExecutor;
+    private final LongSupplier nanoClock;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public PulseCache(PulseService pulseService, @Value("${challenge.pulse.cache.fresh-ms:5000}") long freshMillis) {
+        this(pulseService, freshMillis, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pulse-refresh");
+            thread.setDaemon(true);
+            return thread;
+        }), System::nanoTime);
+    }
+
+    PulseCache(PulseService pulseService, long freshMillis, Executor refreshExecutor, LongSupplier nanoClock) {
+        if (freshMillis <= 0) {
+            throw new IllegalArgumentException("challenge.pulse.cache.fresh-ms must be positive");
+        }
+        this.pulseService = pulseService;
+        this.freshFor = Duration.ofMillis(freshMillis);
+        this.refreshExecutor = refreshExecutor;
+        this.ownedExecutor = refreshExecutor instanceof ExecutorService executorService ? executorService : null;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * The current pulse, possibly up to one refresh older than the freshness window.
+     */
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (current == null || !current.day().equals(LocalDate.now())) {
+            return loadBlocking();
+        }
+
+        if (nanoClock.getAsLong() - current.computedAtNanos() >= freshFor.toNanos()) {
+            refreshInBackground();
+        }
+        return current;
+    }
+
+    public Duration getFreshFor() {
+        return freshFor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdownNow();
+        }
+    }
+
+    private synchronized Snapshot loadBlocking() {
+        Snapshot current = snapshot;
+        if (current != null && current.day().equals(LocalDate.now())) {
+            return current;
+        }
+        return compute();
+    }
+
+    private void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    compute();
+                } catch (RuntimeException exception) {
+                    log.warn("Pulse refresh failed, serving the previous value", exception);
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            refreshing.set(false);
+        }
+    }
+
+    private Snapshot compute() {
+        LocalDate day = LocalDate.now();
+        PulseResponseDto pulse = pulseService.getTodayPulse();
+        ActiveUsersDto activeUsers = pulseService.getActiveUsers(day);
+        Snapshot computed = new Snapshot(day, pulse, activeUsers, etagOf(day, pulse), nanoClock.getAsLong());
+        snapshot = computed;
+        return computed;
+    }
+
+    /**
+     * The ETag is the figures themselves, so equal payloads always share a tag across nodes.
+     */
+    private static String etagOf(LocalDate day, PulseResponseDto pulse) {
+        return "\"" + day
+                + "." + pulse.getTotalUsers()
+                + "." + pulse.getCompletedCount()
+                + "." + pulse.getLowMoodCount()
+                + "." + pulse.getNeutralMoodCount()
+                + "." + pulse.getHighMoodCount()
+                + "\"";
+    }
+}
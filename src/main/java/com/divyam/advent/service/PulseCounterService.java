@@ -0,0 +1,425 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.enums.CompletionStatus;
+import com.divyam.advent.enums.Mood;
+import com.divyam.advent.model.PulseDailyCounter;
+import com.divyam.advent.model.UserChallenge;
+import com.divyam.advent.repository.PulseDailyCounterRepository;
+import com.divyam.advent.repository.UserChallengeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Per-day pulse counters maintained from user_challenges writes.
+ *
+ * Writers report what changed. The deltas are kept in memory once the writing transaction commits, each
+ * stamped with when it was merged, and are added to the day's pulse_daily_counters row by {@link #flush()},
+ * so reads cost one keyed lookup. {@link #reconcile(LocalDate)} recounts a day from user_challenges, which
+ * corrects drift from deletes that were never reported or deltas lost on shutdown, and records when the
+ * recount started. Deltas merged before that, on any node, belong to changes the recount already saw and
+ * are dropped instead of added again. A change committed in the instant between its commit and its merge,
+ * or a clock difference between nodes, can still be counted twice until the next recount.
+ * {@link #freezeThrough(LocalDate)} recounts finished days a last time and freezes them as history.
+ *
+ * Pre-assigned rows are left out until their user first touches them, because the nightly job writes
+ * them for the whole active population at once; {@link #rowClaimed} then counts them like a new row.
+ * Assignments and completions are also reported to {@link PulseActivityService}.
+ */
+@Service
+public class PulseCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(PulseCounterService.class);
+
+    private static final int USERS = 0;
+    private static final int COMPLETED = 1;
+    private static final int LOW = 2;
+    private static final int NEUTRAL = 3;
+    private static final int HIGH = 4;
+    private static final int FIGURES = 5;
+
+    public record Counts(
+            long totalUsers,
+            long completedCount,
+            long lowMoodCount,
+            long neutralMoodCount,
+            long highMoodCount
+    ) {
+    }
+
+    private record Delta(LocalDateTime mergedAt, long[] figures) {
+    }
+
+    private final PulseDailyCounterRepository counterRepository;
+    private final PulseActivityService pulseActivityService;
+    private final UserChallengeRepository userChallengeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<LocalDate, List<Delta>> pending = new HashMap<>();
+
+    public PulseCounterService(
+            PulseDailyCounterRepository counterRepository,
+            PulseActivityService pulseActivityService,
+            UserChallengeRepository userChallengeRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.counterRepository = counterRepository;
+        this.pulseActivityService = pulseActivityService;
+        this.userChallengeRepository = userChallengeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * A user_challenges row was inserted.
+     * @param firstForUser whether the user had no other row on that day before
+     */
+    public void rowAdded(UserChallenge row, boolean firstForUser) {
+        if (row.isPreassigned()) {
+            return;
+        }
+        countRow(row, firstForUser);
+        pulseActivityService.assigned(row, row.getStartTime());
+        if (row.getStatus() == CompletionStatus.COMPLETED) {
+            pulseActivityService.completed(row, completedAt(row));
+        }
+    }
+
+    /**
+     * The user touched a pre-assigned row for the first time and it is no longer marked pre-assigned.
+     * The row carries its current values and is counted from now on, as if it had just been assigned.
+     * @param firstForUser whether the user had no other counted row on that day before
+     */
+    public void rowClaimed(UserChallenge row, boolean firstForUser) {
+        countRow(row, firstForUser);
+        pulseActivityService.assigned(row, LocalDateTime.now());
+        if (row.getStatus() == CompletionStatus.COMPLETED) {
+            pulseActivityService.completed(row, completedAt(row));
+        }
+    }
+
+    /**
+     * A user_challenges row was deleted.
+     * @param lastForUser whether the user has no other row left on that day
+     */
+    public void rowRemoved(UserChallenge row, boolean lastForUser) {
+        if (row.isPreassigned()) {
+            return;
+        }
+        long[] delta = new long[FIGURES];
+        delta[USERS] = lastForUser ? -1 : 0;
+        count(delta, row.getStatus(), row.getMood(), -1);
+        record(dayOf(row), delta);
+    }
+
+    /**
+     * A row's status or mood changed. The row carries the new values.
+     */
+    public void rowChanged(UserChallenge row, CompletionStatus previousStatus, Mood previousMood) {
+        if (row.isPreassigned()) {
+            return;
+        }
+        long[] delta = new long[FIGURES];
+        count(delta, previousStatus, previousMood, -1);
+        count(delta, row.getStatus(), row.getMood(), 1);
+        record(dayOf(row), delta);
+        if (previousStatus != CompletionStatus.COMPLETED && row.getStatus() == CompletionStatus.COMPLETED) {
+            pulseActivityService.completed(row, completedAt(row));
+        }
+    }
+
+    /**
+     * A day's figures in one keyed read, plus changes on this node that are not flushed yet.
+     * A day without a counter row is read straight from user_challenges and nothing is stored;
+     * the next flush or reconcile creates the row.
+     */
+    public Counts counts(LocalDate day) {
+        PulseDailyCounter counter = counterRepository.findById(day).orElse(null);
+        if (counter == null) {
+            UserChallengeRepository.PulseCountsProjection counts = userChallengeRepository.aggregatePulse(
+                    day.atStartOfDay(), day.plusDays(1).atStartOfDay()
+            );
+            return new Counts(
+                    counts.getTotalUsers(),
+                    counts.getCompletedCount(),
+                    counts.getLowMoodCount(),
+                    counts.getNeutralMoodCount(),
+                    counts.getHighMoodCount()
+            );
+        }
+
+        long[] unflushed;
+        synchronized (this) {
+            unflushed = sumMergedSince(pending.get(day), counter.getReconciledAt());
+        }
+        return new Counts(
+                counter.getTotalUsers() + unflushed[USERS],
+                counter.getCompletedCount() + unflushed[COMPLETED],
+                counter.getLowMoodCount() + unflushed[LOW],
+                counter.getNeutralMoodCount() + unflushed[NEUTRAL],
+                counter.getHighMoodCount() + unflushed[HIGH]
+        );
+    }
+
+    /**
+     * Stored counters for every day in a range that has a row, frozen or not, keyed by day.
+     * Days without a row had no activity or have not been counted yet; unflushed deltas are not included.
+     */
+    public Map<LocalDate, Counts> history(LocalDate from, LocalDate to) {
+        Map<LocalDate, Counts> history = new HashMap<>();
+        for (PulseDailyCounter counter : counterRepository.findByDayBetweenOrderByDayAsc(from, to)) {
+            history.put(counter.getDay(), new Counts(
+                    counter.getTotalUsers(),
+                    counter.getCompletedCount(),
+                    counter.getLowMoodCount(),
+                    counter.getNeutralMoodCount(),
+                    counter.getHighMoodCount()
+            ));
+        }
+        return history;
+    }
+
+    /**
+     * Add the deltas collected on this node to the stored counters, leaving out those merged before
+     * the day was last recounted.
+     */
+    public void flush() {
+        Map<LocalDate, List<Delta>> drained;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            drained = new HashMap<>(pending);
+            pending.clear();
+        }
+
+        for (Map.Entry<LocalDate, List<Delta>> entry : drained.entrySet()) {
+            LocalDate day = entry.getKey();
+            List<Delta> deltas = entry.getValue();
+            Boolean stored = transactionTemplate.execute(status -> {
+                PulseDailyCounter counter = counterRepository.findByDayForUpdate(day).orElse(null);
+                if (counter == null) {
+                    return false;
+                }
+                long[] delta = sumMergedSince(deltas, counter.getReconciledAt());
+                if (!counter.isFinalized() && !isZero(delta)) {
+                    counterRepository.addDeltas(day, delta[USERS], delta[COMPLETED], delta[LOW], delta[NEUTRAL], delta[HIGH]);
+                }
+                return true;
+            });
+            if (!Boolean.TRUE.equals(stored)) {
+                // No row yet: recount the day, which already includes these committed changes.
+                reconcile(day);
+            }
+        }
+    }
+
+    /**
+     * Recompute a day's counters from user_challenges and store them. Frozen days are returned unchanged.
+     */
+    public PulseDailyCounter reconcile(LocalDate day) {
+        PulseDailyCounter reconciled = recount(day);
+
+        // Deltas merged before the recount belong to committed changes it already saw.
+        synchronized (this) {
+            List<Delta> deltas = pending.get(day);
+            if (deltas != null) {
+                LocalDateTime reconciledAt = reconciled.getReconciledAt();
+                deltas.removeIf(delta -> reconciled.isFinalized()
+                        || reconciledAt != null && delta.mergedAt().isBefore(reconciledAt));
+                if (deltas.isEmpty()) {
+                    pending.remove(day);
+                }
+            }
+        }
+        return reconciled;
+    }
+
+    private PulseDailyCounter recount(LocalDate day) {
+        try {
+            return transactionTemplate.execute(status -> {
+                PulseDailyCounter counter = counterRepository.findByDayForUpdate(day)
+                        .orElseGet(() -> new PulseDailyCounter(day));
+                if (counter.isFinalized()) {
+                    return counter;
+                }
+                LocalDateTime recountedAt = LocalDateTime.now();
+                UserChallengeRepository.PulseCountsProjection counts = userChallengeRepository.aggregatePulse(
+                        day.atStartOfDay(), day.plusDays(1).atStartOfDay()
+                );
+                if (counter.getReconciledAt() != null && counter.getTotalUsers() != counts.getTotalUsers()) {
+                    log.info("Pulse counters for {} drifted: {} users counted, {} in user_challenges",
+                            day, counter.getTotalUsers(), counts.getTotalUsers());
+                }
+                apply(counter, counts, recountedAt);
+                return counterRepository.saveAndFlush(counter);
+            });
+        } catch (DataIntegrityViolationException concurrentInsert) {
+            // Another node created the row first; its figures come from the same source.
+            return counterRepository.findById(day)
+                    .orElseThrow(() -> concurrentInsert);
+        }
+    }
+
+    /**
+     * Recount every day after the last frozen one up to and including lastDay in one grouped scan,
+     * and freeze them. The first run backfills the whole history of user_challenges.
+     * @param lastDay the last day to freeze, normally yesterday
+     * @return number of days frozen
+     */
+    public int freezeThrough(LocalDate lastDay) {
+        Integer frozen = transactionTemplate.execute(status -> {
+            Optional<LocalDate> firstDay = counterRepository.findLastFinalizedDay()
+                    .map(day -> day.plusDays(1))
+                    .or(() -> userChallengeRepository.findEarliestStartTime().map(LocalDateTime::toLocalDate));
+            if (firstDay.isEmpty() || firstDay.get().isAfter(lastDay)) {
+                return 0;
+            }
+
+            Map<LocalDate, PulseDailyCounter> open = new HashMap<>();
+            for (PulseDailyCounter counter : counterRepository.findByDayBetweenOrderByDayAsc(firstDay.get(), lastDay)) {
+                open.put(counter.getDay(), counter);
+            }
+
+            List<PulseDailyCounter> finalized = new ArrayList<>();
+            LocalDateTime recountedAt = LocalDateTime.now();
+            for (UserChallengeRepository.DailyPulseCountsProjection counts : userChallengeRepository.aggregatePulseByDay(
+                    firstDay.get().atStartOfDay(), lastDay.plusDays(1).atStartOfDay())) {
+                PulseDailyCounter counter = open.remove(counts.getDay());
+                if (counter == null) {
+                    counter = new PulseDailyCounter(counts.getDay());
+                }
+                apply(counter, counts, recountedAt);
+                counter.setFinalized(true);
+                finalized.add(counter);
+            }
+            // Days whose rows were all deleted since they were counted.
+            for (PulseDailyCounter emptied : open.values()) {
+                emptied.setTotalUsers(0);
+                emptied.setCompletedCount(0);
+                emptied.setLowMoodCount(0);
+                emptied.setNeutralMoodCount(0);
+                emptied.setHighMoodCount(0);
+                emptied.setReconciledAt(recountedAt);
+                emptied.setFinalized(true);
+                finalized.add(emptied);
+            }
+            counterRepository.saveAll(finalized);
+            return finalized.size();
+        });
+
+        synchronized (this) {
+            pending.keySet().removeIf(day -> !day.isAfter(lastDay));
+        }
+        return frozen != null ? frozen : 0;
+    }
+
+    private static void apply(
+            PulseDailyCounter counter,
+            UserChallengeRepository.PulseCountsProjection counts,
+            LocalDateTime recountedAt
+    ) {
+        counter.setTotalUsers(counts.getTotalUsers());
+        counter.setCompletedCount(counts.getCompletedCount());
+        counter.setLowMoodCount(counts.getLowMoodCount());
+        counter.setNeutralMoodCount(counts.getNeutralMoodCount());
+        counter.setHighMoodCount(counts.getHighMoodCount());
+        counter.setReconciledAt(recountedAt);
+    }
+
+    private void countRow(UserChallenge row, boolean firstForUser) {
+        long[] delta = new long[FIGURES];
+        delta[USERS] = firstForUser ? 1 : 0;
+        count(delta, row.getStatus(), row.getMood(), 1);
+        record(dayOf(row), delta);
+    }
+
+    private static void count(long[] delta, CompletionStatus status, Mood mood, long sign) {
+        if (status == CompletionStatus.COMPLETED) {
+            delta[COMPLETED] += sign;
+        }
+        if (mood != null) {
+            switch (mood) {
+                case LOW -> delta[LOW] += sign;
+                case NEUTRAL -> delta[NEUTRAL] += sign;
+                case HIGH -> delta[HIGH] += sign;
+            }
+        }
+    }
+
+    private static LocalDate dayOf(UserChallenge row) {
+        return row.getStartTime() != null ? row.getStartTime().toLocalDate() : null;
+    }
+
+    private static LocalDateTime completedAt(UserChallenge row) {
+        return row.getCompletionTime() != null ? row.getCompletionTime() : LocalDateTime.now();
+    }
+
+    /**
+     * Keep the delta once the surrounding transaction commits, or right away outside one.
+     */
+    private void record(LocalDate day, long[] delta) {
+        if (day == null || isZero(delta)) {
+            return;
+        }
+
+        afterCommit(() -> merge(day, delta));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
+    private synchronized void merge(LocalDate day, long[] delta) {
+        pending.computeIfAbsent(day, ignored -> new ArrayList<>()).add(new Delta(LocalDateTime.now(), delta));
+    }
+
+    /**
+     * Sum of the deltas merged at or after the given time, or of all of them when it is null.
+     */
+    private static long[] sumMergedSince(List<Delta> deltas, LocalDateTime since) {
+        long[] total = new long[FIGURES];
+        if (deltas == null) {
+            return total;
+        }
+        for (Delta delta : deltas) {
+            if (since != null && delta.mergedAt().isBefore(since)) {
+                continue;
+            }
+            for (int figure = 0; figure < FIGURES; figure++) {
+                total[figure] += delta.figures()[figure];
+            }
+        }
+        return total;
+    }
+
+    private static boolean isZero(long[] delta) {
+        for (long value : delta) {
+            if (value != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,6 +1,14 @@
 package com.divyam.advent.service;
 
+import com.divyam.advent.dto.ActiveUsersDto;
+import com.divyam.advent.dto.PulseBreakdownDto;
+import com.divyam.advent.dto.PulseHistoryPointDto;
+import com.divyam.advent.dto.PulseHourlyActivityDto;
 import com.divyam.advent.dto.PulseResponseDto;
+import com.divyam.advent.enums.PulseGranularity;
+
+import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Service interface for Global Student Pulse analytics.
@@ -15,4 +23,41 @@ public interface PulseService {
      * @return PulseResponseDto containing today's analytics
      */
     PulseResponseDto getTodayPulse();
+
+    /**
+     * Get the pulse history for a date range, one point per day, week or month.
+     * Finished days come from the frozen daily rollup, so the range is served without scanning user_challenges.
+     *
+     * @param from first day, inclusive
+     * @param to last day, inclusive
+     * @param granularity period length of each point
+     * @return one point per period in the range, oldest first, with zeros for days without activity
+     */
+    List<PulseHistoryPointDto> getHistory(LocalDate from, LocalDate to, PulseGranularity granularity);
+
+    /**
+     * Get one day's pulse broken down by user culture and by challenge energy level,
+     * computed from a single grouped scan of that day's challenges.
+     *
+     * @param day the day to break down
+     * @return the per-culture and per-energy-level pulse figures
+     */
+    PulseBreakdownDto getBreakdown(LocalDate day);
+
+    /**
+     * Get assignments and completions per hour of a day from the counters kept on write.
+     *
+     * @param day the day to report
+     * @return 24 hourly buckets starting at midnight
+     */
+    PulseHourlyActivityDto getHourlyActivity(LocalDate day);
+
+    /**
+     * Get estimated daily, weekly and monthly active users for the windows ending on a day,
+     * merged from per-day sketches in one read of at most 30 rows.
+     *
+     * @param day the last day of each window
+     * @return estimated active users for 1, 7 and 30 days
+     */
+    ActiveUsersDto getActiveUsers(LocalDate day);
 }
@@ -1,13 +1,28 @@
 package com.divyam.advent.service;
 
+import com.divyam.advent.dto.ActiveUsersDto;
+import com.divyam.advent.dto.PulseBreakdownDto;
+import com.divyam.advent.dto.PulseHistoryPointDto;
+import com.divyam.advent.dto.PulseHourlyActivityDto;
 import com.divyam.advent.dto.PulseResponseDto;
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.enums.EnergyLevel;
+import com.divyam.advent.enums.PulseGranularity;
 import com.divyam.advent.repository.UserChallengeRepository;
+import com.divyam.advent.util.HyperLogLog;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Implementation of PulseService.
@@ -16,41 +31,201 @@ import java.time.format.DateTimeFormatter;
 @Service
 public class PulseServiceImpl implements PulseService {
 
+    private static final int MAX_HISTORY_DAYS = 1096;
+
+    private static final int USERS = 0;
+    private static final int COMPLETED = 1;
+    private static final int LOW = 2;
+    private static final int NEUTRAL = 3;
+    private static final int HIGH = 4;
+
+    private static final int WEEK_DAYS = 7;
+    private static final int MONTH_DAYS = 30;
+
+    private final PulseCounterService pulseCounterService;
+    private final PulseActivityService pulseActivityService;
+    private final ActiveUserSketchService activeUserSketchService;
     private final UserChallengeRepository userChallengeRepository;
 
     @Autowired
-    public PulseServiceImpl(UserChallengeRepository userChallengeRepository) {
+    public PulseServiceImpl(
+            PulseCounterService pulseCounterService,
+            PulseActivityService pulseActivityService,
+            ActiveUserSketchService activeUserSketchService,
+            UserChallengeRepository userChallengeRepository
+    ) {
+        this.pulseCounterService = pulseCounterService;
+        this.pulseActivityService = pulseActivityService;
+        this.activeUserSketchService = activeUserSketchService;
         this.userChallengeRepository = userChallengeRepository;
     }
 
     @Override
     public PulseResponseDto getTodayPulse() {
-        // 1. Define today's date range
+        // 1. Read today's maintained counters
         LocalDate today = LocalDate.now();
-        LocalDateTime startOfToday = today.atStartOfDay();        // 00:00:00
-        LocalDateTime endOfToday = today.atTime(23, 59, 59);      // 23:59:59
-
-        // 2. Query all statistics using efficient COUNT queries
-        long totalUsers = userChallengeRepository.countDistinctUsersToday(startOfToday, endOfToday);
-        long completedCount = userChallengeRepository.countCompletedToday(startOfToday, endOfToday);
-        long lowMoodCount = userChallengeRepository.countLowMoodToday(startOfToday, endOfToday);
-        long neutralMoodCount = userChallengeRepository.countNeutralMoodToday(startOfToday, endOfToday);
-        long highMoodCount = userChallengeRepository.countHighMoodToday(startOfToday, endOfToday);
-
-        // 3. Handle edge case: no data today
-        if (totalUsers == 0) {
+        PulseCounterService.Counts counts = pulseCounterService.counts(today);
+
+        // 2. Handle edge case: no data today
+        if (counts.totalUsers() == 0) {
             return new PulseResponseDto();
         }
 
-        // 4. Build and return the response
+        // 3. Build and return the response
         String dateString = today.format(DateTimeFormatter.ISO_LOCAL_DATE); // YYYY-MM-DD
         return new PulseResponseDto(
                 dateString,
-                totalUsers,
-                completedCount,
-                lowMoodCount,
-                neutralMoodCount,
-                highMoodCount
+                counts.totalUsers(),
+                counts.completedCount(),
+                counts.lowMoodCount(),
+                counts.neutralMoodCount(),
+                counts.highMoodCount()
         );
     }
+
+    @Override
+    public List<PulseHistoryPointDto> getHistory(LocalDate from, LocalDate to, PulseGranularity granularity) {
+        if (from == null || to == null || granularity == null) {
+            throw new IllegalArgumentException("from, to and granularity are required");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_HISTORY_DAYS) {
+            throw new IllegalArgumentException("History range must not exceed " + MAX_HISTORY_DAYS + " days");
+        }
+
+        Map<LocalDate, PulseCounterService.Counts> days = pulseCounterService.history(from, to);
+
+        List<PulseHistoryPointDto> points = new ArrayList<>();
+        LocalDate periodStart = from;
+        while (!periodStart.isAfter(to)) {
+            LocalDate periodEnd = periodEnd(periodStart, granularity);
+            if (periodEnd.isAfter(to)) {
+                periodEnd = to;
+            }
+
+            long userDays = 0;
+            long completed = 0;
+            long low = 0;
+            long neutral = 0;
+            long high = 0;
+            for (LocalDate day = periodStart; !day.isAfter(periodEnd); day = day.plusDays(1)) {
+                PulseCounterService.Counts counts = days.get(day);
+                if (counts != null) {
+                    userDays += counts.totalUsers();
+                    completed += counts.completedCount();
+                    low += counts.lowMoodCount();
+                    neutral += counts.neutralMoodCount();
+                    high += counts.highMoodCount();
+                }
+            }
+
+            long periodDays = ChronoUnit.DAYS.between(periodStart, periodEnd) + 1;
+            points.add(new PulseHistoryPointDto(
+                    periodStart,
+                    periodEnd,
+                    userDays,
+                    (double) userDays / periodDays,
+                    completed,
+                    userDays > 0 ? completed * 100.0 / userDays : 0.0,
+                    low,
+                    neutral,
+                    high
+            ));
+            periodStart = periodEnd.plusDays(1);
+        }
+        return points;
+    }
+
+    @Override
+    public PulseBreakdownDto getBreakdown(LocalDate day) {
+        if (day == null) {
+            throw new IllegalArgumentException("day is required");
+        }
+
+        // Both breakdowns are marginals of one (culture, energy level) grouping. Users are distinct per segment,
+        // which sums correctly per energy level because a user has one culture, but not per culture:
+        // a user can have challenges at several energy levels, so those user counts are queried separately.
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = day.plusDays(1).atStartOfDay();
+        long[][] byCulture = new long[Culture.values().length][5];
+        long[][] byEnergyLevel = new long[EnergyLevel.values().length][5];
+        for (UserChallengeRepository.SegmentPulseCountsProjection segment
+                : userChallengeRepository.aggregatePulseBySegment(start, end)) {
+            add(byCulture[cultureOf(segment.getCulture()).ordinal()], segment);
+            add(byEnergyLevel[segment.getEnergyLevel().ordinal()], segment);
+        }
+        for (long[] figures : byCulture) {
+            figures[USERS] = 0;
+        }
+        for (UserChallengeRepository.CultureUserCountProjection users
+                : userChallengeRepository.countUsersByCulture(start, end)) {
+            byCulture[cultureOf(users.getCulture()).ordinal()][USERS] += users.getTotalUsers();
+        }
+
+        String dateString = day.format(DateTimeFormatter.ISO_LOCAL_DATE);
+        Map<Culture, PulseResponseDto> cultures = new EnumMap<>(Culture.class);
+        for (Culture culture : Culture.values()) {
+            cultures.put(culture, toPulse(dateString, byCulture[culture.ordinal()]));
+        }
+        Map<EnergyLevel, PulseResponseDto> energyLevels = new EnumMap<>(EnergyLevel.class);
+        for (EnergyLevel energyLevel : EnergyLevel.values()) {
+            energyLevels.put(energyLevel, toPulse(dateString, byEnergyLevel[energyLevel.ordinal()]));
+        }
+        return new PulseBreakdownDto(dateString, cultures, energyLevels);
+    }
+
+    @Override
+    public PulseHourlyActivityDto getHourlyActivity(LocalDate day) {
+        if (day == null) {
+            throw new IllegalArgumentException("day is required");
+        }
+
+        List<PulseHourlyActivityDto.HourBucket> hours = pulseActivityService.hourly(day).stream()
+                .map(counts -> new PulseHourlyActivityDto.HourBucket(
+                        counts.hour(), counts.assignments(), counts.completions()))
+                .toList();
+        return new PulseHourlyActivityDto(day.format(DateTimeFormatter.ISO_LOCAL_DATE), hours);
+    }
+
+    @Override
+    public ActiveUsersDto getActiveUsers(LocalDate day) {
+        if (day == null) {
+            throw new IllegalArgumentException("day is required");
+        }
+
+        // Oldest first, so the last 1 and 7 entries are the shorter windows.
+        List<HyperLogLog> month = activeUserSketchService.sketches(day.minusDays(MONTH_DAYS - 1), day);
+        return new ActiveUsersDto(
+                day.format(DateTimeFormatter.ISO_LOCAL_DATE),
+                month.get(MONTH_DAYS - 1).estimate(),
+                ActiveUserSketchService.union(month.subList(MONTH_DAYS - WEEK_DAYS, MONTH_DAYS)).estimate(),
+                ActiveUserSketchService.union(month).estimate()
+        );
+    }
+
+    private static Culture cultureOf(Culture culture) {
+        return culture != null ? culture : Culture.GLOBAL;
+    }
+
+    private static void add(long[] figures, UserChallengeRepository.PulseCountsProjection counts) {
+        figures[USERS] += counts.getTotalUsers();
+        figures[COMPLETED] += counts.getCompletedCount();
+        figures[LOW] += counts.getLowMoodCount();
+        figures[NEUTRAL] += counts.getNeutralMoodCount();
+        figures[HIGH] += counts.getHighMoodCount();
+    }
+
+    private static PulseResponseDto toPulse(String date, long[] figures) {
+        return new PulseResponseDto(date, figures[USERS], figures[COMPLETED], figures[LOW], figures[NEUTRAL], figures[HIGH]);
+    }
+
+    private static LocalDate periodEnd(LocalDate day, PulseGranularity granularity) {
+        return switch (granularity) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+            case MONTH -> day.with(TemporalAdjusters.lastDayOfMonth());
+        };
+    }
 }
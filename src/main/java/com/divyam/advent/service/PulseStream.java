@@ -0,0 +1,200 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.dto.PulseResponseDto;
+import com.divyam.advent.exception.StreamCapacityExceededException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fans today's pulse out to Server-Sent Events subscribers.
+ *
+ * A single scheduled producer reads the shared {@link PulseCache} once per interval and pushes only when
+ * the figures changed, so any burst of writes turns into at most one push per interval, whatever the
+ * number of subscribers. Each subscriber holds at most one undelivered push: a newer one replaces it.
+ * Sends run on a small pool, never on the producer, and a subscriber that is still behind after
+ * {@link #MAX_MISSED_PUSHES} pushes is disconnected; the browser's EventSource reconnects on its own.
+ */
+@Component
+public class PulseStream {
+
+    static final int MAX_MISSED_PUSHES = 3;
+    static final long TIMEOUT_MILLIS = 15 * 60 * 1000L;
+    static final long RETRY_AFTER_SECONDS = 30;
+    private static final int SENDER_THREADS = 4;
+
+    private record Push(String etag, PulseResponseDto pulse) {
+    }
+
+    private final PulseCache pulseCache;
+    private final int maxSubscribers;
+    private final Executor sendExecutor;
+    private final ExecutorService ownedExecutor;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private volatile Push latest;
+
+    @Autowired
+    public PulseStream(
+            PulseCache pulseCache,
+            @Value("${challenge.pulse.stream.max-subscribers:1000}") int maxSubscribers
+    ) {
+        this(pulseCache, maxSubscribers, Executors.newFixedThreadPool(SENDER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "pulse-stream");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    PulseStream(PulseCache pulseCache, int maxSubscribers, Executor sendExecutor) {
+        if (maxSubscribers <= 0) {
+            throw new IllegalArgumentException("challenge.pulse.stream.max-subscribers must be positive");
+        }
+        this.pulseCache = pulseCache;
+        this.maxSubscribers = maxSubscribers;
+        this.sendExecutor = sendExecutor;
+        this.ownedExecutor = sendExecutor instanceof ExecutorService executorService ? executorService : null;
+    }
+
+    /**
+     * Open a stream that starts with the current pulse.
+     * @throws StreamCapacityExceededException when this node already holds max-subscribers streams
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(TIMEOUT_MILLIS));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new StreamCapacityExceededException(
+                    "Too many pulse stream subscribers, try again later", RETRY_AFTER_SECONDS);
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        Push current = latest;
+        subscriber.offer(current != null ? current : pushOf(pulseCache.get()));
+        return emitter;
+    }
+
+    /**
+     * Push the pulse to every subscriber if it changed since the last push.
+     */
+    @Scheduled(fixedDelayString = "${challenge.pulse.stream.interval-ms:5000}")
+    public void publish() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Push push = pushOf(pulseCache.get());
+        Push previous = latest;
+        if (previous != null && previous.etag().equals(push.etag())) {
+            return;
+        }
+        latest = push;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(push);
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdownNow();
+        }
+    }
+
+    private static Push pushOf(PulseCache.Snapshot snapshot) {
+        return new Push(snapshot.etag(), snapshot.pulse());
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicReference<Push> pending = new AtomicReference<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicInteger missed = new AtomicInteger();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Push push) {
+            // The previous push is still waiting, so this subscriber reads slower than we publish.
+            if (pending.getAndSet(push) != null && missed.incrementAndGet() >= MAX_MISSED_PUSHES) {
+                drop();
+                return;
+            }
+            scheduleSend();
+        }
+
+        private void scheduleSend() {
+            if (!sending.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sendExecutor.execute(this::sendPending);
+            } catch (RejectedExecutionException exception) {
+                sending.set(false);
+                drop();
+            }
+        }
+
+        private void sendPending() {
+            try {
+                Push push;
+                while ((push = pending.getAndSet(null)) != null) {
+                    missed.set(0);
+                    emitter.send(SseEmitter.event().id(push.etag()).name("pulse").data(push.pulse()));
+                }
+            } catch (IOException | IllegalStateException exception) {
+                subscribers.remove(this);
+                emitter.completeWithError(exception);
+                return;
+            } finally {
+                sending.set(false);
+            }
+            // A push offered while the loop was finishing would otherwise wait for the next one.
+            if (pending.get() != null) {
+                scheduleSend();
+            }
+        }
+
+        private void drop() {
+            if (!subscribers.remove(this)) {
+                return;
+            }
+            pending.set(null);
+            // Completing may wait for a send blocked on this subscriber, so never do it on the producer.
+            try {
+                sendExecutor.execute(emitter::complete);
+            } catch (RejectedExecutionException exception) {
+                // Shutting down; the container closes the connection.
+            }
+        }
+    }
+}
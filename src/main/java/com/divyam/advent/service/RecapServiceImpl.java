@@ -2,14 +2,13 @@ package com.divyam.advent.service;
 
 import com.divyam.advent.dto.MonthlyRecapResponseDto;
 import com.divyam.advent.dto.RecapPhotoPreviewDto;
-import com.divyam.advent.enums.CompletionStatus;
 import com.divyam.advent.exception.ResourceNotFoundException;
 import com.divyam.advent.model.Photo;
-import com.divyam.advent.model.UserChallenge;
 import com.divyam.advent.repository.PhotoRepository;
 import com.divyam.advent.repository.TimeCapsuleRepository;
 import com.divyam.advent.repository.UserChallengeRepository;
 import com.divyam.advent.repository.UserRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,7 +18,6 @@ import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -123,62 +121,19 @@ public class RecapServiceImpl implements RecapService {
     }
 
     private StreakStats calculateStreakStats(Long userId) {
-        List<UserChallenge> completedChallenges = userChallengeRepository.findByUser_IdAndStatus(
-                userId,
-                CompletionStatus.COMPLETED
-        );
-
-        Set<LocalDate> completedDays = completedChallenges.stream()
-                .map(challenge -> {
-                    LocalDateTime moment = challenge.getCompletionTime() != null
-                            ? challenge.getCompletionTime()
-                            : challenge.getStartTime();
-                    return moment != null ? moment.toLocalDate() : null;
-                })
-                .filter(day -> day != null)
-                .collect(Collectors.toSet());
-
-        if (completedDays.isEmpty()) {
+        List<UserChallengeRepository.CompletionStreakProjection> streaks =
+                userChallengeRepository.findLatestCompletionStreak(userId, LocalDate.EPOCH, PageRequest.of(0, 1));
+        if (streaks.isEmpty()) {
             return new StreakStats(0, 0);
         }
 
-        List<LocalDate> sortedDays = completedDays.stream()
-                .sorted()
-                .collect(Collectors.toList());
-
-        int longestStreak = 1;
-        int runningLongest = 1;
-        for (int i = 1; i < sortedDays.size(); i++) {
-            long gap = ChronoUnit.DAYS.between(sortedDays.get(i - 1), sortedDays.get(i));
-            if (gap == 1) {
-                runningLongest += 1;
-            } else {
-                runningLongest = 1;
-            }
-            if (runningLongest > longestStreak) {
-                longestStreak = runningLongest;
-            }
-        }
-
-        LocalDate today = LocalDate.now();
-        LocalDate latestCompletedDay = sortedDays.get(sortedDays.size() - 1);
-        long gapFromToday = ChronoUnit.DAYS.between(latestCompletedDay, today);
-
+        UserChallengeRepository.CompletionStreakProjection latest = streaks.get(0);
+        int longestStreak = (int) latest.getLongest();
+        long gapFromToday = ChronoUnit.DAYS.between(latest.getLastDay(), LocalDate.now());
         if (gapFromToday > 1 || gapFromToday < 0) {
             return new StreakStats(0, longestStreak);
         }
-
-        int currentStreak = 1;
-        for (int i = sortedDays.size() - 1; i > 0; i--) {
-            long gap = ChronoUnit.DAYS.between(sortedDays.get(i - 1), sortedDays.get(i));
-            if (gap == 1) {
-                currentStreak += 1;
-            } else {
-                break;
-            }
-        }
-
-        return new StreakStats(currentStreak, longestStreak);
+        return new StreakStats((int) latest.getDays(), longestStreak);
     }
 
     private record StreakStats(int currentStreak, int longestStreak) {
@@ -0,0 +1,160 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.model.User;
+import com.divyam.advent.repository.UserRepository;
+import com.divyam.advent.util.DayBitmap;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keeps each user's streak state on the user row: the last day with a completion, the streak ending
+ * on that day and the longest streak so far.
+ *
+ * A completion advances the state in O(1). A missed day is noticed lazily: the streak reads as 0 once
+ * the last completion is older than yesterday. Changes that cannot be applied incrementally, such as
+ * a completion being withdrawn, flag the user, and the state is then rebuilt from their completion calendar.
+ * These methods only change the entity; callers lock the user row, pass the managed entity and save it.
+ */
+@Service
+public class StreakService {
+
+    static final int REPAIR_BATCH_SIZE = 500;
+
+    public record Snapshot(int current, int longest) {
+    }
+
+    private final UserRepository userRepository;
+    private final CompletionCalendarService completionCalendarService;
+    private final TransactionTemplate transactionTemplate;
+
+    public StreakService(
+            UserRepository userRepository,
+            CompletionCalendarService completionCalendarService,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.userRepository = userRepository;
+        this.completionCalendarService = completionCalendarService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Count a completion on the given day.
+     * @return whether the user changed
+     */
+    public boolean recordCompletion(User user, LocalDate day) {
+        if (user.isStreakNeedsRepair()) {
+            return rebuild(user);
+        }
+
+        LocalDate last = user.getLastCompletionDay();
+        if (last != null && !last.isBefore(day)) {
+            return false;
+        }
+
+        int streak = last != null && last.equals(day.minusDays(1)) ? streakOf(user) + 1 : 1;
+        user.setLastCompletionDay(day);
+        user.setStreak(streak);
+        if (streak > longestOf(user)) {
+            user.setLongestStreak(streak);
+        }
+        return true;
+    }
+
+    /**
+     * Bring the stored state up to date for reading on the given day: rebuild it if the user is flagged,
+     * and reset the current streak once a day has been missed.
+     * @return whether the user changed
+     */
+    public boolean refresh(User user, LocalDate today) {
+        boolean changed = user.isStreakNeedsRepair() && rebuild(user);
+
+        LocalDate last = user.getLastCompletionDay();
+        if ((last == null || last.isBefore(today.minusDays(1))) && streakOf(user) != 0) {
+            user.setStreak(0);
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * The user's streaks as read on the given day, without changing the user. A flagged user is read
+     * from their completion calendar instead of the stale stored state; this takes no lock and stores nothing.
+     */
+    public Snapshot snapshot(User user, LocalDate today) {
+        if (user.isStreakNeedsRepair()) {
+            DayBitmap days = completionCalendarService.calendar(user.getId());
+            int current = Math.max(days.runEndingAt(today), days.runEndingAt(today.minusDays(1)));
+            return new Snapshot(current, days.longestRun());
+        }
+
+        LocalDate last = user.getLastCompletionDay();
+        boolean lapsed = last == null || last.isBefore(today.minusDays(1));
+        return new Snapshot(lapsed ? 0 : streakOf(user), longestOf(user));
+    }
+
+    /**
+     * Mark the user's streak state as out of date, for example after a completion is withdrawn.
+     */
+    public void invalidate(User user) {
+        user.setStreakNeedsRepair(true);
+    }
+
+    /**
+     * Recompute the streak state from the user's completion calendar, itself rebuilt from their completions.
+     * @return whether the user changed
+     */
+    public boolean rebuild(User user) {
+        DayBitmap days = completionCalendarService.rebuild(user.getId());
+        LocalDate last = days.lastDay();
+        int latestRun = last != null ? days.runEndingAt(last) : 0;
+        int longest = days.longestRun();
+
+        boolean changed = user.isStreakNeedsRepair()
+                || !Objects.equals(user.getLastCompletionDay(), last)
+                || streakOf(user) != latestRun
+                || longestOf(user) != longest;
+        user.setLastCompletionDay(last);
+        user.setStreak(latestRun);
+        user.setLongestStreak(longest);
+        user.setStreakNeedsRepair(false);
+        return changed;
+    }
+
+    /**
+     * Rebuild every flagged user, one batch per transaction.
+     * @return number of users rebuilt
+     */
+    public int repairFlagged() {
+        int repaired = 0;
+        while (true) {
+            Integer batch = transactionTemplate.execute(status -> {
+                List<User> users = userRepository.findByStreakNeedsRepairTrueOrderByIdAsc(
+                        PageRequest.of(0, REPAIR_BATCH_SIZE));
+                users.forEach(this::rebuild);
+                userRepository.saveAll(users);
+                return users.size();
+            });
+            if (batch == null || batch == 0) {
+                return repaired;
+            }
+            repaired += batch;
+            if (batch < REPAIR_BATCH_SIZE) {
+                return repaired;
+            }
+        }
+    }
+
+    private static int streakOf(User user) {
+        return user.getStreak() != null ? user.getStreak() : 0;
+    }
+
+    private static int longestOf(User user) {
+        return user.getLongestStreak() != null ? user.getLongestStreak() : 0;
+    }
+}
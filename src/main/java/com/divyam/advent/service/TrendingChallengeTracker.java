@@ -0,0 +1,86 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.dto.TrendingChallengeDto;
+import com.divyam.advent.model.Challenge;
+import com.divyam.advent.util.DecayingTopK;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory "trending now" ranking of challenges by recent completions.
+ *
+ * Completions are fed in after commit and kept in a decaying Space-Saving summary, so updates and reads
+ * are a few microseconds and never touch the database. The ranking reflects the completions this node
+ * has seen since it started; behind a load balancer every node sees a similar sample.
+ */
+@Component
+public class TrendingChallengeTracker {
+
+    static final int MAX_LIMIT = 50;
+
+    private final ChallengeCatalog challengeCatalog;
+    private final LongSupplier clock;
+    private final DecayingTopK completions;
+
+    @Autowired
+    public TrendingChallengeTracker(
+            ChallengeCatalog challengeCatalog,
+            @Value("${challenge.trending.capacity:200}") int capacity,
+            @Value("${challenge.trending.half-life-minutes:60}") long halfLifeMinutes
+    ) {
+        this(challengeCatalog, capacity, Duration.ofMinutes(halfLifeMinutes), System::currentTimeMillis);
+    }
+
+    TrendingChallengeTracker(ChallengeCatalog challengeCatalog, int capacity, Duration halfLife, LongSupplier clock) {
+        if (capacity < MAX_LIMIT) {
+            throw new IllegalArgumentException("challenge.trending.capacity must be at least " + MAX_LIMIT);
+        }
+        if (halfLife.isZero() || halfLife.isNegative()) {
+            throw new IllegalArgumentException("challenge.trending.half-life-minutes must be positive");
+        }
+        this.challengeCatalog = challengeCatalog;
+        this.clock = clock;
+        this.completions = new DecayingTopK(capacity, halfLife.toMillis(), clock.getAsLong());
+    }
+
+    public synchronized void challengeCompleted(Long challengeId) {
+        if (challengeId != null) {
+            completions.add(challengeId, clock.getAsLong());
+        }
+    }
+
+    /**
+     * The currently trending active challenges, most completed first.
+     * @param limit how many challenges to return, 1 to 50
+     */
+    public List<TrendingChallengeDto> top(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        List<DecayingTopK.Entry> ranked;
+        synchronized (this) {
+            // Ask for a few extra in case some were deactivated since.
+            ranked = completions.top(limit * 2, clock.getAsLong());
+        }
+
+        ChallengeCatalog.Snapshot catalog = challengeCatalog.snapshot();
+        List<TrendingChallengeDto> trending = new ArrayList<>(limit);
+        for (DecayingTopK.Entry entry : ranked) {
+            Challenge challenge = catalog.findById(entry.key());
+            if (challenge != null) {
+                trending.add(new TrendingChallengeDto(challenge, entry.count(), entry.overcount()));
+                if (trending.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return trending;
+    }
+}
@@ -0,0 +1,64 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.model.UserChallenge;
+import com.divyam.advent.repository.UserChallengeRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Inserts new UserChallenge rows in their own short transaction.
+ *
+ * Duplicate assignments are rejected by the unique keys on (user, challenge, active assignment day)
+ * and (user, daily assignment day).
+ * Running the insert in a separate transaction means the resulting DataIntegrityViolationException
+ * never poisons the caller, which can simply read back the row that won.
+ */
+@Component
+public class UserChallengeAssignmentWriter {
+
+    private final UserChallengeRepository userChallengeRepository;
+    private final UserChallengeSummaryService userChallengeSummaryService;
+    private final PulseCounterService pulseCounterService;
+
+    public UserChallengeAssignmentWriter(
+            UserChallengeRepository userChallengeRepository,
+            UserChallengeSummaryService userChallengeSummaryService,
+            PulseCounterService pulseCounterService
+    ) {
+        this.userChallengeRepository = userChallengeRepository;
+        this.userChallengeSummaryService = userChallengeSummaryService;
+        this.pulseCounterService = pulseCounterService;
+    }
+
+    /**
+     * Insert a new UserChallenge and fold it into the user's selection summary and the pulse counters.
+     * @param userChallenge the new row
+     * @param replaced a pre-assigned row deleted in the same transaction, or null
+     * @return the saved row
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public UserChallenge insert(UserChallenge userChallenge, UserChallenge replaced) {
+        LocalDate day = userChallenge.getStartTime().toLocalDate();
+        boolean firstForUser = !userChallengeRepository.existsCountedByUser_IdAndStartTimeInRange(
+                userChallenge.getUser().getId(), day.atStartOfDay(), day.plusDays(1).atStartOfDay()
+        );
+
+        if (replaced != null) {
+            userChallengeRepository.deleteById(replaced.getId());
+            userChallengeRepository.flush();
+            pulseCounterService.rowRemoved(replaced, false);
+        }
+
+        UserChallenge saved = userChallengeRepository.saveAndFlush(userChallenge);
+        pulseCounterService.rowAdded(saved, firstForUser);
+        if (replaced != null) {
+            userChallengeSummaryService.rebuild(saved.getUser().getId());
+        } else {
+            userChallengeSummaryService.recordAssignment(saved);
+        }
+        return saved;
+    }
+}
@@ -1,5 +1,7 @@
 package com.divyam.advent.service;
 
+import com.divyam.advent.dto.DailyChallengePreviewDto;
+import com.divyam.advent.dto.UpcomingDailyChallengeDto;
 import com.divyam.advent.dto.UserProgressDto;
 import com.divyam.advent.enums.CompletionStatus;
 import com.divyam.advent.enums.Mood;
@@ -115,6 +117,39 @@ public interface UserChallengeService {
      */
     UserChallenge confirmDailyChallenge(Long userId, Long challengeId, Mood mood);
 
+    /**
+     * Preview today's daily challenge as a pure function of user, date, mood, catalog version
+     * and history, together with a signed token that any node can validate on confirm.
+     * Nothing is cached or persisted.
+     * @param userId the ID of the user
+     * @param mood the user's current mood
+     * @return the previewed challenge and its signed preview token
+     */
+    DailyChallengePreviewDto previewDailyChallengeWithToken(Long userId, Mood mood);
+
+    /**
+     * Project the daily challenges for today and the following days in one pass over the user's
+     * history summary, assuming the user keeps the same mood and takes each projected challenge.
+     * Days that already have an assignment keep it. Nothing is persisted.
+     * @param userId the ID of the user
+     * @param mood the mood to project for
+     * @param days how many days to project, starting today
+     * @return one entry per day, in date order
+     */
+    List<UpcomingDailyChallengeDto> projectUpcomingDailyChallenges(Long userId, Mood mood, int days);
+
+    /**
+     * Confirm today's daily challenge using a signed preview token.
+     * The token must match the request and today's catalog and history, otherwise the preview
+     * is treated as expired.
+     * @param userId the ID of the user
+     * @param challengeId the ID of the challenge to confirm
+     * @param mood the user's current mood
+     * @param previewToken the token returned by {@link #previewDailyChallengeWithToken(Long, Mood)}
+     * @return the assigned UserChallenge
+     */
+    UserChallenge confirmDailyChallenge(Long userId, Long challengeId, Mood mood, String previewToken);
+
     /**
      * Clear all pending (ASSIGNED status) challenges for a user.
      * This allows users to reset their challenge queue and start fresh.
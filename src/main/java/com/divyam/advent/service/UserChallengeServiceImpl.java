@@ -1,45 +1,53 @@
 package com.divyam.advent.service;
 
+import com.divyam.advent.dto.DailyChallengePreviewDto;
+import com.divyam.advent.dto.UpcomingDailyChallengeDto;
 import com.divyam.advent.dto.UserProgressDto;
-import com.divyam.advent.enums.ChallengeCategory;
 import com.divyam.advent.enums.CompletionStatus;
-import com.divyam.advent.enums.Culture;
-import com.divyam.advent.enums.EnergyLevel;
 import com.divyam.advent.enums.Mood;
 import com.divyam.advent.exception.ResourceNotFoundException;
+import com.divyam.advent.model.Badge;
 import com.divyam.advent.model.Challenge;
 import com.divyam.advent.model.User;
 import com.divyam.advent.model.UserChallenge;
+import com.divyam.advent.model.UserChallengeSummary;
 import com.divyam.advent.repository.ChallengeRepository;
 import com.divyam.advent.repository.UserChallengeRepository;
 import com.divyam.advent.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 @Service
 public class UserChallengeServiceImpl implements UserChallengeService {
 
+    private static final int MAX_UPCOMING_DAYS = 14;
+
     private final UserChallengeRepository userChallengeRepository;
     private final UserRepository userRepository;
     private final ChallengeRepository challengeRepository;
     private final BadgeService badgeService;
     private final ChallengeCycleSyncService challengeCycleSyncService;
-    private final ConcurrentHashMap<PreviewKey, Challenge> previewCache = new ConcurrentHashMap<>();
-
-    private record PreviewKey(Long userId, LocalDate date, Mood mood) {
-    }
+    private final ChallengeCatalog challengeCatalog;
+    private final UserChallengeSummaryService userChallengeSummaryService;
+    private final DailyPreviewCache dailyPreviewCache;
+    private final DailyPreviewTokenService dailyPreviewTokenService;
+    private final DailyChallengeSelector dailyChallengeSelector;
+    private final UserChallengeAssignmentWriter userChallengeAssignmentWriter;
+    private final PulseCounterService pulseCounterService;
+    private final CompletionCalendarService completionCalendarService;
 
     @Autowired
     public UserChallengeServiceImpl(
@@ -47,13 +55,29 @@ public class UserChallengeServiceImpl implements UserChallengeService {
             UserRepository userRepository,
             ChallengeRepository challengeRepository,
             BadgeService badgeService,
-            ChallengeCycleSyncService challengeCycleSyncService
+            ChallengeCycleSyncService challengeCycleSyncService,
+            ChallengeCatalog challengeCatalog,
+            UserChallengeSummaryService userChallengeSummaryService,
+            DailyPreviewCache dailyPreviewCache,
+            DailyPreviewTokenService dailyPreviewTokenService,
+            DailyChallengeSelector dailyChallengeSelector,
+            UserChallengeAssignmentWriter userChallengeAssignmentWriter,
+            PulseCounterService pulseCounterService,
+            CompletionCalendarService completionCalendarService
     ) {
         this.userChallengeRepository = userChallengeRepository;
         this.userRepository = userRepository;
         this.challengeRepository = challengeRepository;
         this.badgeService = badgeService;
         this.challengeCycleSyncService = challengeCycleSyncService;
+        this.challengeCatalog = challengeCatalog;
+        this.userChallengeSummaryService = userChallengeSummaryService;
+        this.dailyPreviewCache = dailyPreviewCache;
+        this.dailyPreviewTokenService = dailyPreviewTokenService;
+        this.dailyChallengeSelector = dailyChallengeSelector;
+        this.userChallengeAssignmentWriter = userChallengeAssignmentWriter;
+        this.pulseCounterService = pulseCounterService;
+        this.completionCalendarService = completionCalendarService;
     }
 
     @Override
@@ -71,7 +95,11 @@ public class UserChallengeServiceImpl implements UserChallengeService {
             return existing;
         }
 
-        return userChallengeRepository.save(new UserChallenge(user, challenge, CompletionStatus.ASSIGNED));
+        return insertOrReturnExisting(
+                new UserChallenge(user, challenge, CompletionStatus.ASSIGNED),
+                null,
+                () -> userChallengeRepository.findByUser_IdAndChallenge_Id(userId, challengeId)
+        );
     }
 
     @Override
@@ -80,7 +108,7 @@ public class UserChallengeServiceImpl implements UserChallengeService {
             throw new ResourceNotFoundException("User not found with id: " + userId);
         }
 
-        return userChallengeRepository.findByUser_Id(userId);
+        return userChallengeRepository.findVisibleByUser_Id(userId, LocalDateTime.now());
     }
 
     @Override
@@ -89,12 +117,17 @@ public class UserChallengeServiceImpl implements UserChallengeService {
             throw new ResourceNotFoundException("Challenge not found with id: " + challengeId);
         }
 
-        return userChallengeRepository.findByChallenge_Id(challengeId);
+        return userChallengeRepository.findVisibleByChallenge_Id(challengeId, LocalDateTime.now());
     }
 
+    /**
+     * A row pre-assigned for a day that has not started yet is not found, so it cannot be completed early.
+     */
     @Override
     public UserChallenge getUserChallengeById(Long id) {
         return userChallengeRepository.findById(id)
+                .filter(userChallenge -> !userChallenge.isPreassigned()
+                        || !userChallenge.getStartTime().isAfter(LocalDateTime.now()))
                 .orElseThrow(() -> new ResourceNotFoundException("UserChallenge not found with id: " + id));
     }
 
@@ -109,17 +142,28 @@ public class UserChallengeServiceImpl implements UserChallengeService {
             );
         }
 
+        CompletionStatus previousStatus = userChallenge.getStatus();
+        boolean claimed = userChallenge.isPreassigned();
+        boolean firstForUser = claimed && isFirstCountedRowOfDay(userChallenge);
+        userChallenge.setPreassigned(false);
         userChallenge.setStatus(CompletionStatus.COMPLETED);
         userChallenge.setCompletionTime(LocalDateTime.now());
 
         UserChallenge saved = userChallengeRepository.save(userChallenge);
-        badgeService.evaluateAndAssignBadges(saved.getUser());
+        recordPulseChange(saved, claimed, firstForUser, previousStatus, saved.getMood());
+        completionCalendarService.recordCompletion(saved.getUser().getId(), saved.getCompletionTime().toLocalDate());
+        List<Badge> unlocked = badgeService.recordCompletion(saved.getUser(), saved.getCompletionTime().toLocalDate());
+        saved.setNewlyUnlockedBadgeIds(badgeIds(unlocked));
         return saved;
     }
 
     @Override
     public UserChallenge updateStatus(Long id, CompletionStatus status) {
         UserChallenge userChallenge = getUserChallengeById(id);
+        CompletionStatus previousStatus = userChallenge.getStatus();
+        boolean claimed = userChallenge.isPreassigned();
+        boolean firstForUser = claimed && isFirstCountedRowOfDay(userChallenge);
+        userChallenge.setPreassigned(false);
         userChallenge.setStatus(status);
 
         if (status == CompletionStatus.COMPLETED) {
@@ -127,8 +171,15 @@ public class UserChallengeServiceImpl implements UserChallengeService {
         }
 
         UserChallenge saved = userChallengeRepository.save(userChallenge);
+        recordPulseChange(saved, claimed, firstForUser, previousStatus, saved.getMood());
         if (status == CompletionStatus.COMPLETED) {
-            badgeService.evaluateAndAssignBadges(saved.getUser());
+            completionCalendarService.recordCompletion(saved.getUser().getId(), saved.getCompletionTime().toLocalDate());
+            List<Badge> unlocked = badgeService.recordCompletion(saved.getUser(), saved.getCompletionTime().toLocalDate());
+            saved.setNewlyUnlockedBadgeIds(badgeIds(unlocked));
+        } else if (previousStatus == CompletionStatus.COMPLETED) {
+            // A withdrawn completion can empty a day and split a streak, so rebuild both from history on the next read.
+            completionCalendarService.forget(saved.getUser().getId());
+            badgeService.invalidateStreak(saved.getUser());
         }
         return saved;
     }
@@ -139,7 +190,7 @@ public class UserChallengeServiceImpl implements UserChallengeService {
             throw new ResourceNotFoundException("User not found with id: " + userId);
         }
 
-        return userChallengeRepository.findByUser_IdAndStatus(userId, status);
+        return userChallengeRepository.findVisibleByUser_IdAndStatus(userId, status, LocalDateTime.now());
     }
 
     @Override
@@ -147,7 +198,7 @@ public class UserChallengeServiceImpl implements UserChallengeService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
-        long totalAssigned = userChallengeRepository.countByUser_Id(userId);
+        long totalAssigned = userChallengeRepository.countVisibleByUser_Id(userId, LocalDateTime.now());
         long totalCompleted = userChallengeRepository.countByUser_IdAndStatus(
                 userId, CompletionStatus.COMPLETED
         );
@@ -164,24 +215,20 @@ public class UserChallengeServiceImpl implements UserChallengeService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
 
-        LocalDate today = LocalDate.now();
-        LocalDateTime startOfToday = today.atStartOfDay();
-
-        List<UserChallenge> existingToday = userChallengeRepository
-                .findByUser_IdAndStartTimeAfterAndStatus(userId, startOfToday, CompletionStatus.ASSIGNED);
-
-        if (!existingToday.isEmpty()) {
-            return existingToday.get(0).getChallenge();
+        Optional<UserChallenge> existingToday = findTodaysAssignment(userId)
+                .filter(existing -> keepsExistingAssignment(existing, mood));
+        if (existingToday.isPresent()) {
+            return existingToday.get().getChallenge();
         }
 
-        PreviewKey key = new PreviewKey(userId, today, mood);
-        Challenge cached = previewCache.get(key);
+        DailyPreviewCache.Key key = new DailyPreviewCache.Key(userId, LocalDate.now(), mood);
+        Challenge cached = challengeCatalog.snapshot().findById(dailyPreviewCache.get(key));
         if (cached != null) {
             return cached;
         }
 
         Challenge selected = selectDailyChallenge(user, mood);
-        previewCache.put(key, selected);
+        dailyPreviewCache.put(key, selected.getId());
         return selected;
     }
 
@@ -194,20 +241,13 @@ public class UserChallengeServiceImpl implements UserChallengeService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
 
-        LocalDate today = LocalDate.now();
-        LocalDateTime startOfToday = today.atStartOfDay();
-
-        List<UserChallenge> existingToday = userChallengeRepository
-                .findByUser_IdAndStartTimeAfterAndStatus(userId, startOfToday, CompletionStatus.ASSIGNED);
-
-        if (!existingToday.isEmpty()) {
-            UserChallenge existing = existingToday.get(0);
-            existing.setMood(mood);
-            return userChallengeRepository.save(existing);
+        Optional<UserChallenge> existingToday = findTodaysAssignment(userId);
+        if (existingToday.isPresent() && keepsExistingAssignment(existingToday.get(), mood)) {
+            return updateMood(existingToday.get(), mood);
         }
 
-        PreviewKey key = new PreviewKey(userId, today, mood);
-        Challenge expected = previewCache.get(key);
+        DailyPreviewCache.Key key = new DailyPreviewCache.Key(userId, LocalDate.now(), mood);
+        Challenge expected = challengeCatalog.snapshot().findById(dailyPreviewCache.get(key));
         if (expected == null) {
             expected = selectDailyChallenge(user, mood);
         }
@@ -218,26 +258,96 @@ public class UserChallengeServiceImpl implements UserChallengeService {
 
         UserChallenge userChallenge = new UserChallenge(user, expected, CompletionStatus.ASSIGNED);
         userChallenge.setMood(mood);
-        UserChallenge saved = userChallengeRepository.save(userChallenge);
-        previewCache.remove(key);
+        userChallenge.markAsDailyAssignment();
+        UserChallenge saved = insertOrReturnExisting(
+                userChallenge,
+                existingToday.orElse(null),
+                () -> findTodaysAssignment(userId)
+        );
+        dailyPreviewCache.remove(key);
         return saved;
     }
 
     @Override
-    public UserChallenge getOrAssignDailyChallenge(Long userId) {
+    public DailyChallengePreviewDto previewDailyChallengeWithToken(Long userId, Mood mood) {
+        if (userId == null || mood == null) {
+            throw new IllegalArgumentException("userId and mood are required");
+        }
+
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
 
-        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
-        List<UserChallenge> existingToday = userChallengeRepository
-                .findByUser_IdAndStartTimeAfterAndStatus(userId, startOfToday, CompletionStatus.ASSIGNED);
+        LocalDate today = LocalDate.now();
+        Optional<UserChallenge> existingToday = findTodaysAssignment(userId)
+                .filter(existing -> keepsExistingAssignment(existing, mood));
+
+        UserChallengeSummary summary = userChallengeSummaryService.getSummary(userId);
+        Challenge selected = existingToday.isPresent()
+                ? existingToday.get().getChallenge()
+                : dailyChallengeSelector.select(user.getCountry(), mood, summary, today);
+
+        String previewToken = dailyPreviewTokenService.issue(new DailyPreviewTokenService.PreviewClaims(
+                userId,
+                today,
+                mood,
+                selected.getId(),
+                challengeCatalog.snapshot().getVersion(),
+                dailyPreviewTokenService.historyDigest(summary)
+        ));
+        return new DailyChallengePreviewDto(selected, today, mood, previewToken);
+    }
 
-        if (!existingToday.isEmpty()) {
-            return existingToday.get(0);
+    @Override
+    public UserChallenge confirmDailyChallenge(Long userId, Long challengeId, Mood mood, String previewToken) {
+        if (userId == null || challengeId == null || mood == null || previewToken == null) {
+            throw new IllegalArgumentException("userId, challengeId, mood, and previewToken are required");
         }
 
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
+
+        Optional<UserChallenge> existingToday = findTodaysAssignment(userId);
+        if (existingToday.isPresent() && keepsExistingAssignment(existingToday.get(), mood)) {
+            return updateMood(existingToday.get(), mood);
+        }
+
+        ChallengeCatalog.Snapshot catalog = challengeCatalog.snapshot();
+        UserChallengeSummary summary = userChallengeSummaryService.getSummary(userId);
+        DailyPreviewTokenService.PreviewClaims expectedClaims = new DailyPreviewTokenService.PreviewClaims(
+                userId,
+                LocalDate.now(),
+                mood,
+                challengeId,
+                catalog.getVersion(),
+                dailyPreviewTokenService.historyDigest(summary)
+        );
+
+        Challenge expected = dailyPreviewTokenService.verify(previewToken)
+                .filter(expectedClaims::equals)
+                .map(claims -> catalog.findById(claims.challengeId()))
+                .orElseThrow(() -> new IllegalArgumentException("Preview mismatch or expired. Please preview again."));
+
+        UserChallenge userChallenge = new UserChallenge(user, expected, CompletionStatus.ASSIGNED);
+        userChallenge.setMood(mood);
+        userChallenge.markAsDailyAssignment();
+        return insertOrReturnExisting(userChallenge, existingToday.orElse(null), () -> findTodaysAssignment(userId));
+    }
+
+    @Override
+    public UserChallenge getOrAssignDailyChallenge(Long userId) {
+        // Pre-assigned rows make this a single indexed read for most users.
+        Optional<UserChallenge> existingToday = findTodaysAssignment(userId);
+        if (existingToday.isPresent()) {
+            return existingToday.get();
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
+
         Challenge selectedChallenge = selectDailyChallenge(user, Mood.NEUTRAL);
-        return userChallengeRepository.save(new UserChallenge(user, selectedChallenge, CompletionStatus.ASSIGNED));
+        UserChallenge userChallenge = new UserChallenge(user, selectedChallenge, CompletionStatus.ASSIGNED);
+        userChallenge.markAsDailyAssignment();
+        return insertOrReturnExisting(userChallenge, null, () -> findTodaysAssignment(userId));
     }
 
     @Override
@@ -245,154 +355,133 @@ public class UserChallengeServiceImpl implements UserChallengeService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
 
-        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
-        List<UserChallenge> existingToday = userChallengeRepository
-                .findByUser_IdAndStartTimeAfterAndStatus(userId, startOfToday, CompletionStatus.ASSIGNED);
-
-        if (!existingToday.isEmpty()) {
-            UserChallenge existing = existingToday.get(0);
-            existing.setMood(mood);
-            return userChallengeRepository.save(existing);
+        Optional<UserChallenge> existingToday = findTodaysAssignment(userId);
+        if (existingToday.isPresent() && keepsExistingAssignment(existingToday.get(), mood)) {
+            return updateMood(existingToday.get(), mood);
         }
 
         Challenge selectedChallenge = selectDailyChallenge(user, mood);
         UserChallenge userChallenge = new UserChallenge(user, selectedChallenge, CompletionStatus.ASSIGNED);
         userChallenge.setMood(mood);
-        return userChallengeRepository.save(userChallenge);
+        userChallenge.markAsDailyAssignment();
+        return insertOrReturnExisting(userChallenge, existingToday.orElse(null), () -> findTodaysAssignment(userId));
     }
 
-    private Challenge selectDailyChallenge(User user, Mood mood) {
-        List<UserChallenge> history = userChallengeRepository.findByUser_Id(user.getId());
-        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
-
-        Set<Long> todaysChallengeIds = history.stream()
-                .filter(userChallenge -> userChallenge.getStartTime() != null
-                        && !userChallenge.getStartTime().isBefore(startOfToday))
-                .map(userChallenge -> userChallenge.getChallenge().getId())
-                .collect(Collectors.toSet());
-
-        Map<Long, Long> challengeUsageCounts = history.stream()
-                .collect(Collectors.groupingBy(
-                        userChallenge -> userChallenge.getChallenge().getId(),
-                        Collectors.counting()
-                ));
-
-        Map<ChallengeCategory, Long> categoryUsageCounts = history.stream()
-                .collect(Collectors.groupingBy(
-                        userChallenge -> userChallenge.getChallenge().getCategory(),
-                        Collectors.counting()
-                ));
-
-        Set<Long> seenChallengeIds = challengeUsageCounts.keySet();
-        Optional<UserChallenge> latestChallenge = history.stream()
-                .filter(userChallenge -> userChallenge.getStartTime() != null)
-                .max(Comparator.comparing(UserChallenge::getStartTime));
+    @Override
+    public List<UpcomingDailyChallengeDto> projectUpcomingDailyChallenges(Long userId, Mood mood, int days) {
+        if (userId == null || mood == null) {
+            throw new IllegalArgumentException("userId and mood are required");
+        }
+        if (days < 1 || days > MAX_UPCOMING_DAYS) {
+            throw new IllegalArgumentException("days must be between 1 and " + MAX_UPCOMING_DAYS);
+        }
 
-        Long latestChallengeId = latestChallenge
-                .map(userChallenge -> userChallenge.getChallenge().getId())
-                .orElse(null);
-        ChallengeCategory latestCategory = latestChallenge
-                .map(userChallenge -> userChallenge.getChallenge().getCategory())
-                .orElse(null);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
 
-        List<Challenge> candidates = selectDailyCandidates(user, mood);
-        if (candidates.isEmpty()) {
-            throw new IllegalStateException("No active challenge is available for mood " + mood);
+        LocalDate today = LocalDate.now();
+        Map<LocalDate, Challenge> assigned = new HashMap<>();
+        for (UserChallenge existing : userChallengeRepository.findByUser_IdAndStartTimeInRangeAndStatus(
+                userId,
+                today.atStartOfDay(),
+                today.plusDays(days).atStartOfDay(),
+                CompletionStatus.ASSIGNED
+        )) {
+            if (keepsExistingAssignment(existing, mood)) {
+                assigned.putIfAbsent(existing.getStartTime().toLocalDate(), existing.getChallenge());
+            }
         }
 
-        List<Challenge> filteredCandidates = filterIfPossible(
-                candidates,
-                challenge -> !todaysChallengeIds.contains(challenge.getId())
-        );
-        filteredCandidates = filterIfPossible(
-                filteredCandidates,
-                challenge -> !seenChallengeIds.contains(challenge.getId())
-        );
-        filteredCandidates = filterIfPossible(
-                filteredCandidates,
-                challenge -> latestCategory == null || challenge.getCategory() != latestCategory
-        );
-        filteredCandidates = filterIfPossible(
-                filteredCandidates,
-                challenge -> latestChallengeId == null || !challenge.getId().equals(latestChallengeId)
+        List<Challenge> sequence = dailyChallengeSelector.project(
+                user.getCountry(),
+                mood,
+                userChallengeSummaryService.getSummary(userId),
+                today,
+                days,
+                assigned
         );
 
-        return filteredCandidates.stream()
-                .min(Comparator
-                        .comparingLong((Challenge challenge) ->
-                                challengeUsageCounts.getOrDefault(challenge.getId(), 0L))
-                        .thenComparingLong(challenge ->
-                                categoryUsageCounts.getOrDefault(challenge.getCategory(), 0L))
-                        .thenComparing(challenge -> challenge.getCategory().name())
-                        .thenComparingInt(challenge ->
-                                challenge.getCycleDay() != null ? challenge.getCycleDay() : Integer.MAX_VALUE)
-                        .thenComparingLong(challenge ->
-                                challenge.getId() != null ? challenge.getId() : Long.MAX_VALUE))
-                .orElseThrow(() -> new IllegalStateException("No daily challenge candidates remain"));
+        List<UpcomingDailyChallengeDto> upcoming = new ArrayList<>(days);
+        for (int offset = 0; offset < days; offset++) {
+            LocalDate day = today.plusDays(offset);
+            upcoming.add(new UpcomingDailyChallengeDto(day, sequence.get(offset), assigned.containsKey(day)));
+        }
+        return upcoming;
     }
 
-    private List<Challenge> selectDailyCandidates(User user, Mood mood) {
-        for (EnergyLevel energyLevel : preferredEnergyLevels(mood)) {
-            List<Challenge> seededCultureAware = challengeRepository.findByEnergyLevelAndActiveTrue(energyLevel)
-                    .stream()
-                    .filter(challenge -> challenge.getSourceVersion() == null)
-                    .filter(challenge -> matchesUserCulture(challenge, user))
-                    .collect(Collectors.toList());
-            if (!seededCultureAware.isEmpty()) {
-                return seededCultureAware;
-            }
-
-            List<Challenge> seededFallback = challengeRepository.findByEnergyLevelAndActiveTrue(energyLevel)
-                    .stream()
-                    .filter(challenge -> challenge.getSourceVersion() == null)
-                    .collect(Collectors.toList());
-            if (!seededFallback.isEmpty()) {
-                return seededFallback;
-            }
-        }
+    /**
+     * Today's active assignment, bounded to today so tomorrow's pre-assigned rows never match.
+     */
+    private Optional<UserChallenge> findTodaysAssignment(Long userId) {
+        LocalDate today = LocalDate.now();
+        return userChallengeRepository
+                .findByUser_IdAndStartTimeInRangeAndStatus(
+                        userId,
+                        today.atStartOfDay(),
+                        today.plusDays(1).atStartOfDay(),
+                        CompletionStatus.ASSIGNED
+                )
+                .stream()
+                .findFirst();
+    }
 
-        return selectCycleFallbackCandidates(mood);
+    /**
+     * A pre-assigned row only stands for the NEUTRAL default. Any other mood re-selects on demand.
+     */
+    private boolean keepsExistingAssignment(UserChallenge existing, Mood mood) {
+        return !existing.isPreassigned() || mood == Mood.NEUTRAL;
     }
 
-    private List<Challenge> selectCycleFallbackCandidates(Mood mood) {
-        try {
-            String currentSourceVersion = challengeCycleSyncService.getCurrentSourceVersion();
-            List<Challenge> cycleChallenges = challengeRepository
-                    .findBySourceVersionAndActiveTrueOrderByCycleDayAsc(currentSourceVersion);
-
-            for (EnergyLevel energyLevel : preferredEnergyLevels(mood)) {
-                List<Challenge> energyMatched = cycleChallenges.stream()
-                        .filter(challenge -> challenge.getEnergyLevel() == energyLevel)
-                        .collect(Collectors.toList());
-                if (!energyMatched.isEmpty()) {
-                    return energyMatched;
-                }
-            }
+    private UserChallenge updateMood(UserChallenge existing, Mood mood) {
+        Mood previousMood = existing.getMood();
+        boolean claimed = existing.isPreassigned();
+        boolean firstForUser = claimed && isFirstCountedRowOfDay(existing);
+        existing.setMood(mood);
+        existing.setPreassigned(false);
+        UserChallenge saved = userChallengeRepository.save(existing);
+        recordPulseChange(saved, claimed, firstForUser, saved.getStatus(), previousMood);
+        return saved;
+    }
 
-            return cycleChallenges;
-        } catch (IllegalStateException exception) {
-            return List.of();
-        }
+    private static List<String> badgeIds(List<Badge> badges) {
+        return badges.stream().map(Badge::getId).sorted().toList();
     }
 
-    private List<EnergyLevel> preferredEnergyLevels(Mood mood) {
-        return switch (mood) {
-            case LOW -> List.of(EnergyLevel.LOW, EnergyLevel.MEDIUM);
-            case NEUTRAL -> List.of(EnergyLevel.MEDIUM, EnergyLevel.LOW, EnergyLevel.HIGH);
-            case HIGH -> List.of(EnergyLevel.HIGH, EnergyLevel.MEDIUM);
-        };
+    /**
+     * Whether none of the user's other rows on this row's day is counted by the pulse yet.
+     * Checked before a pre-assigned row is claimed, while the row itself is still left out.
+     */
+    private boolean isFirstCountedRowOfDay(UserChallenge row) {
+        LocalDate day = row.getStartTime().toLocalDate();
+        return !userChallengeRepository.existsCountedByUser_IdAndStartTimeInRange(
+                row.getUser().getId(), day.atStartOfDay(), day.plusDays(1).atStartOfDay());
     }
 
-    private boolean matchesUserCulture(Challenge challenge, User user) {
-        Culture userCulture = user.getCountry() != null ? user.getCountry() : Culture.GLOBAL;
-        return challenge.getCulture() == Culture.GLOBAL || challenge.getCulture() == userCulture;
+    /**
+     * Report a saved change to the pulse counters. A claimed row was pre-assigned and untouched until now,
+     * so the pulse starts counting it instead of applying a delta.
+     */
+    private void recordPulseChange(
+            UserChallenge saved,
+            boolean claimed,
+            boolean firstForUser,
+            CompletionStatus previousStatus,
+            Mood previousMood
+    ) {
+        if (claimed) {
+            pulseCounterService.rowClaimed(saved, firstForUser);
+        } else {
+            pulseCounterService.rowChanged(saved, previousStatus, previousMood);
+        }
     }
 
-    private List<Challenge> filterIfPossible(List<Challenge> candidates, Predicate<Challenge> predicate) {
-        List<Challenge> filtered = candidates.stream()
-                .filter(predicate)
-                .collect(Collectors.toList());
-        return filtered.isEmpty() ? candidates : filtered;
+    private Challenge selectDailyChallenge(User user, Mood mood) {
+        return dailyChallengeSelector.select(
+                user.getCountry(),
+                mood,
+                userChallengeSummaryService.getSummary(user.getId()),
+                LocalDate.now()
+        );
     }
 
     private Challenge selectDailyChallenge(User user) {
@@ -421,11 +510,27 @@ public class UserChallengeServiceImpl implements UserChallengeService {
             throw new ResourceNotFoundException("User not found with id: " + userId);
         }
 
-        return userChallengeRepository.deleteByUser_IdAndStatus(userId, CompletionStatus.ASSIGNED);
+        List<UserChallenge> pending = userChallengeRepository.findByUser_IdAndStatus(userId, CompletionStatus.ASSIGNED);
+        long deleted = userChallengeRepository.deleteByUser_IdAndStatus(userId, CompletionStatus.ASSIGNED);
+        if (deleted > 0) {
+            userChallengeSummaryService.rebuild(userId);
+            recordRemovedFromPulse(userId, pending);
+        }
+        return deleted;
+    }
+
+    private void recordRemovedFromPulse(Long userId, List<UserChallenge> removed) {
+        Set<LocalDate> days = new HashSet<>();
+        for (UserChallenge row : removed) {
+            LocalDate day = row.getStartTime().toLocalDate();
+            // Only the first removed row of a day can take the user out of that day's count.
+            boolean lastForUser = days.add(day) && !userChallengeRepository
+                    .existsCountedByUser_IdAndStartTimeInRange(userId, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+            pulseCounterService.rowRemoved(row, lastForUser);
+        }
     }
 
     @Override
-    @Transactional
     public UserChallenge startChallenge(Long userId, Long challengeId, Mood mood) {
         if (userId == null || challengeId == null || mood == null) {
             throw new IllegalArgumentException("userId, challengeId, and mood are required");
@@ -437,15 +542,17 @@ public class UserChallengeServiceImpl implements UserChallengeService {
         Challenge challenge = challengeRepository.findById(challengeId)
                 .orElseThrow(() -> new ResourceNotFoundException("Challenge not found with id: " + challengeId));
 
-        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
-        Optional<UserChallenge> existing = userChallengeRepository
-                .findByUser_IdAndChallenge_IdAndStartTimeAfterAndStatus(
+        LocalDate today = LocalDate.now();
+        Supplier<Optional<UserChallenge>> existingToday = () -> userChallengeRepository
+                .findByUser_IdAndChallenge_IdAndStartTimeInRangeAndStatus(
                         userId,
                         challengeId,
-                        startOfToday,
+                        today.atStartOfDay(),
+                        today.plusDays(1).atStartOfDay(),
                         CompletionStatus.ASSIGNED
                 );
 
+        Optional<UserChallenge> existing = existingToday.get();
         if (existing.isPresent()) {
             return existing.get();
         }
@@ -454,6 +561,27 @@ public class UserChallengeServiceImpl implements UserChallengeService {
         userChallenge.setMood(mood);
         userChallenge.setStartTime(LocalDateTime.now());
 
-        return userChallengeRepository.save(userChallenge);
+        return insertOrReturnExisting(userChallenge, null, existingToday);
+    }
+
+    /**
+     * Insert a new UserChallenge, or return the row a concurrent request already inserted.
+     * The unique keys on (user, challenge, active assignment day) and (user, daily assignment day)
+     * make duplicate taps collapse into one write without locking anything up front.
+     *
+     * @param userChallenge the new row
+     * @param replaced a pre-assigned row to delete in the same write, or null
+     * @param existing reads back the row that won when the insert is rejected as a duplicate
+     */
+    private UserChallenge insertOrReturnExisting(
+            UserChallenge userChallenge,
+            UserChallenge replaced,
+            Supplier<Optional<UserChallenge>> existing
+    ) {
+        try {
+            return userChallengeAssignmentWriter.insert(userChallenge, replaced);
+        } catch (DataIntegrityViolationException duplicate) {
+            return existing.get().orElseThrow(() -> duplicate);
+        }
     }
 }
@@ -0,0 +1,209 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.model.Challenge;
+import com.divyam.advent.model.UserChallenge;
+import com.divyam.advent.model.UserChallengeSummary;
+import com.divyam.advent.repository.UserChallengeRepository;
+import com.divyam.advent.repository.UserChallengeSummaryRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@link UserChallengeSummary} rows alongside user_challenges writes.
+ * Users without a summary yet (history created before summaries existed) are rebuilt
+ * from grouped history queries on first use.
+ *
+ * A missing summary is stored from committed history in its own transaction before the caller's new rows
+ * are added to it, so concurrent first assignments for a user find one row instead of both inserting it.
+ */
+@Service
+public class UserChallengeSummaryService {
+
+    private final UserChallengeSummaryRepository summaryRepository;
+    private final UserChallengeRepository userChallengeRepository;
+    private final TransactionTemplate newTransaction;
+
+    public UserChallengeSummaryService(
+            UserChallengeSummaryRepository summaryRepository,
+            UserChallengeRepository userChallengeRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.summaryRepository = summaryRepository;
+        this.userChallengeRepository = userChallengeRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Read the summary for a user. Missing summaries are computed but not persisted here;
+     * the next assignment write stores them.
+     */
+    @Transactional(readOnly = true)
+    public UserChallengeSummary getSummary(Long userId) {
+        return summaryRepository.findById(userId)
+                .orElseGet(() -> buildFromHistory(userId));
+    }
+
+    /**
+     * Read summaries for several users at once, computing any that are missing.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, UserChallengeSummary> getSummaries(Collection<Long> userIds) {
+        Map<Long, UserChallengeSummary> summaries = new HashMap<>();
+        for (UserChallengeSummary summary : summaryRepository.findAllById(userIds)) {
+            summaries.put(summary.getUserId(), summary);
+        }
+        for (Long userId : userIds) {
+            summaries.computeIfAbsent(userId, this::buildFromHistory);
+        }
+        return summaries;
+    }
+
+    /**
+     * Fold a newly saved UserChallenge into its user's summary.
+     * Must run in the same transaction as the insert so both commit or roll back together.
+     */
+    @Transactional
+    public void recordAssignment(UserChallenge userChallenge) {
+        Long userId = userChallenge.getUser().getId();
+        UserChallengeSummary summary = summaryRepository.findByUserIdForUpdate(userId).orElse(null);
+        if (summary == null) {
+            storeMissing(List.of(userId));
+            summary = summaryRepository.findByUserIdForUpdate(userId)
+                    .orElseThrow(() -> new IllegalStateException("Summary for user " + userId + " was not stored"));
+        }
+
+        Challenge challenge = userChallenge.getChallenge();
+        summary.recordAssignment(challenge.getId(), challenge.getCategory(), userChallenge.getStartTime());
+        summaryRepository.save(summary);
+    }
+
+    /**
+     * Fold a batch of assignments inserted outside JPA into their users' summaries.
+     * Must run in the same transaction as the batch insert.
+     *
+     * @param challengesByUserId the challenge assigned to each user
+     * @param startTime the start time shared by every inserted row
+     */
+    @Transactional
+    public void recordAssignments(Map<Long, Challenge> challengesByUserId, LocalDateTime startTime) {
+        if (challengesByUserId.isEmpty()) {
+            return;
+        }
+
+        List<UserChallengeSummary> updated = new ArrayList<>(challengesByUserId.size());
+        Set<Long> missing = new HashSet<>(challengesByUserId.keySet());
+        for (UserChallengeSummary summary : summaryRepository.findByUserIdInForUpdate(challengesByUserId.keySet())) {
+            updated.add(summary);
+            missing.remove(summary.getUserId());
+        }
+        if (!missing.isEmpty()) {
+            storeMissing(missing);
+            updated.addAll(summaryRepository.findByUserIdInForUpdate(missing));
+        }
+
+        for (UserChallengeSummary summary : updated) {
+            Challenge challenge = challengesByUserId.get(summary.getUserId());
+            summary.recordAssignment(challenge.getId(), challenge.getCategory(), startTime);
+        }
+        summaryRepository.saveAll(updated);
+    }
+
+    /**
+     * Recompute a user's summary from user_challenges, e.g. after rows were deleted.
+     */
+    @Transactional
+    public UserChallengeSummary rebuild(Long userId) {
+        UserChallengeSummary rebuilt = buildFromHistory(userId);
+        return summaryRepository.save(rebuilt);
+    }
+
+    /**
+     * Store summaries built from committed history for the users that have none. The caller's uncommitted rows
+     * are not part of them; the caller adds those under the row lock afterwards.
+     */
+    private void storeMissing(Collection<Long> userIds) {
+        try {
+            newTransaction.executeWithoutResult(status -> insertMissing(userIds));
+        } catch (DataIntegrityViolationException concurrentInsert) {
+            // Another transaction stored some of them first; store the rest.
+            newTransaction.executeWithoutResult(status -> insertMissing(userIds));
+        }
+    }
+
+    private void insertMissing(Collection<Long> userIds) {
+        Set<Long> stored = new HashSet<>();
+        for (UserChallengeSummary summary : summaryRepository.findAllById(userIds)) {
+            stored.add(summary.getUserId());
+        }
+        for (Long userId : userIds) {
+            if (!stored.contains(userId)) {
+                summaryRepository.save(buildFromHistory(userId));
+            }
+        }
+        summaryRepository.flush();
+    }
+
+    private UserChallengeSummary buildFromHistory(Long userId) {
+        UserChallengeSummary summary = new UserChallengeSummary(userId);
+
+        Map<Long, Long> challengeUsageCounts = new HashMap<>();
+        Map<ChallengeCategory, Long> categoryUsageCounts = new EnumMap<>(ChallengeCategory.class);
+        for (UserChallengeRepository.ChallengeUsageProjection usage : userChallengeRepository.countUsageByChallenge(userId)) {
+            challengeUsageCounts.merge(usage.getChallengeId(), usage.getCount(), Long::sum);
+            if (usage.getCategory() != null) {
+                categoryUsageCounts.merge(usage.getCategory(), usage.getCount(), Long::sum);
+            }
+        }
+        summary.setChallengeUsageCounts(challengeUsageCounts);
+        summary.setCategoryUsageCounts(categoryUsageCounts);
+
+        userChallengeRepository.findFirstByUser_IdAndStartTimeNotNullOrderByStartTimeDescIdDesc(userId)
+                .ifPresent(latest -> {
+                    LocalDate latestDay = latest.getStartTime().toLocalDate();
+                    summary.setLastChallengeId(latest.getChallenge().getId());
+                    summary.setLastCategory(latest.getChallenge().getCategory());
+                    summary.setLastStartTime(latest.getStartTime());
+                    summary.setLastAssignmentDay(latestDay);
+                    summary.setLastDayChallengeIds(challengeIdsOn(userId, latestDay));
+
+                    userChallengeRepository
+                            .findFirstByUser_IdAndStartTimeBeforeOrderByStartTimeDescIdDesc(userId, latestDay.atStartOfDay())
+                            .ifPresent(previous -> {
+                                LocalDate previousDay = previous.getStartTime().toLocalDate();
+                                summary.setPreviousChallengeId(previous.getChallenge().getId());
+                                summary.setPreviousCategory(previous.getChallenge().getCategory());
+                                summary.setPreviousAssignmentDay(previousDay);
+                                summary.setPreviousDayChallengeIds(challengeIdsOn(userId, previousDay));
+                            });
+                });
+
+        return summary;
+    }
+
+    private Set<Long> challengeIdsOn(Long userId, LocalDate day) {
+        return userChallengeRepository
+                .findByUser_IdAndStartTimeAfter(userId, day.atStartOfDay())
+                .stream()
+                .filter(userChallenge -> userChallenge.getStartTime().toLocalDate().equals(day))
+                .map(userChallenge -> userChallenge.getChallenge().getId())
+                .collect(Collectors.toSet());
+    }
+}
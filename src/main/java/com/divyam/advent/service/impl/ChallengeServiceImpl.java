@@ -4,6 +4,7 @@ import com.divyam.advent.dto.ChallengeCycleDayDto;
 import com.divyam.advent.enums.ChallengeCategory;
 import com.divyam.advent.model.Challenge;
 import com.divyam.advent.repository.ChallengeRepository;
+import com.divyam.advent.service.ChallengeCatalog;
 import com.divyam.advent.service.ChallengeCycleSyncService;
 import com.divyam.advent.service.ChallengeService;
 import org.springframework.stereotype.Service;
@@ -15,13 +16,16 @@ public class ChallengeServiceImpl implements ChallengeService {
 
     private final ChallengeRepository challengeRepository;
     private final ChallengeCycleSyncService challengeCycleSyncService;
+    private final ChallengeCatalog challengeCatalog;
 
     public ChallengeServiceImpl(
             ChallengeRepository challengeRepository,
-            ChallengeCycleSyncService challengeCycleSyncService
+            ChallengeCycleSyncService challengeCycleSyncService,
+            ChallengeCatalog challengeCatalog
     ) {
         this.challengeRepository = challengeRepository;
         this.challengeCycleSyncService = challengeCycleSyncService;
+        this.challengeCatalog = challengeCatalog;
     }
 
     @Override
@@ -29,7 +33,9 @@ public class ChallengeServiceImpl implements ChallengeService {
         if (challenge == null) {
             throw new IllegalArgumentException("Challenge cannot be null");
         }
-        return challengeRepository.save(challenge);
+        Challenge saved = challengeRepository.save(challenge);
+        challengeCatalog.rebuild();
+        return saved;
     }
 
     @Override
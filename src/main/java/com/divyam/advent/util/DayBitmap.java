@@ -0,0 +1,188 @@
+package com.divyam.advent.util;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Set of days stored as one bit per day from an origin day, least significant bit first.
+ *
+ * A year of days takes 46 bytes. Setting a day before the origin moves the origin back by whole bytes,
+ * so stored bits never need shifting within a byte. Runs and counts are read a byte at a time, with
+ * full and empty bytes skipped in one step. Not thread-safe.
+ */
+public final class DayBitmap {
+
+    private LocalDate origin;
+    private byte[] bits;
+
+    private DayBitmap(LocalDate origin, byte[] bits) {
+        this.origin = origin;
+        this.bits = bits;
+    }
+
+    public static DayBitmap empty() {
+        return new DayBitmap(null, new byte[0]);
+    }
+
+    /**
+     * Restore a bitmap from {@link #origin()} and {@link #toBytes()}. A null origin or no bytes give an empty bitmap.
+     */
+    public static DayBitmap fromBytes(LocalDate origin, byte[] bytes) {
+        if (origin == null || bytes == null || bytes.length == 0) {
+            return empty();
+        }
+        return new DayBitmap(origin, bytes.clone());
+    }
+
+    /**
+     * @return whether the day was newly added
+     */
+    public boolean set(LocalDate day) {
+        if (origin == null) {
+            origin = day;
+            bits = new byte[1];
+        }
+        long offset = ChronoUnit.DAYS.between(origin, day);
+        if (offset < 0) {
+            int prependBytes = (int) ((-offset + 7) / 8);
+            byte[] grown = new byte[bits.length + prependBytes];
+            System.arraycopy(bits, 0, grown, prependBytes, bits.length);
+            bits = grown;
+            origin = origin.minusDays(prependBytes * 8L);
+            offset = ChronoUnit.DAYS.between(origin, day);
+        }
+        int index = (int) (offset >>> 3);
+        if (index >= bits.length) {
+            bits = Arrays.copyOf(bits, Math.max(index + 1, bits.length + bits.length / 2));
+        }
+        int mask = 1 << (offset & 7);
+        if ((bits[index] & mask) != 0) {
+            return false;
+        }
+        bits[index] |= (byte) mask;
+        return true;
+    }
+
+    public boolean contains(LocalDate day) {
+        if (origin == null) {
+            return false;
+        }
+        long offset = ChronoUnit.DAYS.between(origin, day);
+        return offset >= 0 && offset < (long) bits.length * 8 && bit((int) offset);
+    }
+
+    public boolean isEmpty() {
+        return lastDay() == null;
+    }
+
+    /**
+     * The latest day in the set, or null when it is empty.
+     */
+    public LocalDate lastDay() {
+        for (int index = bits.length - 1; index >= 0; index--) {
+            if (bits[index] != 0) {
+                int highest = 31 - Integer.numberOfLeadingZeros(bits[index] & 0xFF);
+                return origin.plusDays(index * 8L + highest);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Number of consecutive days in the set ending at the given day, 0 if the day is not in the set.
+     */
+    public int runEndingAt(LocalDate day) {
+        if (!contains(day)) {
+            return 0;
+        }
+        int offset = (int) ChronoUnit.DAYS.between(origin, day);
+        int run = 0;
+        while (offset >= 0) {
+            if ((offset & 7) == 7 && bits[offset >>> 3] == (byte) 0xFF) {
+                run += 8;
+                offset -= 8;
+            } else if (bit(offset)) {
+                run++;
+                offset--;
+            } else {
+                break;
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Length of the longest run of consecutive days in the set.
+     */
+    public int longestRun() {
+        int longest = 0;
+        int run = 0;
+        for (byte value : bits) {
+            if (value == (byte) 0xFF) {
+                run += 8;
+                continue;
+            }
+            if (value == 0) {
+                longest = Math.max(longest, run);
+                run = 0;
+                continue;
+            }
+            for (int bit = 0; bit < 8; bit++) {
+                if ((value & (1 << bit)) != 0) {
+                    run++;
+                } else {
+                    longest = Math.max(longest, run);
+                    run = 0;
+                }
+            }
+        }
+        return Math.max(longest, run);
+    }
+
+    /**
+     * Days in the set between from and to, both inclusive, oldest first.
+     */
+    public List<LocalDate> daysBetween(LocalDate from, LocalDate to) {
+        List<LocalDate> days = new ArrayList<>();
+        if (origin == null || to.isBefore(from)) {
+            return days;
+        }
+        long first = Math.max(0, ChronoUnit.DAYS.between(origin, from));
+        long last = Math.min((long) bits.length * 8 - 1, ChronoUnit.DAYS.between(origin, to));
+        for (long offset = first; offset <= last; offset++) {
+            if ((offset & 7) == 0 && offset + 7 <= last && bits[(int) (offset >>> 3)] == 0) {
+                offset += 7;
+                continue;
+            }
+            if (bit((int) offset)) {
+                days.add(origin.plusDays(offset));
+            }
+        }
+        return days;
+    }
+
+    /**
+     * The day of the first bit, or null when nothing was ever set.
+     */
+    public LocalDate origin() {
+        return origin;
+    }
+
+    /**
+     * The bits up to the latest day in the set.
+     */
+    public byte[] toBytes() {
+        LocalDate last = lastDay();
+        if (last == null) {
+            return new byte[0];
+        }
+        return Arrays.copyOf(bits, (int) (ChronoUnit.DAYS.between(origin, last) >>> 3) + 1);
+    }
+
+    private boolean bit(int offset) {
+        return (bits[offset >>> 3] & (1 << (offset & 7))) != 0;
+    }
+}
@@ -0,0 +1,139 @@
+package com.divyam.advent.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters summary over a stream of long keys, with exponentially decaying counts.
+ *
+ * At most capacity keys are tracked. An untracked key replaces the key with the smallest count and
+ * inherits that count as its possible overcount, so any key whose decayed share of the stream exceeds
+ * 1/capacity is always tracked. Each occurrence counts 1 when it happens and half as much one half-life later,
+ * which makes the summary a smooth sliding window. Decay uses a moving landmark (forward decay): new
+ * occurrences weigh more instead of old counts being rewritten, so an update touches one counter.
+ * Not thread-safe.
+ */
+public final class DecayingTopK {
+
+    /**
+     * Rescale once weights reach about 2^46, far from double overflow.
+     */
+    private static final double MAX_EXPONENT = 32.0;
+
+    public record Entry(long key, double count, double overcount) {
+    }
+
+    private final int capacity;
+    private final double lambdaPerMilli;
+    private final long[] keys;
+    private final double[] counts;
+    private final double[] overcounts;
+    private final Map<Long, Integer> slots;
+    private int size;
+    private long landmarkMillis;
+
+    public DecayingTopK(int capacity, long halfLifeMillis, long nowMillis) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (halfLifeMillis <= 0) {
+            throw new IllegalArgumentException("halfLifeMillis must be positive");
+        }
+        this.capacity = capacity;
+        this.lambdaPerMilli = Math.log(2) / halfLifeMillis;
+        this.keys = new long[capacity];
+        this.counts = new double[capacity];
+        this.overcounts = new double[capacity];
+        this.slots = new HashMap<>(capacity * 2);
+        this.landmarkMillis = nowMillis;
+    }
+
+    public void add(long key, long nowMillis) {
+        double exponent = lambdaPerMilli * (nowMillis - landmarkMillis);
+        if (exponent > MAX_EXPONENT) {
+            rescale(nowMillis);
+            exponent = 0;
+        }
+        double weight = Math.exp(exponent);
+
+        Integer slot = slots.get(key);
+        if (slot != null) {
+            counts[slot] += weight;
+            return;
+        }
+
+        if (size < capacity) {
+            keys[size] = key;
+            counts[size] = weight;
+            overcounts[size] = 0;
+            slots.put(key, size);
+            size++;
+            return;
+        }
+
+        int min = 0;
+        for (int i = 1; i < size; i++) {
+            if (counts[i] < counts[min]) {
+                min = i;
+            }
+        }
+        slots.remove(keys[min]);
+        keys[min] = key;
+        overcounts[min] = counts[min];
+        counts[min] += weight;
+        slots.put(key, min);
+    }
+
+    /**
+     * The limit keys with the highest decayed counts as of now, highest first.
+     */
+    public List<Entry> top(int limit, long nowMillis) {
+        // Insertion into a short ranked prefix: O(size * limit) without sorting or allocating every counter.
+        int ranked = Math.min(limit, size);
+        if (ranked <= 0) {
+            return new ArrayList<>();
+        }
+        int[] best = new int[ranked];
+        int filled = 0;
+        for (int i = 0; i < size; i++) {
+            if (filled == ranked && !ranksBefore(i, best[ranked - 1])) {
+                continue;
+            }
+            int position = filled < ranked ? filled++ : ranked - 1;
+            while (position > 0 && ranksBefore(i, best[position - 1])) {
+                best[position] = best[position - 1];
+                position--;
+            }
+            best[position] = i;
+        }
+
+        double scale = Math.exp(-lambdaPerMilli * (nowMillis - landmarkMillis));
+        List<Entry> entries = new ArrayList<>(ranked);
+        for (int slot : best) {
+            entries.add(new Entry(keys[slot], counts[slot] * scale, overcounts[slot] * scale));
+        }
+        return entries;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private boolean ranksBefore(int slot, int other) {
+        if (counts[slot] != counts[other]) {
+            return counts[slot] > counts[other];
+        }
+        return keys[slot] < keys[other];
+    }
+
+    private void rescale(long nowMillis) {
+        double scale = Math.exp(-lambdaPerMilli * (nowMillis - landmarkMillis));
+        for (int i = 0; i < size; i++) {
+            counts[i] *= scale;
+            overcounts[i] *= scale;
+        }
+        landmarkMillis = nowMillis;
+    }
+}
@@ -0,0 +1,120 @@
+package com.divyam.advent.util;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Open-addressing hash table of primitive long keys to long counts.
+ *
+ * Lookups never box, so hot paths can read counts without allocating.
+ * Absent keys read as 0. {@link Long#MIN_VALUE} is reserved as the empty-slot marker and cannot be used as a key.
+ * Not thread-safe.
+ */
+public final class LongCountTable {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys;
+    private long[] counts;
+    private int size;
+    private int mask;
+
+    public LongCountTable() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongCountTable(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public static LongCountTable from(Map<Long, Long> counts) {
+        LongCountTable table = new LongCountTable(counts.size());
+        counts.forEach((key, count) -> {
+            if (key != null && count != null) {
+                table.add(key, count);
+            }
+        });
+        return table;
+    }
+
+    /**
+     * Count stored for the key, or 0 when absent.
+     */
+    public long get(long key) {
+        int slot = slotOf(key);
+        while (true) {
+            long stored = keys[slot];
+            if (stored == key) {
+                return counts[slot];
+            }
+            if (stored == EMPTY) {
+                return 0L;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Add delta to the key's count, inserting the key when absent.
+     */
+    public void add(long key, long delta) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Long.MIN_VALUE cannot be used as a key");
+        }
+
+        int slot = slotOf(key);
+        while (true) {
+            long stored = keys[slot];
+            if (stored == key) {
+                counts[slot] += delta;
+                return;
+            }
+            if (stored == EMPTY) {
+                keys[slot] = key;
+                counts[slot] = delta;
+                if (++size * 2 > keys.length) {
+                    grow();
+                }
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slotOf(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldCounts = counts;
+        allocate(oldKeys.length * 2);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                add(oldKeys[i], oldCounts[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        counts = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
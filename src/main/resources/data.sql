@@ -2,9 +2,15 @@
 ALTER TABLE IF EXISTS users ADD COLUMN IF NOT EXISTS streak integer;
 ALTER TABLE IF EXISTS users ADD COLUMN IF NOT EXISTS total_points bigint;
 ALTER TABLE IF EXISTS users ADD COLUMN IF NOT EXISTS theme_preference varchar(255);
+ALTER TABLE IF EXISTS users ADD COLUMN IF NOT EXISTS longest_streak integer;
+ALTER TABLE IF EXISTS users ADD COLUMN IF NOT EXISTS last_completion_day date;
+ALTER TABLE IF EXISTS users ADD COLUMN IF NOT EXISTS streak_needs_repair boolean;
 
 UPDATE users SET streak = 0 WHERE streak IS NULL;
 UPDATE users SET total_points = 0 WHERE total_points IS NULL;
+UPDATE users SET longest_streak = 0 WHERE longest_streak IS NULL;
+-- Users from before streak tracking get their streak state rebuilt from history once.
+UPDATE users SET streak_needs_repair = true WHERE streak_needs_repair IS NULL;
 UPDATE users
 SET theme_preference = 'SYSTEM'
 WHERE theme_preference IS NULL
@@ -13,10 +19,14 @@ WHERE theme_preference IS NULL
 ALTER TABLE IF EXISTS users ALTER COLUMN streak SET DEFAULT 0;
 ALTER TABLE IF EXISTS users ALTER COLUMN total_points SET DEFAULT 0;
 ALTER TABLE IF EXISTS users ALTER COLUMN theme_preference SET DEFAULT 'SYSTEM';
+ALTER TABLE IF EXISTS users ALTER COLUMN longest_streak SET DEFAULT 0;
+ALTER TABLE IF EXISTS users ALTER COLUMN streak_needs_repair SET DEFAULT false;
 
 ALTER TABLE IF EXISTS users ALTER COLUMN streak SET NOT NULL;
 ALTER TABLE IF EXISTS users ALTER COLUMN total_points SET NOT NULL;
 ALTER TABLE IF EXISTS users ALTER COLUMN theme_preference SET NOT NULL;
+ALTER TABLE IF EXISTS users ALTER COLUMN longest_streak SET NOT NULL;
+ALTER TABLE IF EXISTS users ALTER COLUMN streak_needs_repair SET NOT NULL;
 
 ALTER TABLE IF EXISTS users DROP CONSTRAINT IF EXISTS users_theme_preference_check;
 ALTER TABLE IF EXISTS users
@@ -24,6 +34,55 @@ ALTER TABLE IF EXISTS users
     CHECK (theme_preference IN ('LIGHT','DARK','SYSTEM'));
 ALTER TABLE user_challenges DROP CONSTRAINT IF EXISTS user_challenges_status_check;
 ALTER TABLE user_challenges ADD CONSTRAINT user_challenges_status_check CHECK (status IN ('ASSIGNED','COMPLETED'));
+ALTER TABLE IF EXISTS user_challenges ADD COLUMN IF NOT EXISTS preassigned boolean;
+UPDATE user_challenges SET preassigned = false WHERE preassigned IS NULL;
+ALTER TABLE IF EXISTS user_challenges ALTER COLUMN preassigned SET DEFAULT false;
+ALTER TABLE IF EXISTS user_challenges ALTER COLUMN preassigned SET NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_user_challenges_user_start ON user_challenges (user_id, start_time);
+CREATE INDEX IF NOT EXISTS idx_user_challenges_start_pulse ON user_challenges (start_time, user_id, status, mood);
+ALTER TABLE IF EXISTS pulse_daily_counters ADD COLUMN IF NOT EXISTS finalized boolean;
+UPDATE pulse_daily_counters SET finalized = false WHERE finalized IS NULL;
+ALTER TABLE IF EXISTS pulse_daily_counters ALTER COLUMN finalized SET DEFAULT false;
+ALTER TABLE IF EXISTS pulse_daily_counters ALTER COLUMN finalized SET NOT NULL;
+ALTER TABLE IF EXISTS user_challenges ADD COLUMN IF NOT EXISTS active_assignment_day date;
+UPDATE user_challenges uc
+SET active_assignment_day = CAST(uc.start_time AS date)
+WHERE uc.status = 'ASSIGNED'
+  AND uc.start_time IS NOT NULL
+  AND uc.active_assignment_day IS NULL
+  AND uc.id = (
+      SELECT MIN(d.id) FROM user_challenges d
+      WHERE d.user_id = uc.user_id
+        AND d.challenge_id = uc.challenge_id
+        AND d.status = 'ASSIGNED'
+        AND d.active_assignment_day IS NULL
+        AND CAST(d.start_time AS date) = CAST(uc.start_time AS date)
+  )
+  AND NOT EXISTS (
+      SELECT 1 FROM user_challenges k
+      WHERE k.user_id = uc.user_id
+        AND k.challenge_id = uc.challenge_id
+        AND k.active_assignment_day = CAST(uc.start_time AS date)
+  );
+CREATE UNIQUE INDEX IF NOT EXISTS uk_user_challenges_user_challenge_active_day
+    ON user_challenges (user_id, challenge_id, active_assignment_day);
+ALTER TABLE IF EXISTS user_challenges ADD COLUMN IF NOT EXISTS daily_assignment_day date;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_user_challenges_user_daily_day
+    ON user_challenges (user_id, daily_assignment_day);
+-- Concurrent cube builds could leave a cell twice; keep one copy, then allow a single cell per combination.
+DELETE FROM activity_cube a
+USING activity_cube b
+WHERE a.id > b.id
+  AND a.cube_day = b.cube_day
+  AND a.culture = b.culture
+  AND a.mood IS NOT DISTINCT FROM b.mood
+  AND a.energy_level = b.energy_level
+  AND a.category = b.category
+  AND a.status = b.status;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_activity_cube_cell
+    ON activity_cube (cube_day, culture, COALESCE(mood, ''), energy_level, category, status);
+ALTER TABLE IF EXISTS badges ADD COLUMN IF NOT EXISTS updated_at timestamp(6);
+UPDATE badges SET updated_at = CURRENT_TIMESTAMP WHERE updated_at IS NULL;
 INSERT INTO challenges (title, description, category, energy_level, active, culture) SELECT 'Hidden Cafe Discovery', 'Find a quiet cafe you have never visited and spend 30 minutes there reading or people-watching.', 'EXPLORE_CITY', 'LOW', true, 'GLOBAL' WHERE NOT EXISTS (SELECT 1 FROM challenges WHERE title = 'Hidden Cafe Discovery' AND description = 'Find a quiet cafe you have never visited and spend 30 minutes there reading or people-watching.' AND category = 'EXPLORE_CITY' AND energy_level = 'LOW' AND culture = 'GLOBAL');
 INSERT INTO challenges (title, description, category, energy_level, active, culture) SELECT 'Street Art Snapshot', 'Walk one street you rarely take and photograph 3 pieces of street art or murals.', 'EXPLORE_CITY', 'LOW', true, 'GLOBAL' WHERE NOT EXISTS (SELECT 1 FROM challenges WHERE title = 'Street Art Snapshot' AND description = 'Walk one street you rarely take and photograph 3 pieces of street art or murals.' AND category = 'EXPLORE_CITY' AND energy_level = 'LOW' AND culture = 'GLOBAL');
 INSERT INTO challenges (title, description, category, energy_level, active, culture) SELECT 'Park Bench Pause', 'Visit a nearby park you do not usually go to and sit for 20 minutes observing the area.', 'EXPLORE_CITY', 'LOW', true, 'GLOBAL' WHERE NOT EXISTS (SELECT 1 FROM challenges WHERE title = 'Park Bench Pause' AND description = 'Visit a nearby park you do not usually go to and sit for 20 minutes observing the area.' AND category = 'EXPLORE_CITY' AND energy_level = 'LOW' AND culture = 'GLOBAL');
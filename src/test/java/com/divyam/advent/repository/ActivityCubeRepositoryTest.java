@@ -0,0 +1,77 @@
+package com.divyam.advent.repository;
+
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.enums.CompletionStatus;
+import com.divyam.advent.enums.CubeDimension;
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.enums.EnergyLevel;
+import com.divyam.advent.enums.Mood;
+import com.divyam.advent.model.ActivityCubeCell;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class ActivityCubeRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+    @Autowired
+    private ActivityCubeRepository cubeRepository;
+
+    @BeforeEach
+    void setUp() {
+        cubeRepository.saveAll(List.of(
+                cell(DAY, Culture.INDIA, Mood.HIGH, CompletionStatus.COMPLETED, 3),
+                cell(DAY, Culture.INDIA, Mood.HIGH, CompletionStatus.ASSIGNED, 1),
+                cell(DAY.plusDays(1), Culture.INDIA, null, CompletionStatus.COMPLETED, 2),
+                cell(DAY, Culture.RUSSIA, Mood.LOW, CompletionStatus.COMPLETED, 5),
+                cell(DAY.plusDays(2), Culture.INDIA, Mood.LOW, CompletionStatus.COMPLETED, 7)
+        ));
+    }
+
+    @Test
+    void sumSlice_filtersAndGroupsInTheQuery() {
+        List<ActivityCubeRepository.SliceTotal> totals = cubeRepository.sumSlice(
+                DAY, DAY.plusDays(1), Set.of(Culture.INDIA), null, Set.of(), null, null, List.of(CubeDimension.MOOD));
+
+        List<ActivityCubeRepository.SliceTotal> sorted = totals.stream()
+                .sorted(Comparator.comparingLong(ActivityCubeRepository.SliceTotal::challenges).reversed())
+                .toList();
+        assertEquals(2, sorted.size());
+        assertEquals(Mood.HIGH, sorted.get(0).key().get(0));
+        assertEquals(4, sorted.get(0).challenges());
+        assertEquals(3, sorted.get(0).completed());
+        assertNull(sorted.get(1).key().get(0));
+        assertEquals(2, sorted.get(1).challenges());
+        assertEquals(2, sorted.get(1).completed());
+    }
+
+    @Test
+    void sumSlice_withoutGroupByReturnsOneTotalOrNothing() {
+        List<ActivityCubeRepository.SliceTotal> totals = cubeRepository.sumSlice(
+                DAY, DAY.plusDays(2), null, Set.of(Mood.LOW), null, null, null, List.of());
+
+        assertEquals(1, totals.size());
+        assertTrue(totals.get(0).key().isEmpty());
+        assertEquals(12, totals.get(0).challenges());
+        assertEquals(12, totals.get(0).completed());
+
+        assertTrue(cubeRepository.sumSlice(
+                DAY.plusDays(5), DAY.plusDays(6), null, null, null, null, null, List.of()).isEmpty());
+    }
+
+    private static ActivityCubeCell cell(LocalDate day, Culture culture, Mood mood, CompletionStatus status, long challenges) {
+        return new ActivityCubeCell(day, culture, mood, EnergyLevel.MEDIUM, ChallengeCategory.EXPLORE_CITY, status, challenges);
+    }
+}
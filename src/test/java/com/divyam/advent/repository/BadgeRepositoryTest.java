@@ -0,0 +1,37 @@
+package com.divyam.advent.repository;
+
+import com.divyam.advent.model.Badge;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest
+class BadgeRepositoryTest {
+
+    @Autowired
+    private BadgeRepository badgeRepository;
+
+    @Test
+    void findCatalogVersion_countsBadgesAndTracksTheLatestChange() {
+        assertEquals(0, badgeRepository.findCatalogVersion().getBadges());
+        assertNull(badgeRepository.findCatalogVersion().getLastUpdatedAt());
+
+        badgeRepository.saveAndFlush(new Badge("FIRST", "First", "Description", "icon", "COMPLETED_CHALLENGES:1"));
+        BadgeRepository.CatalogVersionProjection created = badgeRepository.findCatalogVersion();
+        assertEquals(1, created.getBadges());
+        assertNotNull(created.getLastUpdatedAt());
+
+        Badge badge = badgeRepository.findById("FIRST").orElseThrow();
+        badge.setCriteria("COMPLETED_CHALLENGES:2");
+        badgeRepository.saveAndFlush(badge);
+        LocalDateTime changed = badgeRepository.findCatalogVersion().getLastUpdatedAt();
+        assertFalse(changed.isBefore(created.getLastUpdatedAt()));
+    }
+}
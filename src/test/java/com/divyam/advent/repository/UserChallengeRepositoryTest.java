@@ -0,0 +1,104 @@
+package com.divyam.advent.repository;
+
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.enums.CompletionStatus;
+import com.divyam.advent.enums.EnergyLevel;
+import com.divyam.advent.model.Challenge;
+import com.divyam.advent.model.User;
+import com.divyam.advent.model.UserChallenge;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class UserChallengeRepositoryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    @Autowired
+    private UserChallengeRepository userChallengeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ChallengeRepository challengeRepository;
+
+    private User user;
+    private Challenge challenge;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User(null, "Sam", "sam@example.com"));
+        challenge = challengeRepository.save(
+                new Challenge("Walk", "Take a walk", ChallengeCategory.EXPLORE_CITY, EnergyLevel.LOW, true));
+    }
+
+    @Test
+    void findLatestCompletionStreak_returnsLatestRunAndLongestAndSkipsRowsWithoutADay() {
+        for (int daysAgo : new int[]{0, 1, 5, 6, 7}) {
+            completed(TODAY.minusDays(daysAgo));
+        }
+        // Two completions on the same day count once.
+        completed(TODAY.minusDays(1));
+        completed(null);
+
+        List<UserChallengeRepository.CompletionStreakProjection> streaks = userChallengeRepository
+                .findLatestCompletionStreak(user.getId(), LocalDate.EPOCH, PageRequest.of(0, 1));
+
+        assertEquals(1, streaks.size());
+        assertEquals(TODAY, streaks.get(0).getLastDay());
+        assertEquals(2, streaks.get(0).getDays());
+        assertEquals(3, streaks.get(0).getLongest());
+    }
+
+    @Test
+    void findLatestCompletionStreak_isEmptyWhenNoCompletionHasADay() {
+        completed(null);
+
+        assertEquals(List.of(), userChallengeRepository
+                .findLatestCompletionStreak(user.getId(), LocalDate.EPOCH, PageRequest.of(0, 1)));
+    }
+
+    @Test
+    void findVisibleByUser_Id_hidesRowsPreassignedForADayThatHasNotStarted() {
+        LocalDateTime now = TODAY.atTime(23, 45);
+        UserChallenge yesterday = userChallengeRepository.save(assigned(TODAY.minusDays(1).atTime(8, 0), false));
+        UserChallenge todays = userChallengeRepository.save(assigned(TODAY.atStartOfDay(), true));
+        userChallengeRepository.save(assigned(TODAY.plusDays(1).atStartOfDay(), true));
+
+        assertEquals(
+                List.of(yesterday.getId(), todays.getId()),
+                userChallengeRepository.findVisibleByUser_Id(user.getId(), now).stream()
+                        .map(UserChallenge::getId)
+                        .sorted()
+                        .toList()
+        );
+        assertEquals(2, userChallengeRepository.countVisibleByUser_Id(user.getId(), now));
+        assertEquals(2, userChallengeRepository
+                .findVisibleByUser_IdAndStatus(user.getId(), CompletionStatus.ASSIGNED, now).size());
+        assertEquals(2, userChallengeRepository.findVisibleByChallenge_Id(challenge.getId(), now).size());
+    }
+
+    private UserChallenge assigned(LocalDateTime startTime, boolean preassigned) {
+        UserChallenge row = new UserChallenge(user, challenge, CompletionStatus.ASSIGNED);
+        row.setStartTime(startTime);
+        row.setPreassigned(preassigned);
+        return row;
+    }
+
+    private void completed(LocalDate day) {
+        UserChallenge row = new UserChallenge(user, challenge, CompletionStatus.COMPLETED);
+        row.setStartTime(day != null ? day.atTime(8, 0) : null);
+        row.setCompletionTime(day != null ? day.atTime(20, 0) : null);
+        userChallengeRepository.save(row);
+    }
+}
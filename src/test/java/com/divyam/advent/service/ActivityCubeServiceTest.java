@@ -0,0 +1,144 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.dto.ActivityCubeQueryRequest;
+import com.divyam.advent.dto.ActivityCubeSliceDto;
+import com.divyam.advent.enums.CubeDimension;
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.enums.Mood;
+import com.divyam.advent.model.ActivityCubeBuild;
+import com.divyam.advent.repository.ActivityCubeBuildRepository;
+import com.divyam.advent.repository.ActivityCubeRepository;
+import com.divyam.advent.repository.UserChallengeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityCubeServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private ActivityCubeRepository cubeRepository;
+
+    @Mock
+    private ActivityCubeBuildRepository buildRepository;
+
+    @Mock
+    private UserChallengeRepository userChallengeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ActivityCubeService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ActivityCubeService(cubeRepository, buildRepository, userChallengeRepository, transactionManager);
+    }
+
+    @Test
+    void queryLabelsAndSortsTheGroupedTotals() {
+        ActivityCubeQueryRequest request = new ActivityCubeQueryRequest();
+        request.setFrom(DAY);
+        request.setTo(DAY.plusDays(1));
+        request.setCultures(Set.of(Culture.INDIA));
+        request.setGroupBy(List.of(CubeDimension.MOOD, CubeDimension.MOOD));
+        when(cubeRepository.sumSlice(DAY, DAY.plusDays(1), Set.of(Culture.INDIA), null, null, null, null,
+                List.of(CubeDimension.MOOD))).thenReturn(List.of(
+                new ActivityCubeRepository.SliceTotal(Arrays.asList((Object) null), 2, 2),
+                new ActivityCubeRepository.SliceTotal(List.of(Mood.HIGH), 4, 3)
+        ));
+        when(cubeRepository.findLastBuiltDay()).thenReturn(Optional.of(DAY.plusDays(1)));
+
+        ActivityCubeSliceDto slice = service.query(request);
+
+        assertEquals(DAY.plusDays(1), slice.builtThrough());
+        assertEquals(List.of(CubeDimension.MOOD), slice.groupBy());
+        assertEquals(2, slice.rows().size());
+        ActivityCubeSliceDto.Row high = slice.rows().get(0);
+        assertEquals(Map.of(CubeDimension.MOOD, "HIGH"), high.key());
+        assertEquals(4, high.challenges());
+        assertEquals(3, high.completed());
+        assertEquals(75.0, high.completionPercentage(), 0.001);
+        ActivityCubeSliceDto.Row none = slice.rows().get(1);
+        assertEquals(Map.of(CubeDimension.MOOD, "NONE"), none.key());
+        assertEquals(2, none.challenges());
+    }
+
+    @Test
+    void queryRejectsReversedRange() {
+        ActivityCubeQueryRequest request = new ActivityCubeQueryRequest();
+        request.setFrom(DAY);
+        request.setTo(DAY.minusDays(1));
+
+        assertThrows(IllegalArgumentException.class, () -> service.query(request));
+        verify(cubeRepository, never()).sumSlice(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void buildRewritesTheTrailingWeekAfterTheLastBuiltDay() {
+        ActivityCubeBuild build = new ActivityCubeBuild(ActivityCubeBuild.MARKER_ID);
+        build.setBuiltThrough(DAY.minusDays(1));
+        when(buildRepository.findByIdForUpdate(ActivityCubeBuild.MARKER_ID)).thenReturn(Optional.of(build));
+        when(cubeRepository.findLastBuiltDay()).thenReturn(Optional.of(DAY.minusDays(1)));
+        when(userChallengeRepository.aggregateActivityCube(any(), any())).thenReturn(List.of());
+
+        service.buildThrough(DAY);
+
+        LocalDate firstDay = DAY.minusDays(ActivityCubeService.REBUILT_TRAILING_DAYS - 1);
+        verify(cubeRepository).deleteByDayBetween(firstDay, DAY);
+        verify(userChallengeRepository).aggregateActivityCube(
+                firstDay.atStartOfDay(), DAY.plusDays(1).atStartOfDay());
+        assertEquals(DAY, build.getBuiltThrough());
+        verify(buildRepository).save(build);
+    }
+
+    @Test
+    void buildSkipsWhenAnotherNodeAlreadyBuiltThroughTheDay() {
+        ActivityCubeBuild build = new ActivityCubeBuild(ActivityCubeBuild.MARKER_ID);
+        build.setBuiltThrough(DAY);
+        when(buildRepository.findByIdForUpdate(ActivityCubeBuild.MARKER_ID)).thenReturn(Optional.of(build));
+
+        assertEquals(0, service.buildThrough(DAY));
+
+        verify(cubeRepository, never()).deleteByDayBetween(any(), any());
+        verify(userChallengeRepository, never()).aggregateActivityCube(any(), any());
+    }
+
+    @Test
+    void firstBuildStartsAtTheEarliestChallenge() {
+        LocalDateTime earliest = DAY.minusDays(40).atTime(9, 30);
+        ActivityCubeBuild created = new ActivityCubeBuild(ActivityCubeBuild.MARKER_ID);
+        when(buildRepository.findByIdForUpdate(ActivityCubeBuild.MARKER_ID))
+                .thenReturn(Optional.empty(), Optional.of(created));
+        when(cubeRepository.findLastBuiltDay()).thenReturn(Optional.empty());
+        when(userChallengeRepository.findEarliestStartTime()).thenReturn(Optional.of(earliest));
+        when(userChallengeRepository.aggregateActivityCube(any(), any())).thenReturn(List.of());
+
+        service.buildThrough(DAY);
+
+        verify(cubeRepository).deleteByDayBetween(earliest.toLocalDate(), DAY);
+        verify(buildRepository).saveAndFlush(argThat(marker -> marker.getId() == ActivityCubeBuild.MARKER_ID));
+        assertEquals(DAY, created.getBuiltThrough());
+    }
+}
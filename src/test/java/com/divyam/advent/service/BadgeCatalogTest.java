@@ -0,0 +1,94 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.model.Badge;
+import com.divyam.advent.repository.BadgeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BadgeCatalogTest {
+
+    private static final long CHECK_MILLIS = 30_000L;
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2026, 3, 10, 9, 0);
+
+    @Mock
+    private BadgeRepository badgeRepository;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private BadgeCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new BadgeCatalog(badgeRepository, CHECK_MILLIS, nanos::get);
+    }
+
+    @Test
+    void table_doesNotProbeWithinTheCheckInterval() {
+        when(badgeRepository.findCatalogVersion()).thenReturn(version(1, UPDATED));
+        when(badgeRepository.findAllByOrderByTitleAsc()).thenReturn(List.of(badge("FIRST")));
+
+        catalog.table();
+        nanos.addAndGet(CHECK_MILLIS * 1_000_000L - 1);
+        catalog.table();
+
+        verify(badgeRepository, times(1)).findCatalogVersion();
+        verify(badgeRepository, times(1)).findAllByOrderByTitleAsc();
+    }
+
+    @Test
+    void table_keepsTheCompiledRulesWhenTheProbeIsUnchanged() {
+        when(badgeRepository.findCatalogVersion()).thenReturn(version(1, UPDATED));
+        when(badgeRepository.findAllByOrderByTitleAsc()).thenReturn(List.of(badge("FIRST")));
+
+        BadgeRuleTable first = catalog.table();
+        nanos.addAndGet(CHECK_MILLIS * 1_000_000L);
+
+        assertEquals(first, catalog.table());
+        verify(badgeRepository, times(2)).findCatalogVersion();
+        verify(badgeRepository, times(1)).findAllByOrderByTitleAsc();
+    }
+
+    @Test
+    void table_recompilesOnceAnotherNodeChangedABadge() {
+        when(badgeRepository.findCatalogVersion())
+                .thenReturn(version(1, UPDATED), version(1, UPDATED.plusMinutes(1)));
+        when(badgeRepository.findAllByOrderByTitleAsc())
+                .thenReturn(List.of(badge("FIRST")), List.of(badge("FIRST"), badge("SECOND")));
+
+        assertEquals(1, catalog.table().badges().size());
+        nanos.addAndGet(CHECK_MILLIS * 1_000_000L);
+
+        assertEquals(2, catalog.table().badges().size());
+    }
+
+    private static BadgeRepository.CatalogVersionProjection version(long badges, LocalDateTime lastUpdatedAt) {
+        return new BadgeRepository.CatalogVersionProjection() {
+            @Override
+            public long getBadges() {
+                return badges;
+            }
+
+            @Override
+            public LocalDateTime getLastUpdatedAt() {
+                return lastUpdatedAt;
+            }
+        };
+    }
+
+    private static Badge badge(String id) {
+        return new Badge(id, id, "Description", "icon", "COMPLETED_CHALLENGES:1");
+    }
+}
@@ -0,0 +1,68 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.enums.BadgeMetric;
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.model.Badge;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BadgeRuleTableTest {
+
+    @Test
+    void compileCriteria_parsesTypedRules() {
+        assertEquals(
+                new BadgeRuleTable.Rule(BadgeMetric.STREAK_DAYS, null, 7),
+                BadgeRuleTable.compileCriteria(" streak_days : 7 ")
+        );
+        assertEquals(
+                new BadgeRuleTable.Rule(BadgeMetric.CATEGORY_COMPLETED, ChallengeCategory.EXPLORE_CITY, 5),
+                BadgeRuleTable.compileCriteria("CATEGORY_COMPLETED:EXPLORE_CITY:5")
+        );
+        assertThrows(IllegalArgumentException.class, () -> BadgeRuleTable.compileCriteria("STREAK_DAYS"));
+        assertThrows(IllegalArgumentException.class, () -> BadgeRuleTable.compileCriteria("KARMA:3"));
+        assertThrows(IllegalArgumentException.class, () -> BadgeRuleTable.compileCriteria("CATEGORY_COMPLETED:5"));
+        assertThrows(IllegalArgumentException.class, () -> BadgeRuleTable.compileCriteria("COMPLETED_CHALLENGES:many"));
+    }
+
+    @Test
+    void newlyMet_returnsUnearnedBadgesWhoseRulesAreMetInCatalogOrder() {
+        BadgeRuleTable table = BadgeRuleTable.compile(List.of(
+                badge("FIRST", "COMPLETED_CHALLENGES:1"),
+                badge("BROKEN", "NOT_A_RULE"),
+                badge("CITY_5", "CATEGORY_COMPLETED:EXPLORE_CITY:5"),
+                badge("STREAK_7", "STREAK_DAYS:7"),
+                badge("LONGEST_7", "LONGEST_STREAK_DAYS:7")
+        ));
+        BadgeRuleTable.Progress progress = new BadgeRuleTable.Progress(
+                12,
+                3,
+                9,
+                Map.of(ChallengeCategory.EXPLORE_CITY, 5L)
+        );
+
+        List<Badge> met = table.newlyMet(progress, Set.of("FIRST"));
+
+        assertEquals(5, table.badges().size());
+        assertTrue(table.usesCategoryCounts());
+        assertEquals(List.of("CITY_5", "LONGEST_7"), met.stream().map(Badge::getId).toList());
+    }
+
+    @Test
+    void usesCategoryCounts_isFalseWithoutPerCategoryRules() {
+        BadgeRuleTable table = BadgeRuleTable.compile(List.of(badge("STREAK_3", "STREAK_DAYS:3")));
+
+        assertFalse(table.usesCategoryCounts());
+    }
+
+    private static Badge badge(String id, String criteria) {
+        return new Badge(id, id, "description", "icon", criteria);
+    }
+}
@@ -0,0 +1,88 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.enums.CompletionStatus;
+import com.divyam.advent.model.Badge;
+import com.divyam.advent.model.User;
+import com.divyam.advent.repository.BadgeRepository;
+import com.divyam.advent.repository.UserChallengeRepository;
+import com.divyam.advent.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BadgeServiceTest {
+
+    @Mock
+    private BadgeRepository badgeRepository;
+
+    @Mock
+    private BadgeCatalog badgeCatalog;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserChallengeRepository userChallengeRepository;
+
+    @Mock
+    private StreakService streakService;
+
+    private BadgeService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BadgeService(badgeRepository, badgeCatalog, userRepository, userChallengeRepository, streakService);
+    }
+
+    @Test
+    void recordCompletion_updatesTheLockedUserRatherThanTheCallersCopy() {
+        LocalDate today = LocalDate.now();
+        User stale = new User(1L, "Sam", "sam@example.com");
+        User locked = new User(1L, "Samantha", "sam@example.com");
+        when(userRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(locked));
+        when(streakService.recordCompletion(locked, today)).thenReturn(true);
+        when(userChallengeRepository.countByUser_IdAndStatus(1L, CompletionStatus.COMPLETED)).thenReturn(1L);
+        when(badgeCatalog.table()).thenReturn(BadgeRuleTable.compile(List.of(badge("FIRST", "COMPLETED_CHALLENGES:1"))));
+
+        List<Badge> unlocked = service.recordCompletion(stale, today);
+
+        assertEquals(List.of("FIRST"), unlocked.stream().map(Badge::getId).toList());
+        assertEquals(10L, locked.getTotalPoints());
+        assertEquals(0L, stale.getTotalPoints());
+        verify(userRepository).save(locked);
+    }
+
+    @Test
+    void invalidateStreak_flagsTheLockedUser() {
+        User stale = new User(1L, "Sam", "sam@example.com");
+        User locked = new User(1L, "Samantha", "sam@example.com");
+        when(userRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(locked));
+        when(userChallengeRepository.countByUser_IdAndStatus(1L, CompletionStatus.COMPLETED)).thenReturn(2L);
+
+        service.invalidateStreak(stale);
+
+        verify(streakService).invalidate(locked);
+        assertEquals(20L, locked.getTotalPoints());
+        assertEquals("Samantha", locked.getName());
+        assertEquals(0L, stale.getTotalPoints());
+        verify(userRepository).save(locked);
+    }
+
+    private static Badge badge(String id, String criteria) {
+        Badge badge = new Badge();
+        badge.setId(id);
+        badge.setCriteria(criteria);
+        return badge;
+    }
+}
@@ -0,0 +1,98 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.enums.EnergyLevel;
+import com.divyam.advent.model.Challenge;
+import com.divyam.advent.repository.ChallengeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChallengeCatalogTest {
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    private ChallengeCatalog challengeCatalog;
+
+    @BeforeEach
+    void setUp() {
+        challengeCatalog = new ChallengeCatalog(challengeRepository);
+    }
+
+    @Test
+    void snapshot_indexesSeededChallengesByEnergyAndCulture() {
+        Challenge globalLow = challenge(1L, EnergyLevel.LOW, Culture.GLOBAL, null, null);
+        Challenge indiaLow = challenge(2L, EnergyLevel.LOW, Culture.INDIA, null, null);
+        Challenge russiaLow = challenge(3L, EnergyLevel.LOW, Culture.RUSSIA, null, null);
+        Challenge globalHigh = challenge(4L, EnergyLevel.HIGH, Culture.GLOBAL, null, null);
+        when(challengeRepository.findByActiveTrue()).thenReturn(List.of(russiaLow, globalHigh, indiaLow, globalLow));
+
+        ChallengeCatalog.Snapshot snapshot = challengeCatalog.snapshot();
+
+        assertEquals(List.of(globalLow, indiaLow), snapshot.seeded(EnergyLevel.LOW, Culture.INDIA));
+        assertEquals(List.of(globalLow), snapshot.seeded(EnergyLevel.LOW, Culture.GLOBAL));
+        assertEquals(List.of(globalLow), snapshot.seeded(EnergyLevel.LOW, null));
+        assertEquals(List.of(globalLow, indiaLow, russiaLow), snapshot.seeded(EnergyLevel.LOW));
+        assertTrue(snapshot.seeded(EnergyLevel.MEDIUM).isEmpty());
+        assertTrue(snapshot.cycle().isEmpty());
+        assertNull(snapshot.getCycleSourceVersion());
+        assertSame(indiaLow, snapshot.findById(2L));
+    }
+
+    @Test
+    void snapshot_ordersCycleChallengesByDayAndKeepsThemOutOfSeededLists() {
+        Challenge dayTwo = challenge(11L, EnergyLevel.HIGH, Culture.GLOBAL, "pdf:v1", 2);
+        Challenge dayOne = challenge(10L, EnergyLevel.LOW, Culture.GLOBAL, "pdf:v1", 1);
+        Challenge dayThree = challenge(12L, EnergyLevel.LOW, Culture.GLOBAL, "pdf:v1", 3);
+        when(challengeRepository.findByActiveTrue()).thenReturn(List.of(dayTwo, dayThree, dayOne));
+
+        ChallengeCatalog.Snapshot snapshot = challengeCatalog.snapshot();
+
+        assertEquals("pdf:v1", snapshot.getCycleSourceVersion());
+        assertEquals(List.of(dayOne, dayTwo, dayThree), snapshot.cycle());
+        assertEquals(List.of(dayOne, dayThree), snapshot.cycle(EnergyLevel.LOW));
+        assertTrue(snapshot.seeded(EnergyLevel.LOW).isEmpty());
+    }
+
+    @Test
+    void rebuild_swapsSnapshotWithoutReloadingOnEveryRead() {
+        Challenge first = challenge(1L, EnergyLevel.LOW, Culture.GLOBAL, null, null);
+        Challenge second = challenge(2L, EnergyLevel.LOW, Culture.GLOBAL, null, null);
+        when(challengeRepository.findByActiveTrue())
+                .thenReturn(List.of(first))
+                .thenReturn(List.of(first, second));
+
+        ChallengeCatalog.Snapshot before = challengeCatalog.snapshot();
+        challengeCatalog.snapshot();
+        challengeCatalog.rebuild();
+        ChallengeCatalog.Snapshot after = challengeCatalog.snapshot();
+
+        assertEquals(List.of(first), before.seeded(EnergyLevel.LOW));
+        assertEquals(List.of(first, second), after.seeded(EnergyLevel.LOW));
+        verify(challengeRepository, times(2)).findByActiveTrue();
+    }
+
+    private Challenge challenge(Long id, EnergyLevel energyLevel, Culture culture, String sourceVersion, Integer cycleDay) {
+        Challenge challenge = new Challenge("Challenge " + id, "Description", ChallengeCategory.WILDCARD, energyLevel, true);
+        challenge.setId(id);
+        challenge.setCulture(culture);
+        challenge.setSourceVersion(sourceVersion);
+        challenge.setCycleDay(cycleDay);
+        return challenge;
+    }
+}
@@ -0,0 +1,163 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.dto.CohortSimulationRequest;
+import com.divyam.advent.dto.CohortSimulationResultDto;
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.enums.CompletionStatus;
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.enums.EnergyLevel;
+import com.divyam.advent.model.Challenge;
+import com.divyam.advent.model.User;
+import com.divyam.advent.model.UserChallenge;
+import com.divyam.advent.repository.ChallengeRepository;
+import com.divyam.advent.repository.UserChallengeRepository;
+import com.divyam.advent.repository.UserChallengeSummaryRepository;
+import com.divyam.advent.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CohortSimulationServiceTest {
+
+    private static final int USERS = 1000;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserChallengeSummaryRepository summaryRepository;
+
+    @Mock
+    private UserChallengeRepository userChallengeRepository;
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CohortSimulationService service;
+
+    @BeforeEach
+    void setUp() {
+        ChallengeCatalog catalog = new ChallengeCatalog(challengeRepository);
+        service = new CohortSimulationService(
+                userRepository,
+                new UserChallengeSummaryService(summaryRepository, userChallengeRepository, transactionManager),
+                catalog,
+                new DailyChallengeSelector(catalog),
+                transactionManager
+        );
+
+        List<UserRepository.UserCultureProjection> users = new ArrayList<>();
+        for (long id = 1; id <= USERS; id++) {
+            users.add(user(id));
+        }
+        when(userRepository.findCulturesAfter(anyLong(), any())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            Pageable page = invocation.getArgument(1);
+            return users.stream().filter(user -> user.getId() > afterId).limit(page.getPageSize()).toList();
+        });
+        when(summaryRepository.findAllById(any())).thenReturn(List.of());
+    }
+
+    @Test
+    void simulate_spreadsEveryUserEvenlyAcrossTheActiveCatalog() {
+        when(challengeRepository.findByActiveTrue()).thenReturn(List.of(
+                challenge(1L, ChallengeCategory.EXPLORE_CITY),
+                challenge(2L, ChallengeCategory.SOCIAL_SPARK),
+                challenge(3L, ChallengeCategory.CAMPUS_LIFE)
+        ));
+        CohortSimulationRequest request = new CohortSimulationRequest();
+        request.setDays(3);
+        request.setStartDate(LocalDate.of(2024, 12, 1));
+
+        CohortSimulationResultDto result = service.simulate(request);
+
+        assertEquals(USERS, result.usersWithoutHistory());
+        assertEquals(0, result.unassignableUsers());
+        assertEquals(3L * USERS, result.assignments());
+        assertEquals(Map.of(EnergyLevel.LOW, 0L, EnergyLevel.MEDIUM, 3L * USERS, EnergyLevel.HIGH, 0L),
+                result.byEnergyLevel());
+        assertEquals((long) USERS, result.byCategory().get(ChallengeCategory.SOCIAL_SPARK));
+        assertEquals((long) USERS, result.byDay().get(0).get(ChallengeCategory.CAMPUS_LIFE));
+        assertEquals((long) USERS, result.byDay().get(2).get(ChallengeCategory.SOCIAL_SPARK));
+    }
+
+    @Test
+    void simulate_usesCandidateCatalogInsteadOfActiveOne() {
+        Challenge candidate = new Challenge("Candidate", "Description", ChallengeCategory.SOCIAL_SPARK, EnergyLevel.LOW, true);
+        CohortSimulationRequest request = new CohortSimulationRequest();
+        request.setDays(2);
+        request.setCatalog(List.of(candidate));
+
+        CohortSimulationResultDto result = service.simulate(request);
+
+        assertEquals(2L * USERS, result.byCategory().get(ChallengeCategory.SOCIAL_SPARK));
+        assertEquals(2L * USERS, result.byEnergyLevel().get(EnergyLevel.LOW));
+        verify(challengeRepository, never()).findByActiveTrue();
+        assertNull(candidate.getId());
+    }
+
+    @Test
+    void simulate_readsHistoryForUsersWithoutAStoredSummary() {
+        Challenge walked = challenge(1L, ChallengeCategory.EXPLORE_CITY);
+        when(challengeRepository.findByActiveTrue()).thenReturn(List.of(
+                walked,
+                challenge(2L, ChallengeCategory.SOCIAL_SPARK)
+        ));
+        UserChallenge yesterday = new UserChallenge(new User(7L, "Sam", "sam@example.com"), walked, CompletionStatus.COMPLETED);
+        yesterday.setStartTime(LocalDate.of(2024, 11, 30).atTime(9, 0));
+        when(userChallengeRepository.findFirstByUser_IdAndStartTimeNotNullOrderByStartTimeDescIdDesc(anyLong()))
+                .thenAnswer(invocation -> invocation.getArgument(0).equals(7L) ? Optional.of(yesterday) : Optional.empty());
+        CohortSimulationRequest request = new CohortSimulationRequest();
+        request.setDays(1);
+        request.setStartDate(LocalDate.of(2024, 12, 1));
+
+        CohortSimulationResultDto result = service.simulate(request);
+
+        assertEquals(USERS, result.users());
+        assertEquals(USERS - 1, result.usersWithoutHistory());
+        assertEquals(1L * USERS, result.assignments());
+    }
+
+    private UserRepository.UserCultureProjection user(Long id) {
+        return new UserRepository.UserCultureProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Culture getCountry() {
+                return Culture.GLOBAL;
+            }
+        };
+    }
+
+    private Challenge challenge(Long id, ChallengeCategory category) {
+        Challenge challenge = new Challenge("Challenge " + id, "Description", category, EnergyLevel.MEDIUM, true);
+        challenge.setId(id);
+        challenge.setCulture(Culture.GLOBAL);
+        return challenge;
+    }
+}
@@ -0,0 +1,163 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.enums.EnergyLevel;
+import com.divyam.advent.enums.Mood;
+import com.divyam.advent.model.Challenge;
+import com.divyam.advent.model.UserChallengeSummary;
+import com.divyam.advent.repository.ChallengeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DailyChallengeSelectorTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 12, 3);
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    private DailyChallengeSelector selector;
+
+    @BeforeEach
+    void setUp() {
+        selector = new DailyChallengeSelector(new ChallengeCatalog(challengeRepository));
+    }
+
+    @Test
+    void select_prefersUnseenChallengeOutsideLatestCategory() {
+        Challenge seen = challenge(1L, ChallengeCategory.EXPLORE_CITY);
+        Challenge sameCategory = challenge(2L, ChallengeCategory.EXPLORE_CITY);
+        Challenge fresh = challenge(3L, ChallengeCategory.SOCIAL_SPARK);
+        when(challengeRepository.findByActiveTrue()).thenReturn(List.of(seen, sameCategory, fresh));
+
+        UserChallengeSummary summary = new UserChallengeSummary(7L);
+        summary.recordAssignment(1L, ChallengeCategory.EXPLORE_CITY, DAY.minusDays(1).atTime(9, 0));
+
+        assertEquals(fresh, selector.select(Culture.GLOBAL, Mood.NEUTRAL, summary, DAY));
+    }
+
+    @Test
+    void select_ranksAgainstTodayAfterTomorrowWasPreassigned() {
+        Challenge today = challenge(1L, ChallengeCategory.EXPLORE_CITY);
+        Challenge sameCategory = challenge(2L, ChallengeCategory.EXPLORE_CITY);
+        Challenge fresh = challenge(4L, ChallengeCategory.SOCIAL_SPARK);
+        when(challengeRepository.findByActiveTrue()).thenReturn(List.of(today, sameCategory, fresh));
+
+        UserChallengeSummary summary = new UserChallengeSummary(7L);
+        summary.recordAssignment(1L, ChallengeCategory.EXPLORE_CITY, DAY.atTime(9, 0));
+        summary.recordAssignment(3L, ChallengeCategory.SOCIAL_SPARK, DAY.plusDays(1).atStartOfDay());
+
+        assertEquals(Set.of(1L), summary.getChallengeIdsOn(DAY));
+        assertEquals(Set.of(3L), summary.getChallengeIdsOn(DAY.plusDays(1)));
+        assertEquals(1L, summary.getLastChallengeIdAsOf(DAY));
+        assertEquals(fresh, selector.select(Culture.GLOBAL, Mood.NEUTRAL, summary, DAY));
+    }
+
+    @Test
+    void select_failsWhenCatalogHasNoCandidates() {
+        when(challengeRepository.findByActiveTrue()).thenReturn(List.of());
+
+        assertThrows(IllegalStateException.class,
+                () -> selector.select(Culture.GLOBAL, Mood.LOW, new UserChallengeSummary(7L), DAY));
+    }
+
+    @Test
+    void project_rotatesThroughCatalogKeepsAssignedDaysAndLeavesSummaryUntouched() {
+        Challenge first = challenge(1L, ChallengeCategory.EXPLORE_CITY);
+        Challenge second = challenge(2L, ChallengeCategory.SOCIAL_SPARK);
+        Challenge third = challenge(3L, ChallengeCategory.EXPLORE_CITY);
+        when(challengeRepository.findByActiveTrue()).thenReturn(List.of(first, second, third));
+
+        UserChallengeSummary summary = new UserChallengeSummary(7L);
+        summary.recordAssignment(2L, ChallengeCategory.SOCIAL_SPARK, DAY.atTime(9, 0));
+
+        List<Challenge> plan = selector.project(Culture.GLOBAL, Mood.NEUTRAL, summary, DAY, 4, Map.of(DAY, second));
+
+        assertEquals(List.of(second, first, third, second), plan);
+        assertEquals(Map.of(2L, 1L), summary.getChallengeUsageCounts());
+        assertEquals(DAY, summary.getLastAssignmentDay());
+    }
+
+    @Test
+    void select_matchesFilterChainRankingOnRandomHistories() {
+        Random random = new Random(42);
+        List<Challenge> catalog = new ArrayList<>();
+        for (long id = 1; id <= 24; id++) {
+            Challenge challenge = challenge(id, ChallengeCategory.values()[random.nextInt(ChallengeCategory.values().length)]);
+            challenge.setCycleDay(random.nextBoolean() ? random.nextInt(5) : null);
+            catalog.add(challenge);
+        }
+        when(challengeRepository.findByActiveTrue()).thenReturn(catalog);
+
+        for (int round = 0; round < 500; round++) {
+            UserChallengeSummary summary = new UserChallengeSummary(7L);
+            int historyRows = random.nextInt(40);
+            for (int row = 0; row < historyRows; row++) {
+                Challenge assigned = catalog.get(random.nextInt(catalog.size()));
+                LocalDate assignedDay = DAY.minusDays(random.nextInt(4));
+                summary.recordAssignment(assigned.getId(), assigned.getCategory(), assignedDay.atTime(9, row % 60));
+            }
+
+            assertEquals(
+                    filterChainSelection(catalog, summary),
+                    selector.select(Culture.GLOBAL, Mood.NEUTRAL, summary, DAY),
+                    "round " + round
+            );
+        }
+    }
+
+    /**
+     * The ranking as it was written before the single-pass scorer: four soft filters, then a comparator chain.
+     */
+    private Challenge filterChainSelection(List<Challenge> candidates, UserChallengeSummary summary) {
+        Set<Long> todaysChallengeIds = summary.getChallengeIdsOn(DAY);
+        Map<Long, Long> challengeUsageCounts = summary.getChallengeUsageCounts();
+        Map<ChallengeCategory, Long> categoryUsageCounts = summary.getCategoryUsageCounts();
+        Long latestChallengeId = summary.getLastChallengeId();
+        ChallengeCategory latestCategory = summary.getLastCategory();
+
+        List<Challenge> filtered = filterIfPossible(candidates, c -> !todaysChallengeIds.contains(c.getId()));
+        filtered = filterIfPossible(filtered, c -> !challengeUsageCounts.containsKey(c.getId()));
+        filtered = filterIfPossible(filtered, c -> latestCategory == null || c.getCategory() != latestCategory);
+        filtered = filterIfPossible(filtered, c -> latestChallengeId == null || !c.getId().equals(latestChallengeId));
+
+        return filtered.stream()
+                .min(Comparator
+                        .comparingLong((Challenge c) -> challengeUsageCounts.getOrDefault(c.getId(), 0L))
+                        .thenComparingLong(c -> categoryUsageCounts.getOrDefault(c.getCategory(), 0L))
+                        .thenComparing(c -> c.getCategory().name())
+                        .thenComparingInt(c -> c.getCycleDay() != null ? c.getCycleDay() : Integer.MAX_VALUE)
+                        .thenComparingLong(Challenge::getId))
+                .orElseThrow();
+    }
+
+    private List<Challenge> filterIfPossible(List<Challenge> candidates, Predicate<Challenge> predicate) {
+        List<Challenge> filtered = candidates.stream().filter(predicate).toList();
+        return filtered.isEmpty() ? candidates : filtered;
+    }
+
+    private Challenge challenge(Long id, ChallengeCategory category) {
+        Challenge challenge = new Challenge("Challenge " + id, "Description", category, EnergyLevel.MEDIUM, true);
+        challenge.setId(id);
+        challenge.setCulture(Culture.GLOBAL);
+        return challenge;
+    }
+}
@@ -0,0 +1,96 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.model.Challenge;
+import com.divyam.advent.model.User;
+import com.divyam.advent.repository.UserChallengeRepository;
+import com.divyam.advent.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DailyPreassignmentServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+    private static final int CHUNK_SIZE = 3;
+
+    @Mock
+    private UserChallengeRepository userChallengeRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserChallengeSummaryService userChallengeSummaryService;
+
+    @Mock
+    private DailyChallengeSelector dailyChallengeSelector;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DailyPreassignmentService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DailyPreassignmentService(
+                userChallengeRepository, userRepository, userChallengeSummaryService, dailyChallengeSelector,
+                jdbcTemplate, transactionManager, CHUNK_SIZE, 7);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void preassign_retriesChunkWithoutUsersAssignedOnDemand() {
+        LocalDateTime activeSince = DAY.minusDays(7).atStartOfDay();
+        LocalDateTime start = DAY.atStartOfDay();
+        LocalDateTime end = DAY.plusDays(1).atStartOfDay();
+        when(userChallengeRepository.findActiveUserIdsWithoutAssignmentInRange(
+                activeSince, start, end, 0L, PageRequest.of(0, CHUNK_SIZE)))
+                .thenReturn(List.of(1L, 2L, 3L), List.of(1L, 3L, 4L));
+        when(userChallengeRepository.findActiveUserIdsWithoutAssignmentInRange(
+                activeSince, start, end, 3L, PageRequest.of(0, CHUNK_SIZE)))
+                .thenReturn(List.of());
+        when(userChallengeSummaryService.getSummaries(anyList())).thenReturn(Map.of());
+        when(userRepository.findAllById(anyList())).thenAnswer(invocation -> ((List<Long>) invocation.getArgument(0))
+                .stream()
+                .map(id -> new User(id, "User " + id, id + "@example.com"))
+                .toList());
+        Challenge challenge = new Challenge();
+        challenge.setId(9L);
+        when(dailyChallengeSelector.select(any(), any(), any(), eq(DAY))).thenReturn(challenge);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DuplicateKeyException("uk_user_challenges_user_daily_day"))
+                .thenReturn(new int[]{1, 1});
+
+        assertEquals(2, service.preassign(DAY));
+
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture());
+        List<Object[]> retried = batches.getAllValues().get(1);
+        assertEquals(List.of(1L, 3L), retried.stream().map(row -> row[0]).toList());
+    }
+}
@@ -0,0 +1,122 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.enums.Mood;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DailyPreviewCacheTest {
+
+    @Test
+    void get_countsHitsAndMisses() {
+        DailyPreviewCache cache = new DailyPreviewCache(10);
+        DailyPreviewCache.Key key = new DailyPreviewCache.Key(1L, LocalDate.now(), Mood.LOW);
+
+        assertNull(cache.get(key));
+        cache.put(key, 42L);
+        assertEquals(42L, cache.get(key));
+
+        DailyPreviewCache.Stats stats = cache.stats();
+        assertEquals(1, stats.size());
+        assertEquals(1L, stats.hits());
+        assertEquals(1L, stats.misses());
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedPreviewWhenFull() {
+        DailyPreviewCache cache = new DailyPreviewCache(2);
+        LocalDate today = LocalDate.now();
+        DailyPreviewCache.Key first = new DailyPreviewCache.Key(1L, today, Mood.LOW);
+        DailyPreviewCache.Key second = new DailyPreviewCache.Key(2L, today, Mood.LOW);
+        DailyPreviewCache.Key third = new DailyPreviewCache.Key(3L, today, Mood.LOW);
+
+        cache.put(first, 10L);
+        cache.put(second, 20L);
+        cache.get(first);
+        cache.put(third, 30L);
+
+        assertEquals(10L, cache.get(first));
+        assertNull(cache.get(second));
+        assertEquals(30L, cache.get(third));
+        assertEquals(2, cache.stats().size());
+        assertEquals(1L, cache.stats().sizeEvictions());
+    }
+
+    @Test
+    void previewsForOtherDaysAreNeverServedOrStored() {
+        DailyPreviewCache cache = new DailyPreviewCache(10);
+        DailyPreviewCache.Key yesterday = new DailyPreviewCache.Key(1L, LocalDate.now().minusDays(1), Mood.HIGH);
+
+        cache.put(yesterday, 7L);
+
+        assertNull(cache.get(yesterday));
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void get_dropsYesterdaysPreviewsOnceTheClockPassesMidnight() {
+        LocalDate day = LocalDate.of(2025, 12, 24);
+        MutableClock clock = new MutableClock(day.atTime(23, 59).toInstant(ZoneOffset.UTC));
+        DailyPreviewCache cache = new DailyPreviewCache(10, clock);
+        DailyPreviewCache.Key evening = new DailyPreviewCache.Key(1L, day, Mood.LOW);
+        cache.put(evening, 42L);
+        assertEquals(42L, cache.get(evening));
+
+        clock.now = day.plusDays(1).atTime(0, 1).toInstant(ZoneOffset.UTC);
+
+        assertNull(cache.get(evening));
+        DailyPreviewCache.Stats stats = cache.stats();
+        assertEquals(day.plusDays(1), stats.day());
+        assertEquals(0, stats.size());
+        assertEquals(1L, stats.expiredEvictions());
+
+        DailyPreviewCache.Key morning = new DailyPreviewCache.Key(1L, day.plusDays(1), Mood.LOW);
+        cache.put(morning, 7L);
+        assertEquals(7L, cache.get(morning));
+    }
+
+    @Test
+    void evictPastDays_rollsOverWithoutWaitingForARequest() {
+        LocalDate day = LocalDate.of(2025, 12, 24);
+        MutableClock clock = new MutableClock(day.atTime(23, 59).toInstant(ZoneOffset.UTC));
+        DailyPreviewCache cache = new DailyPreviewCache(10, clock);
+        cache.put(new DailyPreviewCache.Key(1L, day, Mood.LOW), 42L);
+
+        clock.now = day.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+        cache.evictPastDays();
+
+        assertEquals(0, cache.stats().size());
+        assertEquals(1L, cache.stats().expiredEvictions());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.enums.Mood;
+import com.divyam.advent.model.UserChallengeSummary;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DailyPreviewTokenServiceTest {
+
+    private final DailyPreviewTokenService tokenService = new DailyPreviewTokenService("test-secret");
+
+    @Test
+    void issue_roundTripsClaimsAcrossInstancesSharingTheSecret() {
+        DailyPreviewTokenService.PreviewClaims claims = new DailyPreviewTokenService.PreviewClaims(
+                7L, LocalDate.of(2024, 12, 3), Mood.LOW, 42L, "abc123", "def456");
+
+        String token = tokenService.issue(claims);
+
+        assertEquals(claims, new DailyPreviewTokenService("test-secret").verify(token).orElseThrow());
+        assertTrue(new DailyPreviewTokenService("other-secret").verify(token).isEmpty());
+    }
+
+    @Test
+    void constructor_requiresASecretOnlyForMultiNode() {
+        assertThrows(IllegalStateException.class, () -> new DailyPreviewTokenService(""));
+        assertThrows(IllegalStateException.class, () -> new DailyPreviewTokenService(null, true));
+
+        DailyPreviewTokenService singleNode = new DailyPreviewTokenService("", false);
+        DailyPreviewTokenService.PreviewClaims claims = new DailyPreviewTokenService.PreviewClaims(
+                7L, LocalDate.of(2024, 12, 3), Mood.LOW, 42L, "abc123", "def456");
+        assertEquals(claims, singleNode.verify(singleNode.issue(claims)).orElseThrow());
+    }
+
+    @Test
+    void verify_rejectsTamperedAndMalformedTokens() {
+        String token = tokenService.issue(new DailyPreviewTokenService.PreviewClaims(
+                7L, LocalDate.of(2024, 12, 3), Mood.LOW, 42L, "abc123", "def456"));
+        String forgedPayload = tokenService.issue(new DailyPreviewTokenService.PreviewClaims(
+                7L, LocalDate.of(2024, 12, 3), Mood.LOW, 43L, "abc123", "def456")).split("\\.")[0];
+
+        assertTrue(tokenService.verify(forgedPayload + token.substring(token.indexOf('.'))).isEmpty());
+        assertTrue(tokenService.verify("not-a-token").isEmpty());
+        assertTrue(tokenService.verify("").isEmpty());
+    }
+
+    @Test
+    void historyDigest_changesWhenSummaryChanges() {
+        UserChallengeSummary summary = new UserChallengeSummary(7L);
+        String before = tokenService.historyDigest(summary);
+
+        summary.recordAssignment(42L, ChallengeCategory.WILDCARD, LocalDateTime.of(2024, 12, 3, 9, 0));
+
+        assertEquals(before, tokenService.historyDigest(new UserChallengeSummary(7L)));
+        assertNotEquals(before, tokenService.historyDigest(summary));
+    }
+}
@@ -0,0 +1,99 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.dto.CompletionHeatmapDto;
+import com.divyam.advent.dto.ProfileResponseDto;
+import com.divyam.advent.model.User;
+import com.divyam.advent.repository.CompletionCalendarRepository;
+import com.divyam.advent.repository.UserChallengeRepository;
+import com.divyam.advent.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProfileServiceTest {
+
+    private static final Jwt JWT = Jwt.withTokenValue("token").header("alg", "none").subject("user").build();
+
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private BadgeService badgeService;
+
+    @Mock
+    private CompletionCalendarRepository calendarRepository;
+
+    @Mock
+    private UserChallengeRepository userChallengeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProfileService service;
+
+    @BeforeEach
+    void setUp() {
+        CompletionCalendarService calendarService =
+                new CompletionCalendarService(calendarRepository, userChallengeRepository, transactionManager);
+        StreakService streakService = new StreakService(userRepository, calendarService, transactionManager);
+        service = new ProfileService(authService, userRepository, badgeService, streakService, calendarService);
+    }
+
+    @Test
+    void getProfile_readsAFlaggedUserWithoutCalendarFromHistoryWithoutStoringIt() {
+        LocalDate today = LocalDate.now();
+        User flagged = new User(1L, "Sam", "sam@example.com");
+        flagged.setStreakNeedsRepair(true);
+        when(authService.getCurrentUser(JWT)).thenReturn(flagged);
+        when(badgeService.getEarnedBadgeIds(flagged)).thenReturn(List.of());
+        when(calendarRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userChallengeRepository.findCompletionTimesDesc(1L)).thenReturn(List.of(
+                today.minusDays(1).atTime(20, 0),
+                today.minusDays(2).atTime(8, 0),
+                today.minusDays(6).atTime(9, 0)
+        ));
+
+        ProfileResponseDto profile = service.getProfile(JWT);
+
+        assertEquals(2, profile.getStreak());
+        assertEquals(2, profile.getLongestStreak());
+        verify(calendarRepository, never()).findByUserIdForUpdate(any());
+        verify(calendarRepository, never()).saveAndFlush(any());
+        verify(userRepository, never()).findByIdForUpdate(any());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void getHeatmap_readsAMissingCalendarFromHistoryWithoutStoringIt() {
+        LocalDate today = LocalDate.now();
+        when(authService.getCurrentUser(JWT)).thenReturn(new User(1L, "Sam", "sam@example.com"));
+        when(calendarRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userChallengeRepository.findCompletionTimesDesc(1L)).thenReturn(List.of(today.atTime(7, 30)));
+
+        CompletionHeatmapDto heatmap = service.getHeatmap(JWT, today.minusDays(3), today);
+
+        assertEquals(List.of(today), heatmap.completedDays());
+        assertEquals(1, heatmap.currentStreak());
+        verify(calendarRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(transactionManager);
+    }
+}
@@ -0,0 +1,92 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.enums.CompletionStatus;
+import com.divyam.advent.model.Challenge;
+import com.divyam.advent.model.PulseHourlyCounter;
+import com.divyam.advent.model.User;
+import com.divyam.advent.model.UserChallenge;
+import com.divyam.advent.repository.PulseHourlyCounterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PulseActivityServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Mock
+    private PulseHourlyCounterRepository hourlyCounterRepository;
+
+    @Mock
+    private ActiveUserSketchService activeUserSketchService;
+
+    @Mock
+    private TrendingChallengeTracker trendingChallengeTracker;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PulseActivityService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PulseActivityService(
+                hourlyCounterRepository, activeUserSketchService, trendingChallengeTracker, transactionManager);
+    }
+
+    @Test
+    void hourly_countsUserAssignmentsAndCompletionsByHour() {
+        when(hourlyCounterRepository.findByHourGreaterThanEqualAndHourLessThanOrderByHourAsc(
+                TODAY.atStartOfDay(), TODAY.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(new PulseHourlyCounter(TODAY.atTime(9, 0), 5, 1)));
+
+        UserChallenge row = new UserChallenge(new User(1L, "Name", "name@example.com"), challenge(4L), CompletionStatus.ASSIGNED);
+        service.assigned(row, TODAY.atTime(9, 20));
+        service.completed(row, TODAY.atTime(14, 5));
+
+        List<PulseActivityService.HourCounts> hours = service.hourly(TODAY);
+
+        assertEquals(24, hours.size());
+        assertEquals(new PulseActivityService.HourCounts(9, 6, 1), hours.get(9));
+        assertEquals(new PulseActivityService.HourCounts(14, 0, 1), hours.get(14));
+        assertEquals(new PulseActivityService.HourCounts(0, 0, 0), hours.get(0));
+        verify(activeUserSketchService, times(2)).userActive(1L, TODAY);
+        verify(trendingChallengeTracker).challengeCompleted(4L);
+    }
+
+    @Test
+    void flush_addsHourCountsInPlaceOrCreatesTheRow() {
+        LocalDateTime nine = TODAY.atTime(9, 0);
+        LocalDateTime ten = TODAY.atTime(10, 0);
+        when(hourlyCounterRepository.addDeltas(nine, 1, 0)).thenReturn(1);
+        when(hourlyCounterRepository.addDeltas(ten, 0, 1)).thenReturn(0);
+
+        UserChallenge row = new UserChallenge(new User(1L, "Name", "name@example.com"), challenge(4L), CompletionStatus.ASSIGNED);
+        service.assigned(row, nine.plusMinutes(5));
+        service.completed(row, ten.plusMinutes(5));
+        service.flush();
+
+        verify(hourlyCounterRepository).saveAndFlush(argThat(counter ->
+                counter.getHour().equals(ten) && counter.getAssignments() == 0 && counter.getCompletions() == 1));
+    }
+
+    private static Challenge challenge(Long id) {
+        Challenge challenge = new Challenge();
+        challenge.setId(id);
+        return challenge;
+    }
+}
@@ -0,0 +1,70 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.dto.PulseBreakdownDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PulseBreakdownCacheTest {
+
+    private static final long FRESH_MILLIS = 5000;
+
+    @Mock
+    private PulseService pulseService;
+
+    private long nanos;
+    private PulseBreakdownCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PulseBreakdownCache(pulseService, FRESH_MILLIS, () -> nanos);
+    }
+
+    @Test
+    void get_keepsFinishedDaysAndRecomputesTodayAfterFreshnessWindow() {
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+        PulseBreakdownDto pastBreakdown = breakdown(yesterday);
+        PulseBreakdownDto todayBreakdown = breakdown(today);
+        when(pulseService.getBreakdown(yesterday)).thenReturn(pastBreakdown);
+        when(pulseService.getBreakdown(today)).thenReturn(todayBreakdown);
+
+        assertSame(pastBreakdown, cache.get(yesterday));
+        assertSame(todayBreakdown, cache.get(today));
+        assertSame(todayBreakdown, cache.get(today));
+
+        nanos += FRESH_MILLIS * 1_000_000L;
+        cache.get(yesterday);
+        cache.get(today);
+
+        verify(pulseService, times(1)).getBreakdown(yesterday);
+        verify(pulseService, times(2)).getBreakdown(today);
+    }
+
+    @Test
+    void get_rejectsFutureDaysWithoutScanning() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get(tomorrow));
+
+        verify(pulseService, never()).getBreakdown(any());
+    }
+
+    private PulseBreakdownDto breakdown(LocalDate day) {
+        return new PulseBreakdownDto(day.toString(), Map.of(), Map.of());
+    }
+}
@@ -0,0 +1,72 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.dto.PulseResponseDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PulseCacheTest {
+
+    private static final long FRESH_MILLIS = 5000;
+
+    @Mock
+    private PulseService pulseService;
+
+    private final List<Runnable> queuedRefreshes = new ArrayList<>();
+    private long nanos;
+    private PulseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PulseCache(pulseService, FRESH_MILLIS, queuedRefreshes::add, () -> nanos);
+    }
+
+    @Test
+    void get_servesFreshValueWithoutRecomputing() {
+        when(pulseService.getTodayPulse()).thenReturn(pulse(10));
+
+        PulseCache.Snapshot first = cache.get();
+        nanos += 1_000_000_000L;
+        PulseCache.Snapshot second = cache.get();
+
+        assertSame(first, second);
+        assertEquals(0, queuedRefreshes.size());
+        verify(pulseService, times(1)).getTodayPulse();
+    }
+
+    @Test
+    void get_servesStaleValueWhileOneBackgroundRefreshRuns() {
+        when(pulseService.getTodayPulse()).thenReturn(pulse(10), pulse(11));
+        PulseCache.Snapshot stale = cache.get();
+        nanos += FRESH_MILLIS * 1_000_000L;
+
+        assertSame(stale, cache.get());
+        assertSame(stale, cache.get());
+        assertEquals(1, queuedRefreshes.size());
+
+        queuedRefreshes.remove(0).run();
+        PulseCache.Snapshot refreshed = cache.get();
+
+        assertEquals(11, refreshed.pulse().getTotalUsers());
+        assertNotEquals(stale.etag(), refreshed.etag());
+        verify(pulseService, times(2)).getTodayPulse();
+    }
+
+    private PulseResponseDto pulse(long totalUsers) {
+        return new PulseResponseDto(LocalDate.now().toString(), totalUsers, 1, 1, 0, 0);
+    }
+}
@@ -0,0 +1,271 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.enums.CompletionStatus;
+import com.divyam.advent.enums.Mood;
+import com.divyam.advent.model.PulseDailyCounter;
+import com.divyam.advent.model.User;
+import com.divyam.advent.model.UserChallenge;
+import com.divyam.advent.repository.PulseDailyCounterRepository;
+import com.divyam.advent.repository.UserChallengeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PulseCounterServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Mock
+    private PulseDailyCounterRepository counterRepository;
+
+    @Mock
+    private PulseActivityService pulseActivityService;
+
+    @Mock
+    private UserChallengeRepository userChallengeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PulseCounterService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PulseCounterService(counterRepository, pulseActivityService, userChallengeRepository, transactionManager);
+    }
+
+    @Test
+    void counts_addsUnflushedChangesToStoredCounters() {
+        when(counterRepository.findById(TODAY)).thenReturn(Optional.of(counter(10, 4, 2, 5, 3)));
+
+        UserChallenge row = row(CompletionStatus.ASSIGNED, Mood.LOW);
+        service.rowAdded(row, true);
+        row.setStatus(CompletionStatus.COMPLETED);
+        service.rowChanged(row, CompletionStatus.ASSIGNED, Mood.LOW);
+
+        assertEquals(new PulseCounterService.Counts(11, 5, 3, 5, 3), service.counts(TODAY));
+        verify(userChallengeRepository, never()).aggregatePulse(any(), any());
+    }
+
+    @Test
+    void flush_addsDeltasInPlace() {
+        PulseDailyCounter stored = counter(10, 4, 2, 5, 3);
+        stored.setReconciledAt(LocalDateTime.now().minusMinutes(5));
+        when(counterRepository.findByDayForUpdate(TODAY)).thenReturn(Optional.of(stored));
+
+        service.rowAdded(row(CompletionStatus.ASSIGNED, Mood.HIGH), true);
+        service.rowAdded(row(CompletionStatus.ASSIGNED, Mood.NEUTRAL), false);
+        service.flush();
+        service.flush();
+
+        verify(counterRepository).addDeltas(TODAY, 1, 0, 0, 1, 1);
+    }
+
+    @Test
+    void flush_dropsDeltasMergedBeforeTheDayWasRecounted() {
+        service.rowAdded(row(CompletionStatus.ASSIGNED, Mood.HIGH), true);
+        // Another node recounted the day after this change committed.
+        PulseDailyCounter recounted = counter(11, 4, 2, 5, 4);
+        recounted.setReconciledAt(LocalDateTime.now().plusSeconds(1));
+        when(counterRepository.findByDayForUpdate(TODAY)).thenReturn(Optional.of(recounted));
+
+        service.flush();
+
+        verify(counterRepository, never()).addDeltas(any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void reconcile_dropsLocalDeltasTheRecountAlreadySaw() {
+        when(counterRepository.findByDayForUpdate(TODAY)).thenReturn(Optional.of(counter(10, 4, 2, 5, 3)));
+        when(userChallengeRepository.aggregatePulse(TODAY.atStartOfDay(), TODAY.plusDays(1).atStartOfDay()))
+                .thenReturn(aggregate(11, 4, 2, 5, 4));
+        when(counterRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.rowAdded(row(CompletionStatus.ASSIGNED, Mood.HIGH), true);
+        PulseDailyCounter reconciled = service.reconcile(TODAY);
+        when(counterRepository.findById(TODAY)).thenReturn(Optional.of(reconciled));
+
+        assertEquals(new PulseCounterService.Counts(11, 4, 2, 5, 4), service.counts(TODAY));
+        service.flush();
+        verify(counterRepository, never()).addDeltas(any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void counts_readsADayWithoutCounterRowWithoutStoringIt() {
+        when(counterRepository.findById(TODAY)).thenReturn(Optional.empty());
+        when(userChallengeRepository.aggregatePulse(TODAY.atStartOfDay(), TODAY.plusDays(1).atStartOfDay()))
+                .thenReturn(aggregate(7, 2, 1, 4, 2));
+
+        assertEquals(new PulseCounterService.Counts(7, 2, 1, 4, 2), service.counts(TODAY));
+        verify(counterRepository, never()).findByDayForUpdate(any());
+        verify(counterRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void flush_recountsDayWithoutCounterRow() {
+        when(counterRepository.findByDayForUpdate(TODAY)).thenReturn(Optional.empty());
+        when(userChallengeRepository.aggregatePulse(TODAY.atStartOfDay(), TODAY.plusDays(1).atStartOfDay()))
+                .thenReturn(aggregate(7, 2, 1, 4, 2));
+        when(counterRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.rowAdded(row(CompletionStatus.ASSIGNED, Mood.HIGH), true);
+        service.flush();
+
+        verify(counterRepository).saveAndFlush(any(PulseDailyCounter.class));
+        when(counterRepository.findById(TODAY)).thenReturn(Optional.of(counter(7, 2, 1, 4, 2)));
+        assertEquals(new PulseCounterService.Counts(7, 2, 1, 4, 2), service.counts(TODAY));
+    }
+
+    @Test
+    void counts_leavesPreassignedRowsOutUntilClaimed() {
+        when(counterRepository.findById(TODAY)).thenReturn(Optional.of(counter(10, 4, 2, 5, 3)));
+
+        UserChallenge preassigned = row(CompletionStatus.ASSIGNED, Mood.NEUTRAL);
+        preassigned.setPreassigned(true);
+        service.rowAdded(preassigned, true);
+        service.rowRemoved(preassigned, true);
+        assertEquals(new PulseCounterService.Counts(10, 4, 2, 5, 3), service.counts(TODAY));
+
+        preassigned.setPreassigned(false);
+        preassigned.setStatus(CompletionStatus.COMPLETED);
+        service.rowClaimed(preassigned, true);
+
+        assertEquals(new PulseCounterService.Counts(11, 5, 2, 6, 3), service.counts(TODAY));
+    }
+
+    @Test
+    void rowChanged_reportsCompletionsButNotPreassignedRows() {
+        UserChallenge assigned = row(CompletionStatus.ASSIGNED, Mood.LOW);
+        service.rowAdded(assigned, true);
+        assigned.setStatus(CompletionStatus.COMPLETED);
+        assigned.setCompletionTime(TODAY.atTime(14, 5));
+        service.rowChanged(assigned, CompletionStatus.ASSIGNED, Mood.LOW);
+        UserChallenge preassigned = row(CompletionStatus.ASSIGNED, Mood.NEUTRAL);
+        preassigned.setPreassigned(true);
+        service.rowAdded(preassigned, true);
+
+        verify(pulseActivityService).assigned(assigned, assigned.getStartTime());
+        verify(pulseActivityService).completed(assigned, TODAY.atTime(14, 5));
+        verify(pulseActivityService, never()).assigned(eq(preassigned), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void freezeThrough_recountsDaysAfterLastFrozenDayInOneScan() {
+        LocalDate yesterday = TODAY.minusDays(1);
+        LocalDate lastFrozen = TODAY.minusDays(3);
+        when(counterRepository.findLastFinalizedDay()).thenReturn(Optional.of(lastFrozen));
+        when(counterRepository.findByDayBetweenOrderByDayAsc(lastFrozen.plusDays(1), yesterday)).thenReturn(List.of());
+        when(userChallengeRepository.aggregatePulseByDay(lastFrozen.plusDays(1).atStartOfDay(), TODAY.atStartOfDay()))
+                .thenReturn(List.of(dailyAggregate(yesterday, aggregate(5, 1, 0, 5, 0))));
+
+        assertEquals(1, service.freezeThrough(yesterday));
+
+        ArgumentCaptor<List<PulseDailyCounter>> saved = ArgumentCaptor.forClass(List.class);
+        verify(counterRepository).saveAll(saved.capture());
+        PulseDailyCounter frozen = saved.getValue().get(0);
+        assertEquals(yesterday, frozen.getDay());
+        assertEquals(5, frozen.getTotalUsers());
+        assertTrue(frozen.isFinalized());
+    }
+
+    private UserChallenge row(CompletionStatus status, Mood mood) {
+        UserChallenge row = new UserChallenge(new User(1L, "Name", "name@example.com"), null, status);
+        row.setMood(mood);
+        return row;
+    }
+
+    private PulseDailyCounter counter(long users, long completed, long low, long neutral, long high) {
+        PulseDailyCounter counter = new PulseDailyCounter(TODAY);
+        counter.setTotalUsers(users);
+        counter.setCompletedCount(completed);
+        counter.setLowMoodCount(low);
+        counter.setNeutralMoodCount(neutral);
+        counter.setHighMoodCount(high);
+        return counter;
+    }
+
+    private UserChallengeRepository.DailyPulseCountsProjection dailyAggregate(
+            LocalDate day, UserChallengeRepository.PulseCountsProjection counts) {
+        return new UserChallengeRepository.DailyPulseCountsProjection() {
+            @Override
+            public LocalDate getDay() {
+                return day;
+            }
+
+            @Override
+            public long getTotalUsers() {
+                return counts.getTotalUsers();
+            }
+
+            @Override
+            public long getCompletedCount() {
+                return counts.getCompletedCount();
+            }
+
+            @Override
+            public long getLowMoodCount() {
+                return counts.getLowMoodCount();
+            }
+
+            @Override
+            public long getNeutralMoodCount() {
+                return counts.getNeutralMoodCount();
+            }
+
+            @Override
+            public long getHighMoodCount() {
+                return counts.getHighMoodCount();
+            }
+        };
+    }
+
+    private UserChallengeRepository.PulseCountsProjection aggregate(
+            long users, long completed, long low, long neutral, long high) {
+        return new UserChallengeRepository.PulseCountsProjection() {
+            @Override
+            public long getTotalUsers() {
+                return users;
+            }
+
+            @Override
+            public long getCompletedCount() {
+                return completed;
+            }
+
+            @Override
+            public long getLowMoodCount() {
+                return low;
+            }
+
+            @Override
+            public long getNeutralMoodCount() {
+                return neutral;
+            }
+
+            @Override
+            public long getHighMoodCount() {
+                return high;
+            }
+        };
+    }
+}
@@ -0,0 +1,190 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.dto.ActiveUsersDto;
+import com.divyam.advent.dto.PulseBreakdownDto;
+import com.divyam.advent.dto.PulseHistoryPointDto;
+import com.divyam.advent.dto.PulseResponseDto;
+import com.divyam.advent.enums.Culture;
+import com.divyam.advent.enums.EnergyLevel;
+import com.divyam.advent.enums.PulseGranularity;
+import com.divyam.advent.repository.UserChallengeRepository;
+import com.divyam.advent.util.HyperLogLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PulseServiceImplTest {
+
+    @Mock
+    private PulseCounterService pulseCounterService;
+
+    @Mock
+    private PulseActivityService pulseActivityService;
+
+    @Mock
+    private ActiveUserSketchService activeUserSketchService;
+
+    @Mock
+    private UserChallengeRepository userChallengeRepository;
+
+    @InjectMocks
+    private PulseServiceImpl pulseService;
+
+    @Test
+    void getTodayPulse_readsTodaysCounters() {
+        LocalDate today = LocalDate.now();
+        when(pulseCounterService.counts(today)).thenReturn(new PulseCounterService.Counts(4, 3, 1, 1, 2));
+
+        PulseResponseDto pulse = pulseService.getTodayPulse();
+
+        assertEquals(today.toString(), pulse.getDate());
+        assertEquals(4, pulse.getTotalUsers());
+        assertEquals(75.0, pulse.getCompletionPercentage());
+        assertEquals("HIGH", pulse.getAverageMood());
+    }
+
+    @Test
+    void getTodayPulse_returnsEmptyPulseWhenNobodyWasAssigned() {
+        when(pulseCounterService.counts(any())).thenReturn(new PulseCounterService.Counts(0, 0, 0, 0, 0));
+
+        assertFalse(pulseService.getTodayPulse().isHasData());
+    }
+
+    @Test
+    void getHistory_sumsDaysIntoClippedIsoWeeks() {
+        LocalDate from = LocalDate.of(2026, 1, 1);
+        LocalDate to = LocalDate.of(2026, 1, 12);
+        when(pulseCounterService.history(from, to)).thenReturn(Map.of(
+                LocalDate.of(2026, 1, 2), new PulseCounterService.Counts(4, 2, 1, 2, 1),
+                LocalDate.of(2026, 1, 5), new PulseCounterService.Counts(3, 3, 0, 0, 3),
+                LocalDate.of(2026, 1, 6), new PulseCounterService.Counts(1, 0, 1, 0, 0)
+        ));
+
+        List<PulseHistoryPointDto> history = pulseService.getHistory(from, to, PulseGranularity.WEEK);
+
+        assertEquals(3, history.size());
+        assertEquals(new PulseHistoryPointDto(from, LocalDate.of(2026, 1, 4), 4, 1.0, 2, 50.0, 1, 2, 1), history.get(0));
+        assertEquals(new PulseHistoryPointDto(
+                LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 11), 4, 4 / 7.0, 3, 75.0, 1, 0, 3), history.get(1));
+        assertEquals(new PulseHistoryPointDto(to, to, 0, 0.0, 0, 0.0, 0, 0, 0), history.get(2));
+    }
+
+    @Test
+    void getHistory_rejectsReversedRange() {
+        assertThrows(IllegalArgumentException.class, () -> pulseService.getHistory(
+                LocalDate.of(2026, 2, 1), LocalDate.of(2026, 1, 1), PulseGranularity.DAY));
+    }
+
+    @Test
+    void getBreakdown_derivesTotalsFromSegmentsAndCountsCultureUsersDistinctly() {
+        LocalDate day = LocalDate.of(2026, 1, 18);
+        when(userChallengeRepository.aggregatePulseBySegment(day.atStartOfDay(), day.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(
+                        segment(Culture.INDIA, EnergyLevel.LOW, 2, 1, 2, 0, 0),
+                        segment(Culture.INDIA, EnergyLevel.HIGH, 3, 3, 0, 0, 3),
+                        segment(null, EnergyLevel.HIGH, 1, 0, 0, 1, 0)
+                ));
+        // One Indian user has challenges at both energy levels.
+        when(userChallengeRepository.countUsersByCulture(day.atStartOfDay(), day.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(cultureUsers(Culture.INDIA, 4), cultureUsers(null, 1)));
+
+        PulseBreakdownDto breakdown = pulseService.getBreakdown(day);
+
+        assertEquals(4, breakdown.byCulture().get(Culture.INDIA).getTotalUsers());
+        assertEquals(4, breakdown.byCulture().get(Culture.INDIA).getCompletedCount());
+        assertEquals(1, breakdown.byCulture().get(Culture.GLOBAL).getTotalUsers());
+        assertFalse(breakdown.byCulture().get(Culture.RUSSIA).isHasData());
+        assertEquals(4, breakdown.byEnergyLevel().get(EnergyLevel.HIGH).getTotalUsers());
+        assertEquals("HIGH", breakdown.byEnergyLevel().get(EnergyLevel.HIGH).getAverageMood());
+        assertFalse(breakdown.byEnergyLevel().get(EnergyLevel.MEDIUM).isHasData());
+    }
+
+    @Test
+    void getActiveUsers_mergesTrailingDaysFromOneRead() {
+        LocalDate day = LocalDate.of(2026, 1, 30);
+        List<HyperLogLog> month = new ArrayList<>();
+        for (int offset = 0; offset < 30; offset++) {
+            // Ten users a day, each active on two consecutive days.
+            HyperLogLog sketch = new HyperLogLog();
+            for (long user = 0; user < 10; user++) {
+                sketch.add(offset * 5L + user);
+            }
+            month.add(sketch);
+        }
+        when(activeUserSketchService.sketches(day.minusDays(29), day)).thenReturn(month);
+
+        ActiveUsersDto activeUsers = pulseService.getActiveUsers(day);
+
+        assertEquals(10, activeUsers.dailyActiveUsers());
+        assertEquals(40, activeUsers.weeklyActiveUsers());
+        assertEquals(155, activeUsers.monthlyActiveUsers(), 155 * 0.05);
+    }
+
+    private UserChallengeRepository.CultureUserCountProjection cultureUsers(Culture culture, long users) {
+        return new UserChallengeRepository.CultureUserCountProjection() {
+            @Override
+            public Culture getCulture() {
+                return culture;
+            }
+
+            @Override
+            public long getTotalUsers() {
+                return users;
+            }
+        };
+    }
+
+    private UserChallengeRepository.SegmentPulseCountsProjection segment(
+            Culture culture, EnergyLevel energyLevel, long users, long completed, long low, long neutral, long high) {
+        return new UserChallengeRepository.SegmentPulseCountsProjection() {
+            @Override
+            public Culture getCulture() {
+                return culture;
+            }
+
+            @Override
+            public EnergyLevel getEnergyLevel() {
+                return energyLevel;
+            }
+
+            @Override
+            public long getTotalUsers() {
+                return users;
+            }
+
+            @Override
+            public long getCompletedCount() {
+                return completed;
+            }
+
+            @Override
+            public long getLowMoodCount() {
+                return low;
+            }
+
+            @Override
+            public long getNeutralMoodCount() {
+                return neutral;
+            }
+
+            @Override
+            public long getHighMoodCount() {
+                return high;
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.dto.PulseResponseDto;
+import com.divyam.advent.exception.StreamCapacityExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PulseStreamTest {
+
+    @Mock
+    private PulseCache pulseCache;
+
+    private final List<Runnable> queuedSends = new ArrayList<>();
+    private PulseStream stream;
+
+    @BeforeEach
+    void setUp() {
+        stream = new PulseStream(pulseCache, 2, queuedSends::add);
+    }
+
+    @Test
+    void publish_pushesOnlyWhenThePulseChanged() {
+        when(pulseCache.get()).thenReturn(snapshot(10), snapshot(10), snapshot(10), snapshot(11));
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        stream.subscribe(emitter);
+        runQueuedSends();
+        stream.publish();
+        runQueuedSends();
+        stream.publish();
+        runQueuedSends();
+        stream.publish();
+        runQueuedSends();
+
+        assertEquals(3, emitter.sent);
+    }
+
+    @Test
+    void publish_coalescesPendingPushesAndDropsSubscribersThatFallBehind() {
+        when(pulseCache.get()).thenReturn(snapshot(1), snapshot(2), snapshot(3), snapshot(4));
+        RecordingEmitter slow = new RecordingEmitter();
+        stream.subscribe(slow);
+
+        // The first send never runs, so every later push replaces the one still waiting.
+        for (int i = 0; i < PulseStream.MAX_MISSED_PUSHES; i++) {
+            stream.publish();
+        }
+
+        assertEquals(0, stream.subscriberCount());
+        assertEquals(0, slow.sent);
+    }
+
+    @Test
+    void subscribe_rejectsSubscribersAboveTheLimit() {
+        when(pulseCache.get()).thenReturn(snapshot(1));
+        stream.subscribe(new RecordingEmitter());
+        stream.subscribe(new RecordingEmitter());
+
+        StreamCapacityExceededException rejected = assertThrows(
+                StreamCapacityExceededException.class, () -> stream.subscribe(new RecordingEmitter()));
+        assertEquals(PulseStream.RETRY_AFTER_SECONDS, rejected.getRetryAfterSeconds());
+    }
+
+    private void runQueuedSends() {
+        List<Runnable> sends = new ArrayList<>(queuedSends);
+        queuedSends.clear();
+        sends.forEach(Runnable::run);
+    }
+
+    private static PulseCache.Snapshot snapshot(int completed) {
+        PulseResponseDto pulse = new PulseResponseDto(LocalDate.now().toString(), 20, completed, 5, 10, 5);
+        return new PulseCache.Snapshot(LocalDate.now(), pulse, null, "\"" + completed + "\"", 0L);
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private int sent;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent++;
+        }
+    }
+}
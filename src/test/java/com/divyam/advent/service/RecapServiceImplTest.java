@@ -2,12 +2,8 @@ package com.divyam.advent.service;
 
 import com.divyam.advent.dto.MonthlyRecapResponseDto;
 import com.divyam.advent.enums.ChallengeCategory;
-import com.divyam.advent.enums.CompletionStatus;
 import com.divyam.advent.exception.ResourceNotFoundException;
-import com.divyam.advent.model.Challenge;
 import com.divyam.advent.model.Photo;
-import com.divyam.advent.model.User;
-import com.divyam.advent.model.UserChallenge;
 import com.divyam.advent.repository.PhotoRepository;
 import com.divyam.advent.repository.TimeCapsuleRepository;
 import com.divyam.advent.repository.UserChallengeRepository;
@@ -17,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -89,12 +86,8 @@ class RecapServiceImplTest {
                 any(LocalDateTime.class)
         )).thenReturn(List.of(photo(100L)));
 
-        when(userChallengeRepository.findByUser_IdAndStatus(userId, CompletionStatus.COMPLETED))
-                .thenReturn(List.of(
-                        completedChallengeForDayOffset(-2),
-                        completedChallengeForDayOffset(-1),
-                        completedChallengeForDayOffset(0)
-                ));
+        when(userChallengeRepository.findLatestCompletionStreak(eq(userId), eq(LocalDate.EPOCH), any(Pageable.class)))
+                .thenReturn(List.of(completionStreak(LocalDate.now(), 3, 3)));
 
         MonthlyRecapResponseDto response = recapService.getMonthlyRecap(userId, month);
 
@@ -111,19 +104,36 @@ class RecapServiceImplTest {
         assertEquals(1, response.getRecentPhotos().size());
     }
 
-    private UserChallenge completedChallengeForDayOffset(int dayOffset) {
-        User user = new User();
-        user.setId(1L);
-        Challenge challenge = new Challenge();
-        challenge.setId(1L);
-        challenge.setCategory(ChallengeCategory.EXPLORE_CITY);
-        challenge.setActive(true);
-
-        UserChallenge userChallenge = new UserChallenge(user, challenge, CompletionStatus.COMPLETED);
-        LocalDateTime moment = LocalDate.now().plusDays(dayOffset).atStartOfDay().plusHours(10);
-        userChallenge.setStartTime(moment);
-        userChallenge.setCompletionTime(moment);
-        return userChallenge;
+    @Test
+    void getMonthlyRecap_reportsNoCurrentStreakAfterAMissedDay() {
+        Long userId = 5L;
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userChallengeRepository.findLatestCompletionStreak(eq(userId), eq(LocalDate.EPOCH), any(Pageable.class)))
+                .thenReturn(List.of(completionStreak(LocalDate.now().minusDays(2), 4, 6)));
+
+        MonthlyRecapResponseDto response = recapService.getMonthlyRecap(userId, YearMonth.of(2026, 2));
+
+        assertEquals(0, response.getCurrentStreakDays());
+        assertEquals(6, response.getLongestStreakDays());
+    }
+
+    private UserChallengeRepository.CompletionStreakProjection completionStreak(LocalDate lastDay, long days, long longest) {
+        return new UserChallengeRepository.CompletionStreakProjection() {
+            @Override
+            public LocalDate getLastDay() {
+                return lastDay;
+            }
+
+            @Override
+            public long getDays() {
+                return days;
+            }
+
+            @Override
+            public long getLongest() {
+                return longest;
+            }
+        };
     }
 
     private Photo photo(Long id) {
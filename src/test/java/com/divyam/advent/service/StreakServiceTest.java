@@ -0,0 +1,113 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.model.User;
+import com.divyam.advent.repository.UserRepository;
+import com.divyam.advent.util.DayBitmap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StreakServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CompletionCalendarService completionCalendarService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StreakService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new StreakService(userRepository, completionCalendarService, transactionManager);
+    }
+
+    @Test
+    void recordCompletion_extendsStartsAndIgnoresSameDay() {
+        User user = user(3, 5, TODAY.minusDays(1));
+
+        assertTrue(service.recordCompletion(user, TODAY));
+        assertEquals(4, user.getStreak());
+        assertFalse(service.recordCompletion(user, TODAY));
+        assertEquals(4, user.getStreak());
+
+        assertTrue(service.recordCompletion(user, TODAY.plusDays(3)));
+        assertEquals(1, user.getStreak());
+        assertEquals(5, user.getLongestStreak());
+        assertEquals(TODAY.plusDays(3), user.getLastCompletionDay());
+    }
+
+    @Test
+    void refresh_resetsTheStreakOnceADayIsMissed() {
+        User keptAlive = user(3, 3, TODAY.minusDays(1));
+        User broken = user(3, 3, TODAY.minusDays(2));
+
+        assertFalse(service.refresh(keptAlive, TODAY));
+        assertTrue(service.refresh(broken, TODAY));
+
+        assertEquals(3, keptAlive.getStreak());
+        assertEquals(0, broken.getStreak());
+        assertEquals(3, broken.getLongestStreak());
+    }
+
+    @Test
+    void rebuild_recomputesStateFromHistory() {
+        User user = user(9, 9, TODAY);
+        user.setStreakNeedsRepair(true);
+        DayBitmap calendar = DayBitmap.empty();
+        for (int daysAgo : new int[]{0, 1, 5, 6, 7}) {
+            calendar.set(TODAY.minusDays(daysAgo));
+        }
+        when(completionCalendarService.rebuild(user.getId())).thenReturn(calendar);
+
+        assertTrue(service.rebuild(user));
+
+        assertEquals(2, user.getStreak());
+        assertEquals(3, user.getLongestStreak());
+        assertEquals(TODAY, user.getLastCompletionDay());
+        assertFalse(user.isStreakNeedsRepair());
+    }
+
+    @Test
+    void snapshot_readsWithoutChangingTheUser() {
+        User broken = user(3, 4, TODAY.minusDays(2));
+        User flagged = user(9, 9, TODAY);
+        flagged.setStreakNeedsRepair(true);
+        DayBitmap calendar = DayBitmap.empty();
+        for (int daysAgo : new int[]{1, 2, 6, 7, 8, 9}) {
+            calendar.set(TODAY.minusDays(daysAgo));
+        }
+        when(completionCalendarService.calendar(flagged.getId())).thenReturn(calendar);
+
+        assertEquals(new StreakService.Snapshot(0, 4), service.snapshot(broken, TODAY));
+        assertEquals(new StreakService.Snapshot(2, 4), service.snapshot(flagged, TODAY));
+
+        assertEquals(3, broken.getStreak());
+        assertEquals(9, flagged.getStreak());
+        assertTrue(flagged.isStreakNeedsRepair());
+    }
+
+    private static User user(int streak, int longest, LocalDate lastCompletionDay) {
+        User user = new User(1L, "Sam", "sam@example.com");
+        user.setStreak(streak);
+        user.setLongestStreak(longest);
+        user.setLastCompletionDay(lastCompletionDay);
+        return user;
+    }
+}
@@ -0,0 +1,151 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.enums.CompletionStatus;
+import com.divyam.advent.enums.Mood;
+import com.divyam.advent.exception.ResourceNotFoundException;
+import com.divyam.advent.model.Badge;
+import com.divyam.advent.model.Challenge;
+import com.divyam.advent.model.User;
+import com.divyam.advent.model.UserChallenge;
+import com.divyam.advent.repository.ChallengeRepository;
+import com.divyam.advent.repository.UserChallengeRepository;
+import com.divyam.advent.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserChallengeServiceImplTest {
+
+    @Mock
+    private UserChallengeRepository userChallengeRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    @Mock
+    private BadgeService badgeService;
+
+    @Mock
+    private ChallengeCycleSyncService challengeCycleSyncService;
+
+    @Mock
+    private ChallengeCatalog challengeCatalog;
+
+    @Mock
+    private UserChallengeSummaryService userChallengeSummaryService;
+
+    @Mock
+    private DailyPreviewCache dailyPreviewCache;
+
+    @Mock
+    private DailyPreviewTokenService dailyPreviewTokenService;
+
+    @Mock
+    private DailyChallengeSelector dailyChallengeSelector;
+
+    @Mock
+    private UserChallengeAssignmentWriter userChallengeAssignmentWriter;
+
+    @Mock
+    private PulseCounterService pulseCounterService;
+
+    @Mock
+    private CompletionCalendarService completionCalendarService;
+
+    private UserChallengeServiceImpl service;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        service = new UserChallengeServiceImpl(
+                userChallengeRepository, userRepository, challengeRepository, badgeService,
+                challengeCycleSyncService, challengeCatalog, userChallengeSummaryService, dailyPreviewCache,
+                dailyPreviewTokenService, dailyChallengeSelector, userChallengeAssignmentWriter,
+                pulseCounterService, completionCalendarService);
+        user = new User(1L, "Sam", "sam@example.com");
+    }
+
+    @Test
+    void markAsCompleted_returnsTheBadgesItUnlocked() {
+        UserChallenge assigned = new UserChallenge(user, challenge(5L), CompletionStatus.ASSIGNED);
+        assigned.setId(10L);
+        when(userChallengeRepository.findById(10L)).thenReturn(Optional.of(assigned));
+        when(userChallengeRepository.save(assigned)).thenReturn(assigned);
+        when(badgeService.recordCompletion(any(User.class), any(LocalDate.class)))
+                .thenReturn(List.of(badge("STREAK_3_DAYS"), badge("FIRST_CHALLENGE_COMPLETED")));
+
+        UserChallenge completed = service.markAsCompleted(10L);
+
+        assertEquals(CompletionStatus.COMPLETED, completed.getStatus());
+        assertEquals(List.of("FIRST_CHALLENGE_COMPLETED", "STREAK_3_DAYS"), completed.getNewlyUnlockedBadgeIds());
+    }
+
+    @Test
+    void confirmDailyChallenge_returnsTheWinnerWhenAConcurrentTapInsertedFirst() {
+        LocalDate today = LocalDate.now();
+        DailyPreviewCache.Key key = new DailyPreviewCache.Key(1L, today, Mood.LOW);
+        Challenge previewed = challenge(5L);
+        UserChallenge winner = new UserChallenge(user, previewed, CompletionStatus.ASSIGNED);
+        winner.setId(20L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userChallengeRepository.findByUser_IdAndStartTimeInRangeAndStatus(
+                1L, today.atStartOfDay(), today.plusDays(1).atStartOfDay(), CompletionStatus.ASSIGNED))
+                .thenReturn(List.of(), List.of(winner));
+        when(challengeCatalog.snapshot()).thenReturn(ChallengeCatalog.Snapshot.of(List.of(previewed)));
+        when(dailyPreviewCache.get(key)).thenReturn(5L);
+        when(userChallengeAssignmentWriter.insert(any(UserChallenge.class), isNull()))
+                .thenThrow(new DataIntegrityViolationException("uk_user_challenges_user_daily_day"));
+
+        UserChallenge confirmed = service.confirmDailyChallenge(1L, 5L, Mood.LOW);
+
+        assertSame(winner, confirmed);
+        verify(userChallengeAssignmentWriter).insert(any(UserChallenge.class), isNull());
+        verifyNoInteractions(pulseCounterService);
+        verify(dailyPreviewCache).remove(key);
+    }
+
+    @Test
+    void markAsCompleted_rejectsARowPreassignedForTomorrow() {
+        UserChallenge tomorrow = new UserChallenge(user, challenge(5L), CompletionStatus.ASSIGNED);
+        tomorrow.setId(11L);
+        tomorrow.setPreassigned(true);
+        tomorrow.setStartTime(LocalDate.now().plusDays(1).atStartOfDay());
+        when(userChallengeRepository.findById(11L)).thenReturn(Optional.of(tomorrow));
+
+        assertThrows(ResourceNotFoundException.class, () -> service.markAsCompleted(11L));
+        verify(userChallengeRepository, never()).save(any());
+    }
+
+    private static Challenge challenge(Long id) {
+        Challenge challenge = new Challenge();
+        challenge.setId(id);
+        return challenge;
+    }
+
+    private static Badge badge(String id) {
+        Badge badge = new Badge();
+        badge.setId(id);
+        return badge;
+    }
+}
@@ -0,0 +1,114 @@
+package com.divyam.advent.service;
+
+import com.divyam.advent.enums.ChallengeCategory;
+import com.divyam.advent.enums.CompletionStatus;
+import com.divyam.advent.enums.EnergyLevel;
+import com.divyam.advent.model.Challenge;
+import com.divyam.advent.model.User;
+import com.divyam.advent.model.UserChallenge;
+import com.divyam.advent.model.UserChallengeSummary;
+import com.divyam.advent.repository.UserChallengeRepository;
+import com.divyam.advent.repository.UserChallengeSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserChallengeSummaryServiceTest {
+
+    private static final LocalDateTime START = LocalDate.of(2026, 3, 10).atTime(9, 0);
+
+    @Mock
+    private UserChallengeSummaryRepository summaryRepository;
+
+    @Mock
+    private UserChallengeRepository userChallengeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserChallengeSummaryService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new UserChallengeSummaryService(summaryRepository, userChallengeRepository, transactionManager);
+    }
+
+    @Test
+    void recordAssignment_storesAMissingSummaryFirstAndAddsTheRowUnderTheLock() {
+        UserChallengeSummary stored = new UserChallengeSummary(1L);
+        when(summaryRepository.findByUserIdForUpdate(1L)).thenReturn(Optional.empty(), Optional.of(stored));
+        when(summaryRepository.findAllById(List.of(1L))).thenReturn(List.of());
+
+        service.recordAssignment(assignment(1L, 5L));
+
+        verify(summaryRepository).save(argThat(summary -> summary != stored && summary.getUserId().equals(1L)));
+        verify(transactionManager).commit(any());
+        assertEquals(5L, stored.getLastChallengeId());
+        verify(summaryRepository).save(stored);
+    }
+
+    @Test
+    void recordAssignment_usesTheSummaryAConcurrentFirstAssignmentStored() {
+        UserChallengeSummary stored = new UserChallengeSummary(1L);
+        when(summaryRepository.findByUserIdForUpdate(1L)).thenReturn(Optional.empty(), Optional.of(stored));
+        when(summaryRepository.findAllById(List.of(1L))).thenReturn(List.of(), List.of(stored));
+        doThrow(new DataIntegrityViolationException("duplicate key")).doNothing().when(summaryRepository).flush();
+
+        service.recordAssignment(assignment(1L, 5L));
+
+        verify(summaryRepository, times(2)).flush();
+        assertEquals(5L, stored.getLastChallengeId());
+        verify(summaryRepository).save(stored);
+    }
+
+    @Test
+    void recordAssignments_storesMissingSummariesBeforeAddingTheBatch() {
+        UserChallengeSummary existing = new UserChallengeSummary(1L);
+        UserChallengeSummary created = new UserChallengeSummary(2L);
+        Challenge challenge = challenge(5L);
+        when(summaryRepository.findByUserIdInForUpdate(Set.of(1L, 2L))).thenReturn(List.of(existing));
+        when(summaryRepository.findAllById(Set.of(2L))).thenReturn(List.of());
+        when(summaryRepository.findByUserIdInForUpdate(Set.of(2L))).thenReturn(List.of(created));
+        doNothing().when(summaryRepository).flush();
+
+        service.recordAssignments(Map.of(1L, challenge, 2L, challenge), START);
+
+        assertEquals(5L, existing.getLastChallengeId());
+        assertEquals(5L, created.getLastChallengeId());
+        verify(summaryRepository).saveAll(argThat(summaries -> summaries instanceof List<?> list
+                && list.size() == 2 && list.contains(existing) && list.contains(created)));
+    }
+
+    private static UserChallenge assignment(Long userId, Long challengeId) {
+        UserChallenge row = new UserChallenge(new User(userId, "Sam", "sam@example.com"), challenge(challengeId), CompletionStatus.ASSIGNED);
+        row.setStartTime(START);
+        return row;
+    }
+
+    private static Challenge challenge(Long id) {
+        Challenge challenge = new Challenge("Walk", "Take a walk", ChallengeCategory.EXPLORE_CITY, EnergyLevel.LOW, true);
+        challenge.setId(id);
+        return challenge;
+    }
+}
@@ -0,0 +1,60 @@
+package com.divyam.advent.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DayBitmapTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    @Test
+    void setDaysOnBothSidesOfTheOriginAndReadRuns() {
+        DayBitmap days = DayBitmap.empty();
+        assertNull(days.lastDay());
+
+        for (int offset = 0; offset < 20; offset++) {
+            days.set(START.plusDays(offset));
+        }
+        days.set(START.minusDays(3));
+        days.set(START.minusDays(2));
+        days.set(START.plusDays(40));
+        assertFalse(days.set(START.plusDays(40)));
+
+        assertTrue(days.contains(START.minusDays(3)));
+        assertFalse(days.contains(START.minusDays(1)));
+        assertFalse(days.contains(START.minusDays(400)));
+        assertEquals(START.plusDays(40), days.lastDay());
+        assertEquals(20, days.longestRun());
+        assertEquals(1, days.runEndingAt(START.plusDays(40)));
+        assertEquals(17, days.runEndingAt(START.plusDays(16)));
+        assertEquals(2, days.runEndingAt(START.minusDays(2)));
+        assertEquals(0, days.runEndingAt(START.plusDays(30)));
+        assertEquals(
+                List.of(START.plusDays(18), START.plusDays(19), START.plusDays(40)),
+                days.daysBetween(START.plusDays(18), START.plusDays(60))
+        );
+    }
+
+    @Test
+    void roundTripsThroughBytesInAboutFortySixBytesAYear() {
+        DayBitmap days = DayBitmap.empty();
+        for (int offset = 0; offset < 365; offset += 2) {
+            days.set(START.plusDays(offset));
+        }
+
+        byte[] bytes = days.toBytes();
+        DayBitmap restored = DayBitmap.fromBytes(days.origin(), bytes);
+
+        assertEquals(46, bytes.length);
+        assertEquals(days.daysBetween(START, START.plusDays(400)), restored.daysBetween(START, START.plusDays(400)));
+        assertEquals(1, restored.longestRun());
+        assertEquals(183, restored.daysBetween(START, START.plusDays(364)).size());
+    }
+}
@@ -0,0 +1,54 @@
+package com.divyam.advent.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DecayingTopKTest {
+
+    private static final long HALF_LIFE = 1_000L;
+
+    @Test
+    void top_keepsHeavyHittersWhenManyKeysPassThrough() {
+        DecayingTopK summary = new DecayingTopK(8, HALF_LIFE, 0);
+        for (int round = 0; round < 100; round++) {
+            summary.add(1, 0);
+            summary.add(1, 0);
+            summary.add(2, 0);
+            summary.add(1_000 + round, 0);
+        }
+
+        List<DecayingTopK.Entry> top = summary.top(2, 0);
+
+        assertEquals(8, summary.size());
+        assertEquals(1, top.get(0).key());
+        assertEquals(2, top.get(1).key());
+        assertEquals(200, top.get(0).count(), 200 * 0.1);
+    }
+
+    @Test
+    void top_letsRecentActivityOvertakeOlderCounts() {
+        DecayingTopK summary = new DecayingTopK(8, HALF_LIFE, 0);
+        for (int i = 0; i < 10; i++) {
+            summary.add(1, 0);
+        }
+        long later = 3 * HALF_LIFE;
+        for (int i = 0; i < 2; i++) {
+            summary.add(2, later);
+        }
+
+        List<DecayingTopK.Entry> top = summary.top(2, later);
+
+        assertEquals(2, top.get(0).key());
+        assertEquals(2.0, top.get(0).count(), 1e-9);
+        assertEquals(1.25, top.get(1).count(), 1e-9);
+
+        // Far beyond the rescale point the counts still decay consistently.
+        long muchLater = 100 * HALF_LIFE;
+        summary.add(3, muchLater);
+        assertEquals(3, summary.top(1, muchLater).get(0).key());
+        assertEquals(1.0, summary.top(1, muchLater).get(0).count(), 1e-9);
+    }
+}
@@ -0,0 +1,44 @@
+package com.divyam.advent.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimatesSmallAndLargeCardinalities() {
+        HyperLogLog small = new HyperLogLog();
+        for (long id = 1; id <= 100; id++) {
+            small.add(id);
+            small.add(id);
+        }
+        assertEquals(100, small.estimate(), 100 * 0.03);
+
+        HyperLogLog large = new HyperLogLog();
+        for (long id = 1; id <= 200_000; id++) {
+            large.add(id);
+        }
+        assertEquals(200_000, large.estimate(), 200_000 * 0.05);
+    }
+
+    @Test
+    void mergeCountsUnionOnceAndSurvivesSerialization() {
+        HyperLogLog monday = new HyperLogLog();
+        HyperLogLog tuesday = new HyperLogLog();
+        for (long id = 0; id < 30_000; id++) {
+            monday.add(id);
+            tuesday.add(id + 10_000);
+        }
+
+        HyperLogLog week = HyperLogLog.fromBytes(monday.toBytes());
+        week.merge(tuesday);
+        week.merge(tuesday);
+
+        assertEquals(monday, HyperLogLog.fromBytes(monday.toBytes()));
+        assertEquals(40_000, week.estimate(), 40_000 * 0.05);
+        assertTrue(new HyperLogLog().isEmpty());
+        assertEquals(0, HyperLogLog.fromBytes(null).estimate());
+    }
+}
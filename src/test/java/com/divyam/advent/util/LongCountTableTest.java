@@ -0,0 +1,39 @@
+package com.divyam.advent.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongCountTableTest {
+
+    @Test
+    void add_keepsCountsThroughGrowth() {
+        Random random = new Random(7);
+        Map<Long, Long> expected = new HashMap<>();
+        LongCountTable table = new LongCountTable();
+
+        for (int i = 0; i < 5_000; i++) {
+            long key = random.nextInt(2_000) - 1_000L;
+            table.add(key, 1L);
+            expected.merge(key, 1L, Long::sum);
+        }
+
+        assertEquals(expected.size(), table.size());
+        expected.forEach((key, count) -> assertEquals(count, table.get(key)));
+        assertEquals(0L, table.get(5_000L));
+    }
+
+    @Test
+    void from_copiesMapAndRejectsReservedKey() {
+        LongCountTable table = LongCountTable.from(Map.of(3L, 2L, 40L, 5L));
+
+        assertEquals(2L, table.get(3L));
+        assertEquals(5L, table.get(40L));
+        assertThrows(IllegalArgumentException.class, () -> table.add(Long.MIN_VALUE, 1L));
+    }
+}